@@ -23,7 +23,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor.DiscardPolicy;
 import java.util.concurrent.TimeUnit;
 
@@ -31,8 +31,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import org.dromara.mendmix.common.GlobalContext;
 import org.dromara.mendmix.common.ThreadLocalContext;
-import org.dromara.mendmix.common.async.StandardThreadExecutor;
-import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.async.ThreadExecutorFactory;
 import org.dromara.mendmix.common.util.ExceptionFormatUtils;
 import org.dromara.mendmix.common.util.ResourceUtils;
 
@@ -74,7 +73,7 @@ public class MQContext {
 	private int consumeMaxRetryTimes = -1;
 	//
 	private boolean loghandlerEnabled;
-	private static ThreadPoolExecutor logHandleExecutor;
+	private static ExecutorService logHandleExecutor;
 	
 	private Map<String, List<String>> consumeAllowFilters = new HashMap<>();
 	private Map<String, List<String>> consumeIgnoreFilters = new HashMap<>();
@@ -108,8 +107,7 @@ public class MQContext {
 		//
 		if(this.loghandlerEnabled) {
 			if(logHandleExecutor == null) {
-				final StandardThreadFactory threadFactory = new StandardThreadFactory("logHandleExecutor");
-				logHandleExecutor = new StandardThreadExecutor(1, 10,60, TimeUnit.SECONDS,5000,threadFactory,new DiscardPolicy());
+				logHandleExecutor = ThreadExecutorFactory.create("logHandleExecutor", 1, 10,60, TimeUnit.SECONDS,5000,new DiscardPolicy());
 			}
 		}
 		this.loghandlerEnabled = false;
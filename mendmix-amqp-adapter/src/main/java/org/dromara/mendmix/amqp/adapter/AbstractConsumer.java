@@ -31,10 +31,12 @@ import org.dromara.mendmix.amqp.MQMessage;
 import org.dromara.mendmix.amqp.MessageHandler;
 import org.dromara.mendmix.common.GlobalContext;
 import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.async.BoundedExecutor;
 import org.dromara.mendmix.common.async.DelayRetryExecutor;
 import org.dromara.mendmix.common.async.ICaller;
 import org.dromara.mendmix.common.async.StandardThreadExecutor;
 import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.async.ThreadExecutorFactory;
 
 /**
  * 
@@ -55,7 +57,7 @@ public abstract class AbstractConsumer implements MQConsumer {
 	// 接收线程
 	protected StandardThreadExecutor fetchExecutor;
 	// 默认处理线程池
-	protected StandardThreadExecutor asyncProcessExecutor;
+	protected BoundedExecutor asyncProcessExecutor;
 	
 	protected DelayRetryExecutor retryExecutor;
 	//
@@ -78,7 +80,7 @@ public abstract class AbstractConsumer implements MQConsumer {
 		if(context.isAsyncConsumeEnabled()) {
 			int maxThread = context.getMaxProcessThreads();
 			semaphore = new Semaphore(maxThread);
-			this.asyncProcessExecutor = new StandardThreadExecutor(1, maxThread,60, TimeUnit.SECONDS,maxThread,new StandardThreadFactory("messageAsyncProcessor"));
+			this.asyncProcessExecutor = ThreadExecutorFactory.create("messageAsyncProcessor", 1, maxThread,60, TimeUnit.SECONDS,maxThread,null);
 		    //
 			fetchMaxThreads = maxThread;
 			logger.info("<startup-logging>  init asyncProcessExecutor finish -> maxThread:{}",maxThread);
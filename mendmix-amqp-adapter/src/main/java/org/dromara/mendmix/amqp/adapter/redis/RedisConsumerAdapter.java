@@ -15,8 +15,9 @@ import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.dromara.mendmix.amqp.MQConsumer;
 import org.dromara.mendmix.amqp.MQContext;
 import org.dromara.mendmix.amqp.MessageHandler;
-import org.dromara.mendmix.common.async.StandardThreadExecutor;
+import org.dromara.mendmix.common.async.BoundedExecutor;
 import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.async.ThreadExecutorFactory;
 
 /**
  * 
@@ -29,7 +30,7 @@ public class RedisConsumerAdapter implements MQConsumer {
 	private RedisConnectionFactory connectionFactory;
 	private RedisMessageListenerContainer container = new RedisMessageListenerContainer();
 	private ThreadPoolExecutor fetchExecutor;
-	private StandardThreadExecutor asyncProcessExecutor;
+	private BoundedExecutor asyncProcessExecutor;
 		
 	private MQContext context;
 	private Map<String, MessageHandler> messageHandlers = new HashMap<>(); 
@@ -46,7 +47,7 @@ public class RedisConsumerAdapter implements MQConsumer {
 	public void start() throws Exception {
 		int maxThread = context.getMaxProcessThreads();
 		this.fetchExecutor = new ThreadPoolExecutor(1, 1,0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),new StandardThreadFactory("messageFetcher"));
-		this.asyncProcessExecutor = new StandardThreadExecutor(1, maxThread,60, TimeUnit.SECONDS,1000,new StandardThreadFactory("messageAsyncProcessor"));
+		this.asyncProcessExecutor = ThreadExecutorFactory.create("messageAsyncProcessor", 1, maxThread,60, TimeUnit.SECONDS,1000,null);
 		container.setConnectionFactory(connectionFactory);
         container.setSubscriptionExecutor(fetchExecutor);
         container.setTaskExecutor(asyncProcessExecutor);
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.dromara.mendmix.benchmarks.model.UserDTO;
+import org.dromara.mendmix.benchmarks.model.UserEntity;
+import org.dromara.mendmix.common.util.BeanUtils;
+
+/**
+ * 对象复制及转换
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanUtilsBenchmark {
+
+	private UserEntity entity;
+	private List<UserEntity> entities;
+	private Map<String, Object> entityMap;
+
+	@Setup
+	public void setup() {
+		entity = UserEntity.mock(1);
+		entities = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			entities.add(UserEntity.mock(i));
+		}
+		entityMap = BeanUtils.beanToMap(entity);
+	}
+
+	@Benchmark
+	public UserDTO copy() {
+		return BeanUtils.copy(entity, UserDTO.class);
+	}
+
+	@Benchmark
+	public UserDTO copyShallow() {
+		return BeanUtils.copy(entity, UserDTO.class, false);
+	}
+
+	@Benchmark
+	public List<UserDTO> copyList() {
+		return BeanUtils.copy(entities, UserDTO.class);
+	}
+
+	@Benchmark
+	public Map<String, Object> beanToMap() {
+		return BeanUtils.beanToMap(entity);
+	}
+
+	@Benchmark
+	public UserEntity mapToBean() {
+		return BeanUtils.mapToBean(entityMap, UserEntity.class);
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.dromara.mendmix.mybatis.plugin.pagination.PageSqlUtils;
+
+/**
+ * 分页count语句生成
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSqlBenchmark {
+
+	private static final String[] SQLS = {
+			"select * from users where status = 1",
+			"select a.from,a.to from users a where status = 1 order by id desc,name asc",
+			"select u.* from users u join details d on u.id = d.id where u.status = 1 and d.type in (1,2,3) order by u.created_at desc",
+			"select t.* from (select t.* from orders t where t.status = '1') t where t.amount > 100",
+			"SELECT wid.id,(SELECT key_lot_code FROM wms_lot wl2 WHERE wl2.lot_code = wid.lot_code LIMIT 1) AS key_lot_code FROM wms_inventory_detail wid WHERE wid.deleted = '0' AND wid.qty > 0 ORDER BY wid.created_at DESC"
+	};
+
+	@Param({"0", "1", "2", "3", "4"})
+	private int sqlIndex;
+
+	private String sql;
+
+	@Setup
+	public void setup() {
+		sql = SQLS[sqlIndex];
+	}
+
+	@Benchmark
+	public String getCountSql() {
+		return PageSqlUtils.getCountSql(sql);
+	}
+}
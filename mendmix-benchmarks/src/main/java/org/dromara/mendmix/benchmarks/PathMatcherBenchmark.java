@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.dromara.mendmix.common.util.PathMatcher;
+
+/**
+ * 路径匹配
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathMatcherBenchmark {
+
+	private static final String URI_PATTERNS = "/user/login,/user/logout,/user/register,/open/*,/static/**,/api/*/detail,/api/order/*/items,/health";
+
+	@Param({"/user/login", "/open/notify/callback", "/api/product/detail", "/api/order/10086/items", "/admin/users/list"})
+	private String uri;
+
+	private PathMatcher matcher;
+
+	@Setup
+	public void setup() {
+		matcher = new PathMatcher("/gateway", URI_PATTERNS);
+		uri = "/gateway" + uri;
+	}
+
+	@Benchmark
+	public boolean match() {
+		return matcher.match(uri);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.dromara.mendmix.benchmarks.baseline.SynchronizedSnowflakeGenerator;
+import org.dromara.mendmix.common.guid.SnowflakeGenerator;
+
+/**
+ * 雪花ID生成（单线程及多线程竞争），与原synchronized实现对比
+ * <br>
+ * 单节点吞吐受12位序列号限制（约4096/ms），竞争下差异主要体现在延迟分布，建议使用-bm sample对比
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnowflakeBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private final SnowflakeGenerator generator = new SnowflakeGenerator(1, 1);
+	private final SynchronizedSnowflakeGenerator baseline = new SynchronizedSnowflakeGenerator(1, 1);
+
+	@Benchmark
+	@Threads(1)
+	public long nextId() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long nextIdContended() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public long baselineNextId() {
+		return baseline.nextId();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long baselineNextIdContended() {
+		return baseline.nextId();
+	}
+
+	@Benchmark
+	@Threads(8)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public long[] nextIdsContended() {
+		return generator.nextIds(BATCH_SIZE);
+	}
+
+	@Benchmark
+	@Threads(8)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public long[] baselineNextIdsContended() {
+		long[] ids = new long[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			ids[i] = baseline.nextId();
+		}
+		return ids;
+	}
+}
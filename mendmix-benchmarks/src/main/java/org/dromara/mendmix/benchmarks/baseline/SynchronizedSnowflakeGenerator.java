@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.benchmarks.baseline;
+
+/**
+ * 原synchronized实现，仅用于对比基准
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class SynchronizedSnowflakeGenerator {
+
+	private long workerId;
+	private long datacenterId;
+	private long sequence = 0L;
+
+	private long twepoch = 1288834974657L;
+
+	private long workerIdBits = 5L;
+	private long datacenterIdBits = 5L;
+	private long sequenceBits = 12L;
+
+	private long workerIdShift = sequenceBits;
+	private long datacenterIdShift = sequenceBits + workerIdBits;
+	private long timestampLeftShift = sequenceBits + workerIdBits + datacenterIdBits;
+	private long sequenceMask = -1L ^ (-1L << sequenceBits);
+
+	private long lastTimestamp = -1L;
+
+	public SynchronizedSnowflakeGenerator(long workerId, long datacenterId) {
+		this.workerId = workerId;
+		this.datacenterId = datacenterId;
+	}
+
+	public synchronized long nextId() {
+		long timestamp = timeGen();
+
+		if (timestamp < lastTimestamp) {
+			throw new RuntimeException(String.format(
+					"Clock moved backwards.  Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
+		}
+
+		if (lastTimestamp == timestamp) {
+			sequence = (sequence + 1) & sequenceMask;
+			if (sequence == 0) {
+				timestamp = tilNextMillis(lastTimestamp);
+			}
+		} else {
+			sequence = 0L;
+		}
+
+		lastTimestamp = timestamp;
+
+		return ((timestamp - twepoch) << timestampLeftShift) | (datacenterId << datacenterIdShift)
+				| (workerId << workerIdShift) | sequence;
+	}
+
+	private long tilNextMillis(long lastTimestamp) {
+		long timestamp = timeGen();
+		while (timestamp <= lastTimestamp) {
+			timestamp = timeGen();
+		}
+		return timestamp;
+	}
+
+	private long timeGen() {
+		return System.currentTimeMillis();
+	}
+}
@@ -76,5 +76,23 @@ public interface CacheAdapter {
 	boolean hasMapValue(String key, String field);
 	
 	Set<String> getKeys(String pattern);
+	
+	/**
+	 * 按前缀流式删除（SCAN迭代，不阻塞redis）
+	 * @param keyPrefix
+	 * @param remover
+	 * @return 删除数量
+	 */
+	default long removeByKeyPrefix(String keyPrefix,KeyPrefixRemover remover) {
+		return removeByKeyPattern(KeyPrefixRemover.escapePattern(keyPrefix) + "*", remover);
+	}
+	
+	/**
+	 * 按匹配模式流式删除（SCAN MATCH语法）
+	 * @param pattern
+	 * @param remover
+	 * @return 删除数量
+	 */
+	long removeByKeyPattern(String pattern,KeyPrefixRemover remover);
 
 }
@@ -270,6 +270,18 @@ public class CacheUtils {
 		return getCacheAdapter().getKeys(pattern);
 	}
 	
+	public static long removeByKeyPrefix(String keyPrefix) {
+		return getCacheAdapter().removeByKeyPrefix(keyPrefix, new KeyPrefixRemover());
+	}
+	
+	public static long removeByKeyPrefix(String keyPrefix,KeyPrefixRemover remover) {
+		return getCacheAdapter().removeByKeyPrefix(keyPrefix, remover);
+	}
+	
+	public static long removeByKeyPattern(String pattern,KeyPrefixRemover remover) {
+		return getCacheAdapter().removeByKeyPattern(pattern, remover);
+	}
+	
 	public static void setMapStringValue(String key, String field, String value) {
 		getCacheAdapter().setMapStringValue(key, field, value);
 	}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 按前缀流式删除key
+ * <br>
+ * 基于SCAN迭代，按批次删除，支持限速及进度回调
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class KeyPrefixRemover {
+
+	private int batchSize = 500;
+	private int maxKeysPerSecond; //小于等于0不限速
+	private ProgressCallback callback;
+
+	private long startTime;
+	private long scannedCount;
+	private long removedCount;
+
+	public KeyPrefixRemover() {}
+
+	public KeyPrefixRemover(int batchSize, int maxKeysPerSecond, ProgressCallback callback) {
+		this.batchSize = batchSize;
+		this.maxKeysPerSecond = maxKeysPerSecond;
+		this.callback = callback;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public long getScannedCount() {
+		return scannedCount;
+	}
+
+	public long getRemovedCount() {
+		return removedCount;
+	}
+
+	/**
+	 * 每次删除操作开始时重置统计（实例可复用）
+	 */
+	public void reset() {
+		startTime = 0;
+		scannedCount = 0;
+		removedCount = 0;
+	}
+
+	/**
+	 * 转义SCAN MATCH通配符
+	 * @param value
+	 * @return
+	 */
+	public static String escapePattern(String value) {
+		StringBuilder builder = new StringBuilder(value.length() + 8);
+		char c;
+		for (int i = 0; i < value.length(); i++) {
+			c = value.charAt(i);
+			if(c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+				builder.append('\\');
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @param keyIterator 扫描结果
+	 * @param deleter 批量删除，返回实际删除数量
+	 * @return 累计删除数量
+	 */
+	public long remove(Iterator<byte[]> keyIterator, Function<List<byte[]>, Long> deleter) {
+		if(startTime == 0)startTime = System.currentTimeMillis();
+		List<byte[]> keys = new ArrayList<>(batchSize);
+		while(keyIterator.hasNext()) {
+			keys.add(keyIterator.next());
+			scannedCount++;
+			if(keys.size() >= batchSize) {
+				removeBatch(keys, deleter);
+			}
+		}
+		if(!keys.isEmpty()) {
+			removeBatch(keys, deleter);
+		}
+		return removedCount;
+	}
+
+	public void finish() {
+		if(callback != null) {
+			callback.onProgress(scannedCount, removedCount, true);
+		}
+	}
+
+	private void removeBatch(List<byte[]> keys, Function<List<byte[]>, Long> deleter) {
+		Long count = deleter.apply(keys);
+		if(count != null)removedCount += count;
+		keys.clear();
+		if(callback != null) {
+			callback.onProgress(scannedCount, removedCount, false);
+		}
+		if(maxKeysPerSecond <= 0)return;
+		long waitMillis = scannedCount * 1000 / maxKeysPerSecond - (System.currentTimeMillis() - startTime);
+		if(waitMillis > 0) {
+			try {Thread.sleep(waitMillis);} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public interface ProgressCallback {
+		void onProgress(long scannedCount, long removedCount, boolean finished);
+	}
+}
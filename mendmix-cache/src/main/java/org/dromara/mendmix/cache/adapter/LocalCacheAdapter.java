@@ -26,10 +26,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.dromara.mendmix.cache.CacheAdapter;
+import org.dromara.mendmix.cache.KeyPrefixRemover;
 
 @SuppressWarnings("unchecked")
 public class LocalCacheAdapter implements CacheAdapter {
@@ -289,6 +291,48 @@ public class LocalCacheAdapter implements CacheAdapter {
 	public Set<String> getKeys(String pattern) {
 		return new HashSet<>(0);
 	}
+	
+	@Override
+	public long removeByKeyPrefix(String keyPrefix, KeyPrefixRemover remover) {
+		List<String> keys = new ArrayList<>();
+		for (String key : cache.asMap().keySet()) {
+			if(key.startsWith(keyPrefix))keys.add(key);
+		}
+		cache.invalidateAll(keys);
+		return keys.size();
+	}
+	
+	@Override
+	public long removeByKeyPattern(String pattern, KeyPrefixRemover remover) {
+		Pattern regex = globToRegex(pattern);
+		List<String> keys = new ArrayList<>();
+		for (String key : cache.asMap().keySet()) {
+			if(regex.matcher(key).matches())keys.add(key);
+		}
+		cache.invalidateAll(keys);
+		return keys.size();
+	}
+	
+	/**
+	 * 转换SCAN MATCH通配符（*、?及转义）
+	 */
+	private static Pattern globToRegex(String pattern) {
+		StringBuilder regex = new StringBuilder(pattern.length() + 16);
+		char c;
+		for (int i = 0; i < pattern.length(); i++) {
+			c = pattern.charAt(i);
+			if(c == '\\' && i + 1 < pattern.length()) {
+				regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+			}else if(c == '*') {
+				regex.append(".*");
+			}else if(c == '?') {
+				regex.append('.');
+			}else {
+				regex.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
 
 	@Override
 	public void setMapStringValue(String key, String field, String value) {
@@ -15,6 +15,8 @@
  */
 package org.dromara.mendmix.cache.adapter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,10 +30,17 @@ import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import org.dromara.mendmix.cache.CacheAdapter;
+import org.dromara.mendmix.cache.KeyPrefixRemover;
 import org.dromara.mendmix.cache.RedisTemplateGroups;
 import org.dromara.mendmix.common.util.BeanUtils;
 
@@ -232,6 +241,50 @@ public class RedisCacheAdapter implements CacheAdapter {
 		return getRedisTemplate().keys(pattern);
 	}
 	
+	@Override
+	public long removeByKeyPattern(String keyPattern, KeyPrefixRemover remover) {
+		RedisTemplate<String, Object> redisTemplate = getRedisTemplate();
+		//经过key序列化处理（如租户前缀）
+		byte[] pattern = serializeKey(redisTemplate.getKeySerializer(), keyPattern);
+		ScanOptions options = ScanOptions.scanOptions().match(new String(pattern, StandardCharsets.UTF_8)).count(remover.getBatchSize()).build();
+		remover.reset();
+		try {
+			return redisTemplate.execute((RedisCallback<Long>) connection -> {
+				if(connection instanceof RedisClusterConnection) {
+					RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+					for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+						if(!node.isMaster())continue;
+						try(Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+							remover.remove(cursor, keys -> connection.unlink(keys.toArray(new byte[0][])));
+						} catch (IOException e) {
+							logger.warn("close scan cursor error:{}",e.getMessage());
+						}
+					}
+				}else {
+					try(Cursor<byte[]> cursor = connection.scan(options)) {
+						remover.remove(cursor, keys -> connection.unlink(keys.toArray(new byte[0][])));
+					} catch (IOException e) {
+						logger.warn("close scan cursor error:{}",e.getMessage());
+					}
+				}
+				return remover.getRemovedCount();
+			});
+		} finally {
+			remover.finish();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static byte[] serializeKey(RedisSerializer<?> keySerializer, String key) {
+		if(keySerializer == null) {
+			return key.getBytes(StandardCharsets.UTF_8);
+		}
+		if(!keySerializer.canSerialize(String.class)) {
+			throw new IllegalStateException("key serializer not support String:" + keySerializer.getClass().getName());
+		}
+		return ((RedisSerializer<String>)keySerializer).serialize(key);
+	}
+	
 	@Override
 	public void setMapStringValue(String key, String field, String value) {
 		getStringRedisTemplate().opsForHash().put(key, field, value);
@@ -16,16 +16,32 @@
 package org.dromara.mendmix.cache.command;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dromara.mendmix.cache.KeyPrefixRemover;
+import org.dromara.mendmix.cache.redis.JedisProvider;
 import org.dromara.mendmix.cache.redis.JedisProviderFactory;
+import org.dromara.mendmix.cache.redis.cluster.JedisClusterProvider;
+import org.dromara.mendmix.cache.redis.shard.JedisShardProvider;
 import org.dromara.mendmix.common.util.SerializeUtils;
 
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.SafeEncoder;
 
 /**
@@ -46,23 +62,51 @@ public class RedisBatchCommand {
 	 * @return
 	 */
 	public static boolean setStringsWithGroup(String groupName,Map<String, Object> keyValueMap){
+		return setStringsWithGroup(groupName, keyValueMap, 0);
+	}
+	
+	/**
+	 * 指定组批量写入字符串
+	 * @param groupName 缓存组
+	 * @param keyValueMap 
+	 * @param expireSeconds 过期时间（秒），小于等于0不过期
+	 * @return
+	 */
+	public static boolean setStringsWithGroup(String groupName,Map<String, Object> keyValueMap,long expireSeconds){
+		return setStringsWithGroup(groupName, keyValueMap, key -> expireSeconds);
+	}
+	
+	/**
+	 * 指定组批量写入字符串（按key设置过期时间）
+	 * @param groupName 缓存组
+	 * @param keyValueMap 
+	 * @param keyExpireSeconds key -> 过期时间（秒），未指定或小于等于0不过期
+	 * @return
+	 */
+	public static boolean setStringsWithGroup(String groupName,Map<String, Object> keyValueMap,Map<String, Long> keyExpireSeconds){
+		return setStringsWithGroup(groupName, keyValueMap, key -> getExpireSeconds(keyExpireSeconds, key));
+	}
+	
+	private static boolean setStringsWithGroup(String groupName,Map<String, Object> keyValueMap,ToLongFunction<String> expireFunction){
 		if(keyValueMap == null || keyValueMap.isEmpty())return false;
-		String[] keysValues = new String[keyValueMap.size() * 2];
-		int index = 0;
-		for (String key : keyValueMap.keySet()) {
-			if(keyValueMap.get(key) == null)continue;
-			keysValues[index++] = key;
-			keysValues[index++] = keyValueMap.get(key).toString();
+		List<String> keys = new ArrayList<>(keyValueMap.size());
+		List<String> values = new ArrayList<>(keyValueMap.size());
+		List<Long> expires = new ArrayList<>(keyValueMap.size());
+		for (Entry<String, Object> entry : keyValueMap.entrySet()) {
+			if(entry.getValue() == null)continue;
+			keys.add(entry.getKey());
+			values.add(entry.getValue().toString());
+			expires.add(expireFunction.applyAsLong(entry.getKey()));
 		}
-		try {			
-			if(JedisProviderFactory.isCluster(groupName)){
-				return JedisProviderFactory.getMultiKeyJedisClusterCommands(groupName).mset(keysValues).equals(RESP_OK);
-			}else{
-				return JedisProviderFactory.getMultiKeyCommands(groupName).mset(keysValues).equals(RESP_OK);
+		List<Object> results = RedisPipelineBatchEngine.execute(groupName, SafeEncoder.encodeMany(keys.toArray(new String[0])), (pipeline, index) -> {
+			long expireSeconds = expires.get(index);
+			if(expireSeconds > 0) {
+				pipeline.setex(keys.get(index), (int)expireSeconds, values.get(index));
+			}else {
+				pipeline.set(keys.get(index), values.get(index));
 			}
-		} finally {
-			JedisProviderFactory.getJedisProvider(groupName).release();
-		}
+		});
+		return allSuccess(results);
 	}
 	
 	/**
@@ -75,6 +119,14 @@ public class RedisBatchCommand {
 		return setStringsWithGroup(null, keyValueMap);
 	}
 	
+	public static boolean setStrings(Map<String, Object> keyValueMap,long expireSeconds){
+		return setStringsWithGroup(null, keyValueMap, expireSeconds);
+	}
+	
+	public static boolean setStrings(Map<String, Object> keyValueMap,Map<String, Long> keyExpireSeconds){
+		return setStringsWithGroup(null, keyValueMap, keyExpireSeconds);
+	}
+	
 	/**
 	 * 指定组批量写入对象
 	 * @param groupName 缓存组
@@ -82,24 +134,51 @@ public class RedisBatchCommand {
 	 * @return
 	 */
 	public static boolean setObjectsWithGroup(String groupName,Map<String, Object> keyValueMap){
+		return setObjectsWithGroup(groupName, keyValueMap, 0);
+	}
+	
+	/**
+	 * 指定组批量写入对象
+	 * @param groupName 缓存组
+	 * @param keyValueMap 
+	 * @param expireSeconds 过期时间（秒），小于等于0不过期
+	 * @return
+	 */
+	public static boolean setObjectsWithGroup(String groupName,Map<String, Object> keyValueMap,long expireSeconds){
+		return setObjectsWithGroup(groupName, keyValueMap, key -> expireSeconds);
+	}
+	
+	/**
+	 * 指定组批量写入对象（按key设置过期时间）
+	 * @param groupName 缓存组
+	 * @param keyValueMap 
+	 * @param keyExpireSeconds key -> 过期时间（秒），未指定或小于等于0不过期
+	 * @return
+	 */
+	public static boolean setObjectsWithGroup(String groupName,Map<String, Object> keyValueMap,Map<String, Long> keyExpireSeconds){
+		return setObjectsWithGroup(groupName, keyValueMap, key -> getExpireSeconds(keyExpireSeconds, key));
+	}
+	
+	private static boolean setObjectsWithGroup(String groupName,Map<String, Object> keyValueMap,ToLongFunction<String> expireFunction){
 		if(keyValueMap == null || keyValueMap.isEmpty())return false;
-		byte[][] keysValues = new byte[keyValueMap.size() * 2][];
-		int index = 0;
-		for (String key : keyValueMap.keySet()) {
-			if(keyValueMap.get(key) == null)continue;
-			keysValues[index++] = SafeEncoder.encode(key);
-			keysValues[index++] = SerializeUtils.serialize(keyValueMap.get(key));
-		}
-		
-        try {			
-        	if(JedisProviderFactory.isCluster(groupName)){
-        		return JedisProviderFactory.getMultiKeyBinaryJedisClusterCommands(groupName).mset(keysValues).equals(RESP_OK);
-        	}else{
-        		return JedisProviderFactory.getMultiKeyBinaryCommands(groupName).mset(keysValues).equals(RESP_OK);
-        	}
-		} finally {
-			JedisProviderFactory.getJedisProvider(groupName).release();
+		List<byte[]> keys = new ArrayList<>(keyValueMap.size());
+		List<byte[]> values = new ArrayList<>(keyValueMap.size());
+		List<Long> expires = new ArrayList<>(keyValueMap.size());
+		for (Entry<String, Object> entry : keyValueMap.entrySet()) {
+			if(entry.getValue() == null)continue;
+			keys.add(SafeEncoder.encode(entry.getKey()));
+			values.add(SerializeUtils.serialize(entry.getValue()));
+			expires.add(expireFunction.applyAsLong(entry.getKey()));
 		}
+		List<Object> results = RedisPipelineBatchEngine.execute(groupName, keys.toArray(new byte[0][]), (pipeline, index) -> {
+			long expireSeconds = expires.get(index);
+			if(expireSeconds > 0) {
+				pipeline.setex(keys.get(index), (int)expireSeconds, values.get(index));
+			}else {
+				pipeline.set(keys.get(index), values.get(index));
+			}
+		});
+		return allSuccess(results);
 	}
 	
 	/**
@@ -112,6 +191,19 @@ public class RedisBatchCommand {
 		return setObjectsWithGroup(null, keyValueMap);
 	}
 	
+	public static boolean setObjects(Map<String, Object> keyValueMap,long expireSeconds){
+		return setObjectsWithGroup(null, keyValueMap, expireSeconds);
+	}
+	
+	public static boolean setObjects(Map<String, Object> keyValueMap,Map<String, Long> keyExpireSeconds){
+		return setObjectsWithGroup(null, keyValueMap, keyExpireSeconds);
+	}
+	
+	private static long getExpireSeconds(Map<String, Long> keyExpireSeconds,String key) {
+		Long expireSeconds = keyExpireSeconds == null ? null : keyExpireSeconds.get(key);
+		return expireSeconds == null ? 0 : expireSeconds;
+	}
+	
 	/**
 	 * 按key批量从redis获取值（指定缓存组名）
 	 * @param groupName
@@ -119,15 +211,13 @@ public class RedisBatchCommand {
 	 * @return list<String>
 	 */
 	public static List<String> getStringsWithGroup(String groupName,String...keys){
-        try {
-        	if(JedisProviderFactory.isCluster(groupName)){
-        		return JedisProviderFactory.getMultiKeyJedisClusterCommands(groupName).mget(keys);
-        	}else{
-        		return JedisProviderFactory.getMultiKeyCommands(groupName).mget(keys);
-        	}
-		} finally {
-			JedisProviderFactory.getJedisProvider(groupName).release();
+		List<Object> results = RedisPipelineBatchEngine.execute(groupName, SafeEncoder.encodeMany(keys), (pipeline, index) -> pipeline.get(keys[index]));
+		throwIfError(results);
+		List<String> list = new ArrayList<>(results.size());
+		for (Object result : results) {
+			list.add(result instanceof String ? (String)result : null);
 		}
+		return list;
 	}
 
 	public static List<String> getStrings(String...keys){
@@ -170,19 +260,13 @@ public class RedisBatchCommand {
 	
 	public static <T> List<T> getObjectsWithGroup(String groupName, String... keys) {
 		byte[][] byteKeys = SafeEncoder.encodeMany(keys);
-
-		try {
-			if (JedisProviderFactory.isCluster(groupName)) {
-				List<byte[]> bytes = JedisProviderFactory.getMultiKeyBinaryJedisClusterCommands(groupName)
-						.mget(byteKeys);
-				return listDerialize(bytes);
-			} else {
-				List<byte[]> bytes = JedisProviderFactory.getMultiKeyBinaryCommands(groupName).mget(byteKeys);
-				return listDerialize(bytes);
-			}
-		} finally {
-			JedisProviderFactory.getJedisProvider(groupName).release();
+		List<Object> results = RedisPipelineBatchEngine.execute(groupName, byteKeys, (pipeline, index) -> pipeline.get(byteKeys[index]));
+		throwIfError(results);
+		List<T> list = new ArrayList<>(results.size());
+		for (Object result : results) {
+			list.add(result instanceof byte[] ? valueDerialize((byte[])result) : null);
 		}
+		return list;
 	}
 	
 	public static <T> List<T> getObjects(String...keys){
@@ -194,16 +278,98 @@ public class RedisBatchCommand {
 	}
 	
 	public static void removeByKeyPrefix(String group,String keyPrefix){
-		try {			
-			Set<String> keys = JedisProviderFactory.getMultiKeyCommands(group).keys(keyPrefix +"*");
-			if(keys != null && keys.size() > 0){
-				RedisBatchCommand.removeObjectsWithGroup(group,keys.toArray(new String[0]));
+		removeByKeyPrefix(group, keyPrefix, new KeyPrefixRemover());
+	}
+	
+	/**
+	 * 按前缀删除（SCAN迭代，集群模式逐个master节点扫描）
+	 * @param group
+	 * @param keyPrefix
+	 * @param remover 批次大小、限速及进度回调
+	 * @return 删除数量
+	 */
+	public static long removeByKeyPrefix(String group,String keyPrefix,KeyPrefixRemover remover){
+		byte[] pattern = SafeEncoder.encode(KeyPrefixRemover.escapePattern(keyPrefix) + "*");
+		JedisProvider<?, ?> provider = JedisProviderFactory.getJedisProvider(group);
+		remover.reset();
+		try {
+			if(provider instanceof JedisClusterProvider) {
+				for (JedisPool pool : RedisPipelineBatchEngine.getMasterNodePools(provider.groupName(), (JedisCluster)provider.get())) {
+					try(Jedis jedis = pool.getResource()) {
+						//集群模式下同一节点的key可能分布在不同slot，逐个删除
+						remover.remove(scanKeys(jedis, pattern, remover.getBatchSize()), keys -> {
+							Pipeline pipeline = jedis.pipelined();
+							for (byte[] key : keys) {
+								pipeline.unlink(key);
+							}
+							long count = 0;
+							for (Object result : pipeline.syncAndReturnAll()) {
+								if(result instanceof Long)count += (Long)result;
+							}
+							return count;
+						});
+					}
+				}
+			}else if(provider instanceof JedisShardProvider) {
+				for (Jedis jedis : ((ShardedJedis)provider.get()).getAllShards()) {
+					remover.remove(scanKeys(jedis, pattern, remover.getBatchSize()), keys -> jedis.unlink(keys.toArray(new byte[0][])));
+				}
+			}else {
+				Jedis jedis = (Jedis)provider.get();
+				remover.remove(scanKeys(jedis, pattern, remover.getBatchSize()), keys -> jedis.unlink(keys.toArray(new byte[0][])));
 			}
 		} finally {
-			JedisProviderFactory.getJedisProvider(group).release();
+			provider.release();
+			remover.finish();
+		}
+		logger.info("MENDMIX-TRACE-LOGGGING-->> removeByKeyPrefix finish,group:{},keyPrefix:{},removedCount:{}",group,keyPrefix,remover.getRemovedCount());
+		return remover.getRemovedCount();
+	}
+	
+	private static Iterator<byte[]> scanKeys(Jedis jedis,byte[] pattern,int count){
+		final ScanParams params = new ScanParams().match(pattern).count(count);
+		return new Iterator<byte[]>() {
+			byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+			Iterator<byte[]> current;
+			boolean finished;
+			@Override
+			public boolean hasNext() {
+				while((current == null || !current.hasNext()) && !finished) {
+					ScanResult<byte[]> result = jedis.scan(cursor, params);
+					cursor = result.getCursorAsBytes();
+					finished = Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY);
+					current = result.getResult().iterator();
+				}
+				return current != null && current.hasNext();
+			}
+			@Override
+			public byte[] next() {
+				if(!hasNext())throw new NoSuchElementException();
+				return current.next();
+			}
+		};
+	}
+
+	/**
+	 * 与mget一致，任一key执行失败抛出异常（避免与未命中混淆）
+	 */
+	private static void throwIfError(List<Object> results) {
+		for (Object result : results) {
+			if(result instanceof RuntimeException) {
+				throw (RuntimeException)result;
+			}else if(result instanceof Throwable) {
+				throw new JedisException((Throwable)result);
+			}
 		}
 	}
 
+	private static boolean allSuccess(List<Object> results) {
+		for (Object result : results) {
+			if(!RESP_OK.equals(result))return false;
+		}
+		return true;
+	}
+
 	private static <T> T valueDerialize(byte[] bytes) {
 		if(bytes == null)return null;
 		try {
@@ -212,13 +378,4 @@ public class RedisBatchCommand {
 			return null;
 		}
 	}
-	
-	private static <T> List<T> listDerialize(List<byte[]> datas){
-		List<T> list = new ArrayList<>();
-		if(datas == null)return list;
-         for (byte[] bs : datas) {
-        	 list.add((T)valueDerialize(bs));
-		}
-		return list;
-	}
 }
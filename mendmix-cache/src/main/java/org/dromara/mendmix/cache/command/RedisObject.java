@@ -134,6 +134,7 @@ public class RedisObject extends RedisBase {
 			//本地缓存读取
 			T value = Level1CacheSupport.getInstance().get(this.key);
 			if(value != null)return value;
+			long loadSequence = Level1CacheSupport.getInstance().loadSequence();
 			
 			byte[] bytes = null;
 			if(isCluster(groupName)){
@@ -143,7 +144,7 @@ public class RedisObject extends RedisBase {
 			}
 			value = valueDerialize(bytes);
 			//local
-			Level1CacheSupport.getInstance().set(this.key, value);
+			Level1CacheSupport.getInstance().set(this.key, value, loadSequence);
 			return value;
 		} finally {
 			getJedisProvider(groupName).release();
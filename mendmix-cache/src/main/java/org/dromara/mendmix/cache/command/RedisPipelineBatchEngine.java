@@ -0,0 +1,262 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.cache.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dromara.mendmix.cache.redis.JedisProvider;
+import org.dromara.mendmix.cache.redis.JedisProviderFactory;
+import org.dromara.mendmix.cache.redis.cluster.JedisClusterProvider;
+import org.dromara.mendmix.cache.redis.shard.JedisShardProvider;
+import org.dromara.mendmix.common.async.StandardThreadExecutor;
+import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * 批量指令管道执行引擎
+ * <br>
+ * 按节点（集群按slot归属节点、分片按shard）分组，各组并行以pipeline方式执行，结果按输入顺序返回
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+class RedisPipelineBatchEngine {
+
+	private static final Logger logger = LoggerFactory.getLogger(RedisPipelineBatchEngine.class);
+
+	private static final int SLOT_COUNT = 16384;
+	//单次pipeline提交的指令数
+	private static final int PIPELINE_BATCH_SIZE = 1000;
+
+	private static final StandardThreadExecutor executor = new StandardThreadExecutor(1, 16, 1000, new StandardThreadFactory("RedisPipelineBatch"));
+
+	//集群各组slot所属节点
+	private static Map<String, String[]> clusterSlotNodes = new ConcurrentHashMap<>();
+
+	interface PipelineCommand {
+		void apply(Pipeline pipeline, int index);
+	}
+
+	/**
+	 * @param groupName
+	 * @param keys 用于路由的key
+	 * @param command 第index个key对应的指令
+	 * @return 与keys顺序一致的响应结果，执行失败的位置为异常对象
+	 */
+	static List<Object> execute(String groupName, byte[][] keys, PipelineCommand command) {
+		Object[] results = new Object[keys.length];
+		JedisProvider<?, ?> provider = JedisProviderFactory.getJedisProvider(groupName);
+		try {
+			if(provider instanceof JedisClusterProvider) {
+				executeOnCluster(provider.groupName(), (JedisCluster)provider.get(), keys, command, results);
+			}else if(provider instanceof JedisShardProvider) {
+				executeOnShards((ShardedJedis)provider.get(), keys, command, results);
+			}else {
+				int[] indexes = new int[keys.length];
+				for (int i = 0; i < indexes.length; i++) {
+					indexes[i] = i;
+				}
+				executeOnNode((Jedis)provider.get(), indexes, command, results);
+			}
+		} finally {
+			provider.release();
+		}
+		return Arrays.asList(results);
+	}
+
+	private static void executeOnShards(ShardedJedis shardedJedis, byte[][] keys, PipelineCommand command, Object[] results) {
+		Map<Jedis, List<Integer>> groupIndexes = new IdentityHashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			groupIndexes.computeIfAbsent(shardedJedis.getShard(keys[i]), k -> new ArrayList<>()).add(i);
+		}
+		List<Runnable> tasks = new ArrayList<>(groupIndexes.size());
+		for (Entry<Jedis, List<Integer>> entry : groupIndexes.entrySet()) {
+			tasks.add(() -> executeOnNode(entry.getKey(), toArray(entry.getValue()), command, results));
+		}
+		executeAll(tasks);
+	}
+
+	private static void executeOnCluster(String groupName, JedisCluster jedisCluster, byte[][] keys, PipelineCommand command, Object[] results) {
+		String[] slotNodes = getClusterSlotNodes(groupName, jedisCluster, false);
+		Map<String, List<Integer>> groupIndexes = new HashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			groupIndexes.computeIfAbsent(slotNodes[JedisClusterCRC16.getSlot(keys[i])], k -> new ArrayList<>()).add(i);
+		}
+		Map<String, JedisPool> nodes = jedisCluster.getClusterNodes();
+		List<Runnable> tasks = new ArrayList<>(groupIndexes.size());
+		for (Entry<String, List<Integer>> entry : groupIndexes.entrySet()) {
+			JedisPool pool = nodes.get(entry.getKey());
+			tasks.add(() -> {
+				if(pool == null) {
+					//节点变更，交由下面重定向逻辑处理
+					for (Integer index : entry.getValue()) {
+						results[index] = new JedisMovedDataException("node not found:" + entry.getKey(), null, 0);
+					}
+					return;
+				}
+				try(Jedis jedis = pool.getResource()) {
+					executeOnNode(jedis, toArray(entry.getValue()), command, results);
+				}
+			});
+		}
+		executeAll(tasks);
+		//slot迁移导致的重定向，刷新slot映射后逐个重试
+		List<Integer> redirectIndexes = new ArrayList<>();
+		for (int i = 0; i < results.length; i++) {
+			if(results[i] instanceof JedisRedirectionException) {
+				redirectIndexes.add(i);
+			}
+		}
+		if(redirectIndexes.isEmpty())return;
+		logger.info("MENDMIX-TRACE-LOGGGING-->> cluster slots changed,group:{},redirectKeys:{}",groupName,redirectIndexes.size());
+		slotNodes = getClusterSlotNodes(groupName, jedisCluster, true);
+		nodes = jedisCluster.getClusterNodes();
+		JedisRedirectionException redirection;
+		String node;
+		JedisPool pool;
+		for (Integer index : redirectIndexes) {
+			redirection = (JedisRedirectionException) results[index];
+			//优先按重定向目标节点，其次按刷新后的slot映射（JedisCluster自身的slot缓存此时可能仍未更新）
+			node = redirection.getTargetNode() != null ? redirection.getTargetNode().toString() : slotNodes[JedisClusterCRC16.getSlot(keys[index])];
+			pool = node == null ? null : nodes.get(node);
+			try(Jedis jedis = pool != null ? pool.getResource() : jedisCluster.getConnectionFromSlot(JedisClusterCRC16.getSlot(keys[index]))) {
+				//迁移中的slot需先发送ASKING
+				if(redirection instanceof JedisAskDataException) {
+					jedis.asking();
+				}
+				executeOnNode(jedis, new int[] {index}, command, results);
+			} catch (Exception e) {
+				results[index] = e;
+			}
+		}
+	}
+
+	private static void executeOnNode(Jedis jedis, int[] indexes, PipelineCommand command, Object[] results) {
+		Pipeline pipeline = jedis.pipelined();
+		int from = 0;
+		List<Object> responses;
+		for (int i = 0; i < indexes.length; i++) {
+			command.apply(pipeline, indexes[i]);
+			if(i - from + 1 == PIPELINE_BATCH_SIZE || i == indexes.length - 1) {
+				responses = pipeline.syncAndReturnAll();
+				for (int j = 0; j < responses.size(); j++) {
+					results[indexes[from + j]] = responses.get(j);
+				}
+				from = i + 1;
+			}
+		}
+	}
+
+	private static void executeAll(List<Runnable> tasks) {
+		if(tasks.size() == 1) {
+			tasks.get(0).run();
+			return;
+		}
+		List<Future<?>> futures = new ArrayList<>(tasks.size());
+		for (Runnable task : tasks) {
+			try {
+				futures.add(executor.submit(task));
+			} catch (RejectedExecutionException e) {
+				task.run();
+			}
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (Exception e) {
+				throw new RuntimeException(e.getCause() == null ? e : e.getCause());
+			}
+		}
+	}
+
+	static Collection<JedisPool> getMasterNodePools(String groupName, JedisCluster jedisCluster) {
+		String[] slotNodes = getClusterSlotNodes(groupName, jedisCluster, true);
+		Map<String, JedisPool> nodes = jedisCluster.getClusterNodes();
+		Map<String, JedisPool> masterPools = new HashMap<>();
+		for (String node : slotNodes) {
+			if(node == null || masterPools.containsKey(node))continue;
+			if(nodes.containsKey(node))masterPools.put(node, nodes.get(node));
+		}
+		return masterPools.values();
+	}
+
+	private static String[] getClusterSlotNodes(String groupName, JedisCluster jedisCluster, boolean refresh) {
+		String[] slotNodes = clusterSlotNodes.get(groupName);
+		if(slotNodes != null && !refresh)return slotNodes;
+		synchronized (clusterSlotNodes) {
+			if(!refresh && (slotNodes = clusterSlotNodes.get(groupName)) != null)return slotNodes;
+			String[] cachedSlotNodes = slotNodes;
+			slotNodes = new String[SLOT_COUNT];
+			boolean loaded = false;
+			for (JedisPool pool : jedisCluster.getClusterNodes().values()) {
+				try(Jedis jedis = pool.getResource()) {
+					List<Object> slots = jedis.clusterSlots();
+					for (Object slot : slots) {
+						List<?> slotInfo = (List<?>) slot;
+						int start = ((Long)slotInfo.get(0)).intValue();
+						int end = ((Long)slotInfo.get(1)).intValue();
+						List<?> master = (List<?>) slotInfo.get(2);
+						String node = SafeEncoder.encode((byte[])master.get(0)) + ":" + master.get(1);
+						for (int i = start; i <= end; i++) {
+							slotNodes[i] = node;
+						}
+					}
+					loaded = true;
+					break;
+				} catch (Exception e) {
+					logger.warn("MENDMIX-TRACE-LOGGGING-->> fetch cluster slots error:{}",e.getMessage());
+				}
+			}
+			//全部节点获取失败不缓存，下次调用重试；未命中节点的key走重定向逻辑
+			if(!loaded) {
+				return cachedSlotNodes != null ? cachedSlotNodes : slotNodes;
+			}
+			clusterSlotNodes.put(groupName, slotNodes);
+		}
+		return slotNodes;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+}
@@ -112,13 +112,14 @@ public class RedisString extends RedisBase{
 	public String get() {
 		String value = Level1CacheSupport.getInstance().get(key);
 		if(value != null)return value;
+		long loadSequence = Level1CacheSupport.getInstance().loadSequence();
 		try {
 			value = getJedisCommands(groupName).get(key);
 			return value;
 		} finally {
 			getJedisProvider(groupName).release();
 			//
-			Level1CacheSupport.getInstance().set(key, value);
+			Level1CacheSupport.getInstance().set(key, value, loadSequence);
 		}
 		
 	}
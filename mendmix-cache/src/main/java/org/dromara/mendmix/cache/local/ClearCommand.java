@@ -17,6 +17,7 @@ package org.dromara.mendmix.cache.local;
 
 import java.io.Serializable;
 import java.net.InetAddress;
+import java.util.List;
 import java.util.UUID;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -37,6 +38,7 @@ public class ClearCommand implements Serializable {
 
 	private String cacheName;
 	private String key;
+	private List<String> keys; //批量删除
 	private String origin;
 
 	private static String CURRENT_NODE_ID;
@@ -66,6 +68,14 @@ public class ClearCommand implements Serializable {
 		this.key = key;
 	}
 
+	public List<String> getKeys() {
+		return keys;
+	}
+
+	public void setKeys(List<String> keys) {
+		this.keys = keys;
+	}
+
 	public String getOrigin() {
 		return origin;
 	}
@@ -83,6 +93,13 @@ public class ClearCommand implements Serializable {
 		this.cacheName = cacheName;
 		this.key = key;
 	}
+	
+	public ClearCommand(String cacheName, List<String> keys) {
+		super();
+		this.origin = CURRENT_NODE_ID;
+		this.cacheName = cacheName;
+		this.keys = keys;
+	}
 
 	public String serialize() {
 		return JsonUtils.toJson(this);
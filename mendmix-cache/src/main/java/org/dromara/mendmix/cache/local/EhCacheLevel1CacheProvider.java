@@ -16,6 +16,7 @@
 package org.dromara.mendmix.cache.local;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -71,6 +72,11 @@ public class EhCacheLevel1CacheProvider implements Level1CacheProvider {
 		getCacheHolder(cacheName).remove(key);
 	}
 
+	@Override
+	public void remove(String cacheName, Collection<String> keys) {
+		getCacheHolder(cacheName).removeAll(keys);
+	}
+
 	@Override
 	public void remove(String cacheName) {
 		getCacheHolder(cacheName).removeAll();
@@ -16,6 +16,7 @@
 package org.dromara.mendmix.cache.local;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -93,6 +94,14 @@ public class GuavaLevel1CacheProvider implements Level1CacheProvider{
 		}
 	}
 	
+	@Override
+	public void remove(String cacheName, Collection<String> keys) {
+		Cache<String, Object> cache = getCacheHolder(cacheName);
+		if(cache != null){
+			cache.invalidateAll(keys);
+		}
+	}
+	
 	private Cache<String, Object> getCacheHolder(String cacheName){
 		return getAndNotexistsCreateCache(cacheName);
 	}
@@ -16,6 +16,7 @@
 package org.dromara.mendmix.cache.local;
 
 import java.io.Closeable;
+import java.util.Collection;
 
 /**
  * @description <br>
@@ -31,6 +32,12 @@ public interface Level1CacheProvider extends Closeable{
     
     void remove(String cacheName,String key);
     
+    default void remove(String cacheName,Collection<String> keys) {
+    	for (String key : keys) {
+    		remove(cacheName, key);
+		}
+    }
+    
     void remove(String cacheName);
     
     void clearAll();
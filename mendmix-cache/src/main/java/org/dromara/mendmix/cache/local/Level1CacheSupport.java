@@ -17,10 +17,18 @@ package org.dromara.mendmix.cache.local;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -30,6 +38,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.util.StringUtils;
 
+import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.dromara.mendmix.spring.InstanceFactory;
 
@@ -37,6 +46,8 @@ import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.StreamEntry;
+import redis.clients.jedis.StreamEntryID;
 
 /**
  * 本地缓存同步处理器
@@ -48,6 +59,25 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 
 	private static final Logger logger = LoggerFactory.getLogger(Level1CacheSupport.class);
 	
+	private static final String CLEAR_ALL = "clearall";
+	
+	private static final char SEQ_SEPARATOR = '|';
+	private static final String LOG_CMD_FIELD = "cmd";
+	private static final int REPLAY_BATCH_SIZE = 500;
+	//自增序列号+写入失效日志+广播；序列号key丢失（淘汰、重建）时按日志最后ID恢复，保证XADD的ID递增
+	private static final String PUBLISH_WITH_LOG_SCRIPT = "local seq = redis.call('INCR', KEYS[1])\n"
+			+ "local last = redis.call('XREVRANGE', KEYS[2], '+', '-', 'COUNT', 1)\n"
+			+ "if #last > 0 then\n"
+			+ "  local lastSeq = tonumber(string.match(last[1][1], '^(%d+)'))\n"
+			+ "  if seq <= lastSeq then\n"
+			+ "    seq = lastSeq + 1\n"
+			+ "    redis.call('SET', KEYS[1], seq)\n"
+			+ "  end\n"
+			+ "end\n"
+			+ "redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[1], seq .. '-0', '" + LOG_CMD_FIELD + "', ARGV[2])\n"
+			+ "redis.call('PUBLISH', ARGV[3], seq .. '" + SEQ_SEPARATOR + "' .. ARGV[2])\n"
+			+ "return seq";
+	
 	private String channelName = "clearLevel1_";
 	
 	private String bcastServer;
@@ -61,6 +91,27 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 	
 	private ScheduledExecutorService redisCheckTimer;
 	
+	//是否异步合并广播；合并后的多key消息需所有节点已升级（旧版本节点不识别keys，无法清除对应本地缓存），默认关闭
+	private boolean asyncPublish = false;
+	private long publishWindowMillis = 50; //合并窗口（毫秒）
+	private int publishQueueCapacity = 10000;
+	private int publishBatchSize = 200; //单条广播消息最大key数
+	private BlockingQueue<ClearCommand> publishQueue;
+	//队列溢出后降级为全量清除
+	private AtomicBoolean publishOverflow = new AtomicBoolean(false);
+	private ScheduledExecutorService publishTimer;
+	
+	private boolean invalidationLogMode = false; //失效日志模式
+	private int invalidationLogMaxLen = 100000;
+	private int invalidationLogCheckSeconds = 10;
+	private String sequenceKey;
+	private String invalidationLogKey;
+	private volatile long currentSequence; //已同步的失效序列号
+	private volatile long minValidSequence; //低于该序列号加载的缓存视为过期
+	private final Object sequenceLock = new Object();
+	//补偿任务已提交未执行
+	private AtomicBoolean replayScheduled = new AtomicBoolean(false);
+	
 	private Level1CacheProvider cacheProvider;
 	
 	private LocalCacheSyncListener listener;
@@ -78,6 +129,11 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 	}
 	
 
+	/**
+	 * 删除本地缓存并广播
+	 * @param key
+	 * @return 同步模式为广播结果；异步合并模式为即发即弃，仅表示已进入广播队列（队列已满返回false，下一轮降级为全量清除）
+	 */
 	public boolean publishSyncEvent(String key){
 		if(cacheNames == null)return true;
 		String cacheName = key.split("\\.")[0];
@@ -86,38 +142,131 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 		cacheProvider.remove(cacheName, key);
 		logger.debug("MENDMIX-TRACE-LOGGGING-->> remove local LEVEL1 cache: cacheName:[{}], key:[{}]",cacheName,key);
 		if(!distributedMode)return true;
-		boolean publish = publish(channelName, new ClearCommand(cacheName, key).serialize());
+		if(asyncPublish) {
+			if(!publishQueue.offer(new ClearCommand(cacheName, key))) {
+				publishOverflow.set(true);
+				return false;
+			}
+			return true;
+		}
+		boolean publish = publish(new ClearCommand(cacheName, key).serialize());
 		if(publish){
 			logger.debug("MENDMIX-TRACE-LOGGGING-->> broadcast <clear-cache> command for key:[{}] by channelName:[{}]",key,channelName);			
 		}
 		return publish;
 	}
 	
-	private boolean publish(String channel,String message){
+	private boolean publish(String message){
 		Jedis jedis = null;
 		try {
 			jedis = pupJedisPool.getResource();
-			return jedis.publish(channel, message) > 0;
+			return publish(jedis, message);
 		} finally {
 			if(jedis != null)jedis.close();
 		}
 		
 	}
 	
+	private boolean publish(Jedis jedis,String message){
+		if(!invalidationLogMode) {
+			return jedis.publish(channelName, message) > 0;
+		}
+		Object sequence = jedis.eval(PUBLISH_WITH_LOG_SCRIPT, Arrays.asList(sequenceKey,invalidationLogKey), Arrays.asList(String.valueOf(invalidationLogMaxLen),message,channelName));
+		return sequence != null;
+	}
+	
+	private void flushPublishQueue() {
+		if(publishOverflow.get()) {
+			publishQueue.clear();
+			if(publish(CLEAR_ALL)) {
+				publishOverflow.set(false);
+			}
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> LEVEL1 cache publish queue overflow(capacity:{}),broadcast <{}> command",publishQueueCapacity,CLEAR_ALL);
+			return;
+		}
+		if(publishQueue.isEmpty())return;
+		List<ClearCommand> commands = new ArrayList<>(publishQueue.size());
+		publishQueue.drainTo(commands);
+		//按cacheName合并去重
+		Map<String, Set<String>> groupKeys = new LinkedHashMap<>();
+		for (ClearCommand command : commands) {
+			groupKeys.computeIfAbsent(command.getCacheName(), k -> new LinkedHashSet<>()).add(command.getKey());
+		}
+		Jedis jedis = null;
+		try {
+			jedis = pupJedisPool.getResource();
+			List<String> keys;
+			List<String> subKeys;
+			ClearCommand command;
+			for (Entry<String, Set<String>> entry : groupKeys.entrySet()) {
+				keys = new ArrayList<>(entry.getValue());
+				for (int i = 0; i < keys.size(); i += publishBatchSize) {
+					subKeys = keys.subList(i, Math.min(i + publishBatchSize, keys.size()));
+					if(subKeys.size() == 1) {
+						command = new ClearCommand(entry.getKey(), subKeys.get(0));
+					}else {
+						command = new ClearCommand(entry.getKey(), new ArrayList<>(subKeys));
+					}
+					publish(jedis, command.serialize());
+				}
+			}
+			logger.debug("MENDMIX-TRACE-LOGGGING-->> broadcast <clear-cache> commands:{},mergedGroups:{} by channelName:[{}]",commands.size(),groupKeys.size(),channelName);
+		} catch (Exception e) {
+			//部分广播失败，下一轮降级为全量清除
+			publishOverflow.set(true);
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> broadcast <clear-cache> commands error",e);
+		} finally {
+			if(jedis != null)jedis.close();
+		}
+	}
+	
+	/**
+	 * 加载缓存数据前获取，写入本地缓存时作为数据版本
+	 */
+	public long loadSequence() {
+		return currentSequence;
+	}
+	
 	public boolean set(String key, Object value) {
+		return set(key, value, currentSequence);
+	}
+	
+	/**
+	 * @param key
+	 * @param value
+	 * @param loadSequence 加载数据前通过{@link #loadSequence()}获取的序列号
+	 * @return
+	 */
+	public boolean set(String key, Object value, long loadSequence) {
 		if(cacheNames == null)return true;
 		String cacheName = key.split("\\.")[0];
 		if(!cacheNames.contains(cacheName))return true;
+		if(invalidationLogMode) {
+			value = new VersionedCacheValue(value, loadSequence);
+		}
 		boolean result = cacheProvider.set(cacheName, key, value);
 		if(logger.isDebugEnabled())logger.debug("MENDMIX-TRACE-LOGGGING-->> set LEVEL1 cache:{}",key);
 		return result;
 	}
 
+	@SuppressWarnings("unchecked")
 	public <T> T get(String key) {
 		if(cacheNames == null)return null;
 		String cacheName = key.split("\\.")[0];
 		if(!cacheNames.contains(cacheName))return null;
-		T object = cacheProvider.get(cacheName, key);
+		T object;
+		if(invalidationLogMode) {
+			VersionedCacheValue versionedValue = cacheProvider.get(cacheName, key);
+			if(versionedValue == null)return null;
+			if(versionedValue.getSequence() < minValidSequence) {
+				cacheProvider.remove(cacheName, key);
+				logger.debug("MENDMIX-TRACE-LOGGGING-->> LEVEL1 cache:{} expired by sequence:{}",key,versionedValue.getSequence());
+				return null;
+			}
+			object = (T) versionedValue.getValue();
+		}else {			
+			object = cacheProvider.get(cacheName, key);
+		}
 		if(object != null)logger.debug("MENDMIX-TRACE-LOGGGING-->> get cache:{} from LEVEL1",key);
 		return object;
 	}
@@ -130,6 +279,108 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 		logger.debug("MENDMIX-TRACE-LOGGGING-->> remove LEVEL1 cache,cacheName:{},key:{}",cacheName,key);
 	}
 
+	private long fetchLatestSequence() {
+		Jedis jedis = null;
+		try {
+			jedis = pupJedisPool.getResource();
+			String value = jedis.get(sequenceKey);
+			return value == null ? 0 : Long.parseLong(value);
+		} finally {
+			if(jedis != null)jedis.close();
+		}
+	}
+	
+	/**
+	 * 提交补偿任务（不在订阅线程执行，避免阻塞消息接收）
+	 */
+	private void scheduleReplay() {
+		if(!replayScheduled.compareAndSet(false, true))return;
+		try {
+			redisCheckTimer.execute(new Runnable() {
+				@Override
+				public void run() {
+					replayScheduled.set(false);
+					try {
+						long latestSequence = fetchLatestSequence();
+						if(latestSequence > currentSequence) {
+							replayInvalidationLog(latestSequence);
+						}
+					} catch (Exception e) {
+						logger.warn("MENDMIX-TRACE-LOGGGING-->> check LEVEL1 cache invalidation sequence error:{}",e.getMessage());
+					}
+				}
+			});
+		} catch (Exception e) {
+			//已关闭，由定时检查兜底
+			replayScheduled.set(false);
+		}
+	}
+	
+	/**
+	 * 从失效日志补偿(currentSequence,toSequence]区间遗漏的消息
+	 * <br>
+	 * 清除命令可重复执行，读取日志期间不加锁，完成后推进已同步序列号
+	 * @param toSequence
+	 * @return 是否补偿成功
+	 */
+	private boolean replayInvalidationLog(long toSequence) {
+		long fromSequence = currentSequence + 1;
+		if(toSequence < fromSequence)return true;
+		Jedis jedis = null;
+		try {
+			jedis = pupJedisPool.getResource();
+			List<StreamEntry> entries;
+			long startSequence = fromSequence;
+			int replayCount = 0;
+			while(startSequence <= toSequence) {
+				entries = jedis.xrange(invalidationLogKey, new StreamEntryID(startSequence, 0), new StreamEntryID(toSequence, 0), REPLAY_BATCH_SIZE);
+				if(startSequence == fromSequence && (entries.isEmpty() || entries.get(0).getID().getTime() != fromSequence)) {
+					//日志已被裁剪，之前加载的缓存全部视为过期
+					synchronized (sequenceLock) {
+						if(fromSequence > minValidSequence)minValidSequence = fromSequence;
+					}
+					logger.warn("MENDMIX-TRACE-LOGGGING-->> LEVEL1 cache invalidation log truncated,range:[{},{}],expire all loaded entries",fromSequence,toSequence);
+					break;
+				}
+				if(entries.isEmpty())break;
+				for (StreamEntry entry : entries) {
+					applyCommand(entry.getFields().get(LOG_CMD_FIELD));
+				}
+				replayCount += entries.size();
+				startSequence = entries.get(entries.size() - 1).getID().getTime() + 1;
+			}
+			synchronized (sequenceLock) {
+				if(toSequence > currentSequence)currentSequence = toSequence;
+			}
+			logger.info("MENDMIX-TRACE-LOGGGING-->> replay LEVEL1 cache invalidation log finish,range:[{},{}],replayCount:{}",fromSequence,toSequence,replayCount);
+			return true;
+		} catch (Exception e) {
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> replay LEVEL1 cache invalidation log error",e);
+			return false;
+		} finally {
+			if(jedis != null)jedis.close();
+		}
+	}
+	
+	private void applyCommand(String message) {
+		if(CLEAR_ALL.equals(message)){
+			cacheProvider.clearAll();
+			logger.info("MENDMIX-TRACE-LOGGGING-->> receive command {} and clear local cache finish!",CLEAR_ALL);
+		}else{	
+			try {						
+				ClearCommand command = ClearCommand.deserialize(message);
+				if(command.isLocalCommand()){
+					return;
+				}
+				if(command.getKeys() != null) {
+					cacheProvider.remove(command.getCacheName(), command.getKeys());
+				}else {							
+					cacheProvider.remove(command.getCacheName(), command.getKey());
+				}
+			} catch (Exception e) {}
+		}
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 	
@@ -149,7 +400,7 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 		
 		listener = new LocalCacheSyncListener();
 		
-		redisCheckTimer = Executors.newScheduledThreadPool(1);
+		redisCheckTimer = Executors.newScheduledThreadPool(invalidationLogMode ? 2 : 1);
 		redisCheckTimer.scheduleWithFixedDelay(new Runnable() {
 			
 			@Override
@@ -182,12 +433,48 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 		poolConfig.setMaxTotal(10);
 		poolConfig.setMaxWaitMillis(30 * 1000);
 		pupJedisPool = new JedisPool(poolConfig, host, port, 3000, password);
+		//
+		if(invalidationLogMode) {
+			sequenceKey = channelName + ":seq";
+			invalidationLogKey = channelName + ":log";
+			try {				
+				currentSequence = fetchLatestSequence();
+			} catch (Exception e) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> fetch LEVEL1 cache invalidation sequence error:{}",e.getMessage());
+			}
+			//兜底检查：期间未收到任何广播时也能发现遗漏
+			redisCheckTimer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					scheduleReplay();
+				}
+			}, invalidationLogCheckSeconds, invalidationLogCheckSeconds, TimeUnit.SECONDS);
+		}
+		//
+		if(asyncPublish) {
+			publishQueue = new LinkedBlockingQueue<>(publishQueueCapacity);
+			publishTimer = Executors.newSingleThreadScheduledExecutor(new StandardThreadFactory("Level1CachePublisher"));
+			publishTimer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					try {						
+						flushPublishQueue();
+					} catch (Exception e) {
+						logger.warn("MENDMIX-TRACE-LOGGGING-->> flush LEVEL1 cache publish queue error",e);
+					}
+				}
+			}, publishWindowMillis, publishWindowMillis, TimeUnit.MILLISECONDS);
+		}
 	}
 
 	@Override
 	public void destroy() throws Exception {
 		if(cacheProvider != null)cacheProvider.close();
 		if(redisCheckTimer != null)redisCheckTimer.shutdown();
+		if(publishTimer != null) {
+			publishTimer.shutdown();
+			try {flushPublishQueue();} catch (Exception e) {}
+		}
 		try {listener.unsubscribe();} catch (Exception e) {}
 		if(subJedisClient != null){
 			subJedisClient.close();
@@ -215,6 +502,34 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 		this.distributedMode = distributedMode;
 	}
 
+	public void setAsyncPublish(boolean asyncPublish) {
+		this.asyncPublish = asyncPublish;
+	}
+
+	public void setPublishWindowMillis(long publishWindowMillis) {
+		this.publishWindowMillis = publishWindowMillis;
+	}
+
+	public void setPublishQueueCapacity(int publishQueueCapacity) {
+		this.publishQueueCapacity = publishQueueCapacity;
+	}
+
+	public void setPublishBatchSize(int publishBatchSize) {
+		this.publishBatchSize = publishBatchSize;
+	}
+
+	public void setInvalidationLogMode(boolean invalidationLogMode) {
+		this.invalidationLogMode = invalidationLogMode;
+	}
+
+	public void setInvalidationLogMaxLen(int invalidationLogMaxLen) {
+		this.invalidationLogMaxLen = invalidationLogMaxLen;
+	}
+
+	public void setInvalidationLogCheckSeconds(int invalidationLogCheckSeconds) {
+		this.invalidationLogCheckSeconds = invalidationLogCheckSeconds;
+	}
+
 	public void setBcastScope(String bcastScope) {
 		this.channelName =  "clearLevel1_" + bcastScope;
 	}
@@ -231,25 +546,30 @@ public class Level1CacheSupport implements InitializingBean, DisposableBean{
 
 	private class LocalCacheSyncListener extends JedisPubSub {
 
-		private static final String CLEAR_ALL = "clearall";
-
 		@Override
 		public void onMessage(String channel, String message) {
 			super.onMessage(channel, message);
-			if(channel.equals(channelName)){
-				if(CLEAR_ALL.equals(message)){
-					cacheProvider.clearAll();
-					logger.info("MENDMIX-TRACE-LOGGGING-->> receive command {} and clear local cache finish!",CLEAR_ALL);
-				}else{	
-					try {						
-						ClearCommand command = ClearCommand.deserialize(message);
-						if(command.isLocalCommand()){
-							return;
-						}
-						cacheProvider.remove(command.getCacheName(), command.getKey());
-					} catch (Exception e) {}
+			if(!channel.equals(channelName))return;
+			int index;
+			if(!invalidationLogMode 
+					|| (index = message.indexOf(SEQ_SEPARATOR)) <= 0 
+					|| !Character.isDigit(message.charAt(0))) {
+				applyCommand(message);
+				return;
+			}
+			long sequence = Long.parseLong(message.substring(0, index));
+			applyCommand(message.substring(index + 1));
+			boolean continuous;
+			synchronized (sequenceLock) {
+				continuous = sequence <= currentSequence + 1;
+				if(continuous && sequence > currentSequence) {
+					currentSequence = sequence;
 				}
 			}
+			//存在遗漏的消息，异步从日志补偿
+			if(!continuous) {
+				scheduleReplay();
+			}
 		}
 	}
 	
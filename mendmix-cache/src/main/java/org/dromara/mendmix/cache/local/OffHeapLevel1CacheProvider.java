@@ -0,0 +1,407 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.cache.local;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StringUtils;
+
+import org.dromara.mendmix.common.serializer.ByteBufferPool;
+import org.dromara.mendmix.common.util.SerializeUtils;
+
+/**
+ * 堆外内存本地缓存
+ * <br>
+ * 值序列化后按固定大小的块存放在直接内存中，每个缓存按字节预算分段LRU淘汰
+ * <br>
+ * 单个值不能超过分段容量（字节预算/分段数），超过的值不缓存并计入{@link #getOversizedCount(String)}
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class OffHeapLevel1CacheProvider implements Level1CacheProvider {
+
+	private static final Logger logger = LoggerFactory.getLogger(OffHeapLevel1CacheProvider.class);
+
+	private static final long MB = 1024 * 1024;
+
+	private Map<String, OffHeapCache> caches = new ConcurrentHashMap<>();
+	private Map<String, Long> cacheBudgets = new HashMap<>();
+	private long maxBytes = 64 * MB; //单个缓存默认内存上限
+	private int segmentCount = 16;
+	private int blockSize = 256;
+	private int timeToLiveSeconds = 600;
+
+	public void setMaxMegabytes(int maxMegabytes) {
+		this.maxBytes = maxMegabytes * MB;
+	}
+
+	/**
+	 * 按缓存单独设置内存上限
+	 * @param cacheBudgets 格式：cacheName1:64,cacheName2:128 （单位：MB）
+	 */
+	public void setCacheBudgets(String cacheBudgets) {
+		if(org.apache.commons.lang3.StringUtils.isBlank(cacheBudgets)){
+			return;
+		}
+		String[] budgets = StringUtils.tokenizeToStringArray(cacheBudgets, ConfigurableApplicationContext.CONFIG_LOCATION_DELIMITERS);
+		String[] parts;
+		for (String budget : budgets) {
+			parts = budget.split(":");
+			this.cacheBudgets.put(parts[0].trim(), Long.parseLong(parts[1].trim()) * MB);
+		}
+	}
+
+	public void setSegmentCount(int segmentCount) {
+		this.segmentCount = segmentCount;
+	}
+
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+		this.timeToLiveSeconds = timeToLiveSeconds;
+	}
+
+	@Override
+	public void start() {}
+
+	@Override
+	public boolean set(String cacheName, String key, Object value) {
+		if(value == null)return true;
+		long expireAt = System.currentTimeMillis() + timeToLiveSeconds * 1000L;
+		ByteBuffer buffer = ByteBufferPool.acquire();
+		try {
+			buffer = SerializeUtils.serialize(value, buffer);
+			buffer.flip();
+			OffHeapCache cache = getCacheHolder(cacheName);
+			if(cache.getSegment(key).put(key, buffer, expireAt))return true;
+			//首次告警，之后仅调试日志
+			if(cache.oversizedCount.incrementAndGet() == 1) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> offHeap LEVEL1 cache:{} value too large,key:{},bytes:{},segmentBytes:{}",cacheName,key,buffer.remaining(),cache.segmentBytes);
+			}else if(logger.isDebugEnabled()) {
+				logger.debug("MENDMIX-TRACE-LOGGGING-->> offHeap LEVEL1 cache:{} value too large,key:{},bytes:{}",cacheName,key,buffer.remaining());
+			}
+			return false;
+		} finally {
+			ByteBufferPool.release(buffer);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(String cacheName, String key) {
+		ByteBuffer buffer = ByteBufferPool.acquire();
+		try {
+			ByteBuffer data = getCacheHolder(cacheName).getSegment(key).get(key, buffer);
+			if(data == null)return null;
+			buffer = data;
+			buffer.flip();
+			return (T) SerializeUtils.deserialize(buffer);
+		} catch (Exception e) {
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> get LEVEL1 cache error",e);
+			return null;
+		} finally {
+			ByteBufferPool.release(buffer);
+		}
+	}
+
+	@Override
+	public void remove(String cacheName, String key) {
+		getCacheHolder(cacheName).getSegment(key).remove(key);
+	}
+
+	@Override
+	public void remove(String cacheName, Collection<String> keys) {
+		OffHeapCache cache = getCacheHolder(cacheName);
+		for (String key : keys) {
+			cache.getSegment(key).remove(key);
+		}
+	}
+
+	@Override
+	public void remove(String cacheName) {
+		OffHeapCache cache = caches.get(cacheName);
+		if(cache != null)cache.clear();
+	}
+
+	@Override
+	public void clearAll() {
+		for (OffHeapCache cache : caches.values()) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * 超过分段容量未缓存的次数
+	 * @param cacheName
+	 * @return
+	 */
+	public long getOversizedCount(String cacheName) {
+		OffHeapCache cache = caches.get(cacheName);
+		return cache == null ? 0 : cache.oversizedCount.get();
+	}
+
+	/**
+	 * 当前缓存占用的堆外内存（字节）
+	 * @param cacheName
+	 * @return
+	 */
+	public long getUsedBytes(String cacheName) {
+		OffHeapCache cache = caches.get(cacheName);
+		return cache == null ? 0 : cache.usedBytes();
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (OffHeapCache cache : caches.values()) {
+			cache.free();
+		}
+		caches.clear();
+	}
+
+	private OffHeapCache getCacheHolder(String cacheName){
+		OffHeapCache cache = caches.get(cacheName);
+		if(cache != null)return cache;
+		synchronized (caches) {
+			if((cache = caches.get(cacheName)) != null)return cache;
+			long budget = cacheBudgets.containsKey(cacheName) ? cacheBudgets.get(cacheName) : maxBytes;
+			cache = new OffHeapCache(budget, segmentCount, blockSize);
+			caches.put(cacheName, cache);
+			logger.info("MENDMIX-TRACE-LOGGGING-->> init offHeap LEVEL1 cache:{},maxBytes:{}",cacheName,budget);
+		}
+		return cache;
+	}
+
+	private static class OffHeapCache {
+
+		final Segment[] segments;
+		final long segmentBytes;
+		final AtomicLong oversizedCount = new AtomicLong();
+
+		OffHeapCache(long maxBytes, int segmentCount, int blockSize) {
+			segments = new Segment[segmentCount];
+			//单个分段不超过ByteBuffer容量上限
+			int blockCount = (int) Math.min(Integer.MAX_VALUE / blockSize, Math.max(1, maxBytes / segmentCount / blockSize));
+			segmentBytes = (long) blockCount * blockSize;
+			for (int i = 0; i < segmentCount; i++) {
+				segments[i] = new Segment(blockCount, blockSize);
+			}
+		}
+
+		Segment getSegment(String key) {
+			int hash = key.hashCode();
+			hash ^= (hash >>> 16);
+			return segments[(hash & Integer.MAX_VALUE) % segments.length];
+		}
+
+		long usedBytes() {
+			long usedBytes = 0;
+			for (Segment segment : segments) {
+				usedBytes += segment.usedBytes();
+			}
+			return usedBytes;
+		}
+
+		void clear() {
+			for (Segment segment : segments) {
+				segment.clear();
+			}
+		}
+
+		void free() {
+			for (Segment segment : segments) {
+				segment.free();
+			}
+		}
+	}
+
+	/**
+	 * 分段：固定大小块分配，值可占用多个不连续的块
+	 */
+	private static class Segment {
+
+		final ByteBuffer buffer;
+		final int blockSize;
+		final int blockCount;
+		final int[] freeBlocks;
+		int freeCount;
+		//直接内存已释放
+		boolean closed;
+		//按访问顺序排列，头部为最久未访问
+		final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		Segment(int blockCount, int blockSize) {
+			this.blockSize = blockSize;
+			this.blockCount = blockCount;
+			this.buffer = ByteBuffer.allocateDirect(blockCount * blockSize);
+			this.freeBlocks = new int[blockCount];
+			for (int i = 0; i < blockCount; i++) {
+				freeBlocks[i] = blockCount - 1 - i;
+			}
+			this.freeCount = blockCount;
+		}
+
+		synchronized boolean put(String key, ByteBuffer data, long expireAt) {
+			int dataLength = data.remaining();
+			int needBlocks = (dataLength + blockSize - 1) / blockSize;
+			if(closed)return false;
+			Entry entry = entries.remove(key);
+			if(entry != null)release(entry);
+			//超过分段容量不缓存
+			if(needBlocks > blockCount)return false;
+			Iterator<Entry> iterator = entries.values().iterator();
+			while(freeCount < needBlocks && iterator.hasNext()) {
+				entry = iterator.next();
+				iterator.remove();
+				release(entry);
+			}
+			int[] blocks = new int[needBlocks];
+			int dataLimit = data.limit();
+			for (int i = 0; i < needBlocks; i++) {
+				blocks[i] = freeBlocks[--freeCount];
+				data.limit(Math.min(dataLimit, data.position() + blockSize));
+				buffer.position(blocks[i] * blockSize);
+				buffer.put(data);
+			}
+			data.limit(dataLimit);
+			entries.put(key, new Entry(blocks, dataLength, expireAt));
+			return true;
+		}
+
+		/**
+		 * @param dest 写模式
+		 * @return 写入数据后的dest（可能扩容），不存在返回null
+		 */
+		synchronized ByteBuffer get(String key, ByteBuffer dest) {
+			if(closed)return null;
+			Entry entry = entries.get(key);
+			if(entry == null)return null;
+			if(entry.expireAt < System.currentTimeMillis()) {
+				entries.remove(key);
+				release(entry);
+				return null;
+			}
+			dest = ByteBufferPool.ensureCapacity(dest, entry.length);
+			int offset = 0;
+			int length;
+			for (int block : entry.blocks) {
+				length = Math.min(blockSize, entry.length - offset);
+				buffer.limit(block * blockSize + length).position(block * blockSize);
+				dest.put(buffer);
+				offset += length;
+			}
+			buffer.clear();
+			return dest;
+		}
+
+		synchronized void remove(String key) {
+			Entry entry = entries.remove(key);
+			if(entry != null)release(entry);
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			for (int i = 0; i < blockCount; i++) {
+				freeBlocks[i] = blockCount - 1 - i;
+			}
+			freeCount = blockCount;
+		}
+
+		synchronized void free() {
+			if(closed)return;
+			closed = true;
+			entries.clear();
+			freeCount = 0;
+			DirectBufferCleaner.clean(buffer);
+		}
+
+		synchronized long usedBytes() {
+			return (long) (blockCount - freeCount) * blockSize;
+		}
+
+		private void release(Entry entry) {
+			for (int block : entry.blocks) {
+				freeBlocks[freeCount++] = block;
+			}
+		}
+	}
+
+	/**
+	 * 主动释放直接内存，不依赖GC回收buffer对象
+	 */
+	private static class DirectBufferCleaner {
+
+		private static Object unsafe;
+		private static Method invokeCleanerMethod;
+
+		static {
+			try {
+				//JDK9+
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				invokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				Field field = unsafeClass.getDeclaredField("theUnsafe");
+				field.setAccessible(true);
+				unsafe = field.get(null);
+			} catch (Exception e) {
+				invokeCleanerMethod = null;
+			}
+		}
+
+		static void clean(ByteBuffer buffer) {
+			if(!buffer.isDirect())return;
+			try {
+				if(invokeCleanerMethod != null) {
+					invokeCleanerMethod.invoke(unsafe, buffer);
+				}else {
+					//JDK8
+					Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					Object cleaner = cleanerMethod.invoke(buffer);
+					if(cleaner != null)cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			} catch (Exception e) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> free offHeap buffer error,fallback to GC:{}",e.getMessage());
+			}
+		}
+	}
+
+	private static class Entry {
+		final int[] blocks;
+		final int length;
+		final long expireAt;
+
+		Entry(int[] blocks, int length, long expireAt) {
+			this.blocks = blocks;
+			this.length = length;
+			this.expireAt = expireAt;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.cache.local;
+
+import java.io.Serializable;
+
+/**
+ * 带失效日志序列号的本地缓存值
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class VersionedCacheValue implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Object value;
+	private long sequence; //加载时本地已同步的失效序列号
+
+	public VersionedCacheValue() {}
+
+	public VersionedCacheValue(Object value, long sequence) {
+		this.value = value;
+		this.sequence = sequence;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public void setValue(Object value) {
+		this.value = value;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+}
@@ -15,7 +15,9 @@
  */
 package org.dromara.mendmix.common;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -25,6 +27,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dromara.mendmix.common.ThreadLocalContext.Key;
 import org.dromara.mendmix.common.exception.UnauthorizedException;
 import org.dromara.mendmix.common.guid.GUID;
 import org.dromara.mendmix.common.model.AuthUser;
@@ -55,6 +58,24 @@ public class CurrentRuntimeContext {
 			CustomRequestHeaders.HEADER_TRACE_LOGGING,
 			CustomRequestHeaders.ACCEPT_LANGUAGE
 	);
+	
+	private static final Key<AuthUser> AUTH_USER_KEY = ThreadLocalContext.key(CustomRequestHeaders.HEADER_AUTH_USER);
+	private static final Key<String> TENANT_ID_KEY = ThreadLocalContext.key(CustomRequestHeaders.HEADER_TENANT_ID);
+	private static final Key<String> REQUEST_ID_KEY = ThreadLocalContext.key(CustomRequestHeaders.HEADER_REQUEST_ID);
+	private static final List<Key<Object>> contextHeaderKeys = new ArrayList<>(contextHeaders.size());
+	
+	static {
+		for (String headerName : contextHeaders) {
+			if(CustomRequestHeaders.HEADER_AUTH_USER.equals(headerName))continue;
+			contextHeaderKeys.add(ThreadLocalContext.key(headerName));
+		}
+		ThreadLocalContext.key(CustomRequestHeaders.HEADER_BUSINESS_UNIT_ID);
+		ThreadLocalContext.key(CustomRequestHeaders.HEADER_TIMESTAMP);
+		ThreadLocalContext.key(CustomRequestHeaders.HEADER_IGNORE_TENANT);
+		ThreadLocalContext.key(CustomRequestHeaders.HEADER_TIME_ZONE);
+		ThreadLocalContext.key(CURRENT_TENANT_DS_KEY);
+		ThreadLocalContext.key(GlobalConstants.DEBUG_TRACE_PARAM_NAME);
+	}
 
 	public static void addContextHeaders(Map<String, String> headers) {
 
@@ -67,7 +88,7 @@ public class CurrentRuntimeContext {
 				if(CustomRequestHeaders.HEADER_AUTH_USER.equals(headerName)) {
 					AuthUser user = AuthUser.decode(headerVal);
 					if (user != null) {
-						ThreadLocalContext.set(CustomRequestHeaders.HEADER_AUTH_USER, user);
+						ThreadLocalContext.set(AUTH_USER_KEY, user);
 					}
 				}else {
 					setContextVal(headerName, headerVal);
@@ -80,7 +101,7 @@ public class CurrentRuntimeContext {
 		if(CustomRequestHeaders.HEADER_AUTH_USER.equals(name)) {
 			AuthUser user = AuthUser.decode(value);
 			if (user != null) {
-				ThreadLocalContext.set(CustomRequestHeaders.HEADER_AUTH_USER, user);
+				ThreadLocalContext.set(AUTH_USER_KEY, user);
 			}
 		}else if(contextHeaders.contains(name)){
 			setContextVal(name, value);
@@ -117,22 +138,36 @@ public class CurrentRuntimeContext {
 	}
 
 	public static Map<String, String> getContextHeaders() {
-		Map<String, String> map = new HashMap<>(contextHeaders.size());
+		return new HashMap<>(getContextHeaderView());
+	}
+	
+	/**
+	 * 上下文请求头（只读）
+	 * <br>
+	 * 上下文未变更时返回缓存结果，直接修改上下文中对象（如当前用户）的属性不会刷新缓存
+	 * @return
+	 */
+	public static Map<String, String> getContextHeaderView() {
+		Map<String, String> view = ThreadLocalContext.getHeaderView();
+		if(view != null)return view;
+		Map<String, String> map = new HashMap<>(contextHeaders.size() + 1);
+		AuthUser currentUser = getCurrentUser();
+		if(currentUser != null) {
+			map.put(CustomRequestHeaders.HEADER_AUTH_USER, currentUser.toEncodeString());
+		}
 		String headerVal;
-		for (String headerName : contextHeaders) {
-			if(CustomRequestHeaders.HEADER_AUTH_USER.equals(headerName) && ThreadLocalContext.exists(headerName)) {
-				headerVal = getCurrentUser().toEncodeString();
-			}else {
-				headerVal = getContextVal(headerName, false);
-			}
+		for (Key<Object> key : contextHeaderKeys) {
+			headerVal = ThreadLocalContext.getStringValue(key);
 			if(headerVal == null)continue;
-			map.put(headerName, headerVal);
+			map.put(key.getName(), headerVal);
 		}
 		//
 		if(!map.containsKey(CustomRequestHeaders.HEADER_REQUEST_ID)) {
 			map.put(CustomRequestHeaders.HEADER_REQUEST_ID, GUID.uuid());
 		}
-		return map;
+		view = Collections.unmodifiableMap(map);
+		ThreadLocalContext.setHeaderView(view);
+		return view;
 	}
 	
 	public static boolean isTraceLogging() {
@@ -149,7 +184,7 @@ public class CurrentRuntimeContext {
 	}
 
 	public static AuthUser getCurrentUser() {
-		AuthUser user = ThreadLocalContext.get(CustomRequestHeaders.HEADER_AUTH_USER);
+		AuthUser user = ThreadLocalContext.get(AUTH_USER_KEY);
 		return user;
 	}
 
@@ -157,7 +192,7 @@ public class CurrentRuntimeContext {
 		if (user == null) {
 			return;
 		} else {
-			ThreadLocalContext.set(CustomRequestHeaders.HEADER_AUTH_USER, user);
+			ThreadLocalContext.set(AUTH_USER_KEY, user);
 		}
 	}
 
@@ -182,11 +217,11 @@ public class CurrentRuntimeContext {
 	}
 	
 	public static String getRequestId() {
-		return getContextVal(CustomRequestHeaders.HEADER_REQUEST_ID, false);
+		return ThreadLocalContext.getStringValue(REQUEST_ID_KEY);
 	}
 
 	public static String getTenantId() {
-		return getContextVal(CustomRequestHeaders.HEADER_TENANT_ID, false);
+		return ThreadLocalContext.getStringValue(TENANT_ID_KEY);
 	}
 
 	public static String getTenantId(boolean validate) {
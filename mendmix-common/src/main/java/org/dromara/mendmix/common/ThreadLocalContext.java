@@ -15,15 +15,21 @@
  */
 package org.dromara.mendmix.common;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * 
  * <br>
  * Class Name   : ThreadLocalContext
+ * <br>
+ * 通过{@link #key(String)}注册的键按槽位存储（数组下标访问），未注册的键存储在附加Map；字符串键与同名注册键访问同一槽位
+ * <br>
+ * 跨线程传递：{@link #snapshot()}获取不可变快照（仅含注册键），执行线程{@link #attach(Snapshot)}后按写时复制使用，完成后{@link #detach(Values)}恢复
  *
  * @author jiangwei
  * @version 1.0.0
@@ -31,32 +37,105 @@ import java.util.Objects;
  */
 public class ThreadLocalContext {
 
-	private static ThreadLocal<Map<String, Object>> context = new ThreadLocal<>();
+	private static ThreadLocal<Values> context = new ThreadLocal<>();
+	
+	private static final Map<String, Key<?>> registeredKeys = new ConcurrentHashMap<>();
+	private static volatile int slotCount;
+	//不随快照传递的槽位
+	private static volatile int[] localSlots = new int[0];
+	//区分值为null与未设置
+	private static final Object NULL_VALUE = new Object();
 	
 	private static final String RESET = "_ctx_is_reset_";
 	public static final String REQUEST_KEY = "_ctx_request_";
 	public static final String RESPONSE_KEY = "_ctx_response_";
 	public static final String REQUEST_TIME_KEY = "_ctx_request_time";
 	
+	private static final Key<Boolean> RESET_SLOT = key(RESET);
+	static {
+		key(REQUEST_KEY, false);
+		key(RESPONSE_KEY, false);
+		key(REQUEST_TIME_KEY);
+	}
+	
+	/**
+	 * 注册上下文键（随快照传递）
+	 * @param name
+	 * @return 同名键已注册时返回已注册键
+	 */
+	public static <T> Key<T> key(String name){
+		return key(name, true);
+	}
+	
+	/**
+	 * 注册上下文键
+	 * @param name
+	 * @param inheritable 是否随快照传递到执行线程
+	 * @return 同名键已注册时返回已注册键
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T> Key<T> key(String name,boolean inheritable){
+		Key<?> key = registeredKeys.get(name);
+		if(key == null) {
+			key = new Key<>(name, slotCount, inheritable);
+			if(!inheritable) {
+				int[] slots = Arrays.copyOf(localSlots, localSlots.length + 1);
+				slots[slots.length - 1] = key.index;
+				localSlots = slots;
+			}
+			registeredKeys.put(name, key);
+			slotCount++;
+		}
+		return (Key<T>) key;
+	}
+	
 	public static void set(String key,Object value){
 		//if(value == null)return;
-		getContextMap().put(key, value);
+		Key<?> registered = registeredKeys.get(key);
+		if(registered != null) {
+			getValues().set(registered, value);
+		}else {
+			getValues().putExtra(key, value);
+		}
+	}
+	
+	public static <T> void set(Key<T> key,T value){
+		getValues().set(key, value);
 	}
 	
 	public static String getStringValue(String key){
-		if(context.get() == null)return null;
-		return Objects.toString(context.get().get(key), null);
+		return Objects.toString(get(key), null);
+	}
+	
+	public static String getStringValue(Key<?> key){
+		return Objects.toString(get(key), null);
 	}
 	
 	public static boolean exists(String key){
-		if(context.get() == null)return false;
-		return context.get().containsKey(key);
+		Values values = context.get();
+		if(values == null)return false;
+		Key<?> registered = registeredKeys.get(key);
+		return registered != null ? values.contains(registered) : values.containsExtra(key);
+	}
+	
+	public static boolean exists(Key<?> key){
+		Values values = context.get();
+		return values != null && values.contains(key);
 	}
 	
 	@SuppressWarnings("unchecked")
 	public static <T> T get(String key){
-		if(context.get() == null)return null;
-		return (T) context.get().get(key);
+		Values values = context.get();
+		if(values == null)return null;
+		Key<?> registered = registeredKeys.get(key);
+		return (T) (registered != null ? values.get(registered) : values.getExtra(key));
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <T> T get(Key<T> key){
+		Values values = context.get();
+		if(values == null)return null;
+		return (T) values.get(key);
 	}
 	
 	public static <T> T get(String key,T defaultVal){
@@ -64,43 +143,267 @@ public class ThreadLocalContext {
 		return value == null ? defaultVal : value;
 	}
 	
+	public static <T> T get(Key<T> key,T defaultVal){
+		T value = get(key);
+		return value == null ? defaultVal : value;
+	}
+	
+	@SuppressWarnings("unchecked")
 	public static <T> T getAndRemove(String key){
-		if(context.get() == null)return null;
-		return (T) context.get().remove(key);
+		Values values = context.get();
+		if(values == null)return null;
+		Key<?> registered = registeredKeys.get(key);
+		return (T) (registered != null ? values.remove(registered) : values.removeExtra(key));
 	}
 	
 	public static void remove(String...keys){
-		if(context.get() == null)return;
+		Values values = context.get();
+		if(values == null)return;
+		Key<?> registered;
 		for (String key : keys) {
-			context.get().remove(key);
+			registered = registeredKeys.get(key);
+			if(registered != null) {
+				values.remove(registered);
+			}else {
+				values.removeExtra(key);
+			}
 		}
 	}
 	
+	public static void remove(Key<?> key){
+		Values values = context.get();
+		if(values == null)return;
+		values.remove(key);
+	}
+	
 	public static boolean isEmpty(){
-		return context.get() == null || context.get().isEmpty();
+		return context.get() == null || context.get().size == 0;
 	}
 	
 	public static boolean isReseted(){
-		return context.get() != null && context.get().containsKey(RESET);
+		return exists(RESET_SLOT);
 	}
 	
 	public static void markReset(){
-		set(RESET, Boolean.TRUE);
+		set(RESET_SLOT, Boolean.TRUE);
 	}
 	
 	public static void unset(){
-		if(context.get() != null){
-			context.get().clear();
+		context.remove();
+	}
+	
+	/**
+	 * 当前上下文快照（仅含可传递的注册键，不含request、response及未注册键），用于跨线程传递
+	 * @return 上下文为空返回null
+	 */
+	public static Snapshot snapshot(){
+		Values values = context.get();
+		if(values == null || values.size == 0)return null;
+		return values.snapshot();
+	}
+	
+	/**
+	 * 将快照设置到当前线程
+	 * @param snapshot
+	 * @return 当前线程原上下文，执行完成后通过{@link #detach(Values)}恢复
+	 */
+	public static Values attach(Snapshot snapshot){
+		Values previous = context.get();
+		if(snapshot == null) {
 			context.remove();
+		}else {
+			context.set(new Values(snapshot));
 		}
+		return previous;
 	}
 	
-	private static Map<String, Object> getContextMap(){
-		if(context.get() == null){
-			context.set(new HashMap<String, Object>());
+	public static void detach(Values previous){
+		if(previous == null) {
+			context.remove();
+		}else {
+			context.set(previous);
 		}
-		return context.get();
 	}
+	
+	/**
+	 * 上下文未变更时返回缓存的请求头视图
+	 */
+	static Map<String, String> getHeaderView(){
+		Values values = context.get();
+		return values != null && values.headerViewVersion == values.version ? values.headerView : null;
+	}
+	
+	static void setHeaderView(Map<String, String> headerView){
+		Values values = context.get();
+		if(values == null)return;
+		values.headerView = headerView;
+		values.headerViewVersion = values.version;
+	}
+	
+	private static Values getValues(){
+		Values values = context.get();
+		if(values == null){
+			values = new Values(slotCount);
+			context.set(values);
+		}
+		return values;
+	}
+	
+	private static Object unmask(Object value) {
+		return value == NULL_VALUE ? null : value;
+	}
+	
+	public static final class Key<T> {
+		private final String name;
+		private final int index;
+		private final boolean inheritable;
+		
+		private Key(String name, int index, boolean inheritable) {
+			this.name = name;
+			this.index = index;
+			this.inheritable = inheritable;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isInheritable() {
+			return inheritable;
+		}
 
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
 	
+	/**
+	 * 不可变上下文快照
+	 */
+	public static final class Snapshot {
+		private final Object[] slots;
+		private final int size;
+		private final Map<String, String> headerView;
+		
+		private Snapshot(Object[] slots, int size, Map<String, String> headerView) {
+			this.slots = slots;
+			this.size = size;
+			this.headerView = headerView;
+		}
+	}
+	
+	/**
+	 * 线程上下文数据，与快照共享的槽位数组在首次修改时复制
+	 */
+	public static final class Values {
+		private Object[] slots;
+		private boolean slotsShared;
+		private Map<String, Object> extras;
+		private int size;
+		private int version;
+		private Map<String, String> headerView;
+		private int headerViewVersion = -1;
+		
+		private Values(int capacity) {
+			this.slots = new Object[capacity];
+		}
+		
+		private Values(Snapshot snapshot) {
+			this.slots = snapshot.slots;
+			this.slotsShared = true;
+			this.size = snapshot.size;
+			if(snapshot.headerView != null) {
+				this.headerView = snapshot.headerView;
+				this.headerViewVersion = version;
+			}
+		}
+		
+		private Object get(Key<?> key) {
+			Object value = key.index < slots.length ? slots[key.index] : null;
+			//注册前以字符串键写入的值
+			if(value == null && extras != null)return extras.get(key.name);
+			return unmask(value);
+		}
+		
+		private boolean contains(Key<?> key) {
+			return (key.index < slots.length && slots[key.index] != null) || containsExtra(key.name);
+		}
+		
+		private void set(Key<?> key,Object value) {
+			setSlot(key.index, value);
+			if(extras != null)removeExtra(key.name);
+		}
+		
+		private Object remove(Key<?> key) {
+			Object value = removeSlot(key.index);
+			if(extras != null && extras.containsKey(key.name)) {
+				return removeExtra(key.name);
+			}
+			return value;
+		}
+		
+		private void setSlot(int index,Object value) {
+			if(index >= slots.length || slotsShared) {
+				slots = Arrays.copyOf(slots, Math.max(slots.length, Math.max(index + 1, slotCount)));
+				slotsShared = false;
+			}
+			if(slots[index] == null)size++;
+			slots[index] = value == null ? NULL_VALUE : value;
+			version++;
+		}
+		
+		private Object removeSlot(int index) {
+			if(index >= slots.length || slots[index] == null)return null;
+			if(slotsShared) {
+				slots = slots.clone();
+				slotsShared = false;
+			}
+			Object value = slots[index];
+			slots[index] = null;
+			size--;
+			version++;
+			return unmask(value);
+		}
+		
+		private Object getExtra(String key) {
+			return extras == null ? null : extras.get(key);
+		}
+		
+		private boolean containsExtra(String key) {
+			return extras != null && extras.containsKey(key);
+		}
+		
+		private void putExtra(String key,Object value) {
+			if(extras == null) {
+				extras = new HashMap<>();
+			}
+			if(!extras.containsKey(key))size++;
+			extras.put(key, value);
+			version++;
+		}
+		
+		private Object removeExtra(String key) {
+			if(extras == null || !extras.containsKey(key))return null;
+			size--;
+			version++;
+			return extras.remove(key);
+		}
+		
+		private Snapshot snapshot() {
+			Object[] snapshotSlots = slots;
+			int snapshotSize = extras == null ? size : size - extras.size();
+			for (int index : localSlots) {
+				if(index < snapshotSlots.length && snapshotSlots[index] != null) {
+					if(snapshotSlots == slots)snapshotSlots = slots.clone();
+					snapshotSlots[index] = null;
+					snapshotSize--;
+				}
+			}
+			if(snapshotSize == 0)return null;
+			//未复制时与快照共享
+			if(snapshotSlots == slots)slotsShared = true;
+			return new Snapshot(snapshotSlots, snapshotSize, headerViewVersion == version ? headerView : null);
+		}
+	}
 }
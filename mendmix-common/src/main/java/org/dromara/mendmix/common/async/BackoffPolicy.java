@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+/**
+ * 重试退避策略
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public interface BackoffPolicy {
+
+	/**
+	 * @param retryCount 已失败次数（首次执行为0）
+	 * @return 下次执行延迟（毫秒）
+	 */
+	long delayMillis(int retryCount);
+
+	static BackoffPolicy fixed(long periodMillis) {
+		return retryCount -> periodMillis;
+	}
+
+	/**
+	 * 按失败次数线性递增：unit, unit, 2*unit, 3*unit...
+	 */
+	static BackoffPolicy linear(long unitMillis) {
+		return retryCount -> unitMillis * Math.max(retryCount, 1);
+	}
+
+	/**
+	 * 指数递增：initial * multiplier^retryCount，不超过max
+	 */
+	static BackoffPolicy exponential(long initialMillis, double multiplier, long maxMillis) {
+		return retryCount -> {
+			double delay = initialMillis * Math.pow(multiplier, retryCount);
+			return delay >= maxMillis ? maxMillis : (long) delay;
+		};
+	}
+}
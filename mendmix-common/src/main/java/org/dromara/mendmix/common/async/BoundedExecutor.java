@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 有界执行器：同时处理的任务数（执行中+排队）不超过最大线程数+队列容量，超出按拒绝策略处理
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public interface BoundedExecutor extends ExecutorService {
+
+	/**
+	 * @return 正在处理的任务数（执行中+排队）
+	 */
+	int getSubmittedTasksCount();
+
+	/**
+	 * @return 最大允许同时处理的任务数
+	 */
+	int getMaxSubmittedTaskCount();
+}
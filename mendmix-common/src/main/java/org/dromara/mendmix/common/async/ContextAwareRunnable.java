@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.ThreadLocalContext.Snapshot;
+import org.dromara.mendmix.common.ThreadLocalContext.Values;
+
+/**
+ * 提交时捕获{@link ThreadLocalContext}，执行时设置到执行线程，完成后恢复执行线程原上下文
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class ContextAwareRunnable implements Runnable {
+
+	final Runnable delegate;
+	private final Snapshot snapshot;
+
+	private ContextAwareRunnable(Runnable delegate, Snapshot snapshot) {
+		this.delegate = delegate;
+		this.snapshot = snapshot;
+	}
+
+	static Runnable wrap(Runnable task) {
+		if (task instanceof ContextAwareRunnable) {
+			return task;
+		}
+		return new ContextAwareRunnable(task, ThreadLocalContext.snapshot());
+	}
+
+	static Runnable unwrap(Runnable task) {
+		return task instanceof ContextAwareRunnable ? ((ContextAwareRunnable) task).delegate : task;
+	}
+
+	@Override
+	public void run() {
+		Values previous = ThreadLocalContext.attach(snapshot);
+		try {
+			delegate.run();
+		} finally {
+			ThreadLocalContext.detach(previous);
+		}
+	}
+}
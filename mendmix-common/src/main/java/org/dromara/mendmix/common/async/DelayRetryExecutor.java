@@ -17,9 +17,10 @@ package org.dromara.mendmix.common.async;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
 
 /**
+ * 延迟重试执行器（基于时间轮调度，到期后提交到执行线程池）
  * @description <br>
  * @author <a href="mailto:vakinge@gmail.com">vakinge</a>
  * @date 2016年7月20日
@@ -35,91 +37,94 @@ public class DelayRetryExecutor {
 
 	private static final Logger logger = LoggerFactory.getLogger("org.dromara.mendmix");
 
-	// 重试时间间隔单元（毫秒）
-	private long retryPeriodUnit;
 	private int maxReties;
 	private int queueCapacity;
+	private BackoffPolicy backoffPolicy;
 
-	private final PriorityBlockingQueue<PriorityTask<?>> taskQueue = new PriorityBlockingQueue<PriorityTask<?>>(1000);
+	private final TimingWheel timingWheel = TimingWheel.getDefault();
+	private final AtomicInteger pendingTasks = new AtomicInteger();
+	private final AtomicInteger droppedTasks = new AtomicInteger();
 
 	private ExecutorService executor;
 
 	private AtomicBoolean closed = new AtomicBoolean(false);
 	
 	public int getRetryTaskNums() {
-		return taskQueue.size();
+		return pendingTasks.get();
 	}
 
+	public int getDroppedTaskNums() {
+		return droppedTasks.get();
+	}
+
+	/**
+	 * @param poolSize
+	 * @param queueCapacity
+	 * @param retryPeriodUnitMs 重试时间间隔单元（毫秒），按失败次数线性递增
+	 * @param maxReties
+	 */
 	public DelayRetryExecutor(int poolSize,int queueCapacity, int retryPeriodUnitMs, int maxReties) {
+		this(poolSize, queueCapacity, maxReties, BackoffPolicy.linear(retryPeriodUnitMs));
+	}
 
+	public DelayRetryExecutor(int poolSize,int queueCapacity, int maxReties, BackoffPolicy backoffPolicy) {
 		this.queueCapacity = queueCapacity;
-		this.retryPeriodUnit = retryPeriodUnitMs;
 		this.maxReties = maxReties;
+		this.backoffPolicy = backoffPolicy;
 		executor = Executors.newFixedThreadPool(poolSize, new StandardThreadFactory("DelayRetryExecutor"));
-		executor.execute(new Runnable() {
-			@Override
-			public void run() {
-				while (!closed.get()) {
-					try {
-						PriorityTask<?> task = taskQueue.take();
-						// 空任务跳出循环
-						if (task.getConsumer() == null)
-							break;
-						if (task.nextFireTime - System.currentTimeMillis() > 0) {
-							TimeUnit.MILLISECONDS.sleep(1000);
-							taskQueue.put(task);
-							continue;
-						}
-						task.run();
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-				}
-			}
-		});
 	}
 	
 	public <T> void submit(String traceId, ICaller<T> caller) {
-		int taskCount;
-		if ((taskCount = taskQueue.size()) > queueCapacity) {
-			logger.warn("<framework-logging> Retry queue task count:{} over max queueCapacity:{}", taskCount,queueCapacity);
+		if (closed.get()) {
 			return;
 		}
-		taskQueue.add(new PriorityTask<>(traceId,caller));
+		//先占位再判断，超出时回退，避免并发提交超过容量
+		int taskCount = pendingTasks.incrementAndGet();
+		if (taskCount > queueCapacity) {
+			pendingTasks.decrementAndGet();
+			droppedTasks.incrementAndGet();
+			logger.warn("<framework-logging> Retry queue task count:{} over max queueCapacity:{}", taskCount - 1,queueCapacity);
+			return;
+		}
+		new DelayTask<>(traceId,caller).schedule();
 	}
 	
 	public void close() {
 		closed.set(true);
-		// taskQueue里面没有任务会一直阻塞，所以先add一个新任务保证执行
-		taskQueue.add(new PriorityTask<>(null,null));
-		try {
-			Thread.sleep(1000);
-		} catch (Exception e) {
-		}
 		executor.shutdown();
 		logger.info("<framework-logging> DelayRetryExecutor closed");
 	}
 	
-	class PriorityTask<T> implements Runnable, Comparable<PriorityTask<T>> {
+	class DelayTask<T> implements Runnable {
 
 		String traceId;
 		final ICaller<T> caller;
 
 		int retryCount = 0;
-		long nextFireTime;
 
-		public PriorityTask(String traceId,ICaller<T> caller) {
-			this(traceId,caller, System.currentTimeMillis() + retryPeriodUnit);
-		}
-		
-		public PriorityTask(String traceId,ICaller<T> caller, long nextFireTime) {
+		public DelayTask(String traceId,ICaller<T> caller) {
 			this.traceId = traceId;
 			this.caller = caller;
-			this.nextFireTime = nextFireTime;
 		}
 
-		public ICaller<T> getConsumer() {
-			return caller;
+		void schedule() {
+			long delay = backoffPolicy.delayMillis(retryCount);
+			TimingWheel.Timeout timeout = timingWheel.schedule(() -> {
+				if (closed.get()) {
+					pendingTasks.decrementAndGet();
+					return;
+				}
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					pendingTasks.decrementAndGet();
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+			if (timeout == null) {
+				pendingTasks.decrementAndGet();
+				droppedTasks.incrementAndGet();
+				logger.warn("<framework-logging> DelayRetry dropped(timingWheel full) traceId:{}", traceId);
+			}
 		}
 		
 		@Override
@@ -127,24 +132,24 @@ public class DelayRetryExecutor {
 			try {
 				logger.debug("<framework-logging> DelayRetry begin traceId:" + traceId);
 				caller.call();
+				pendingTasks.decrementAndGet();
 				logger.debug("<framework-logging> DelayRetry successed traceId:" + traceId);
 			} catch (Exception e) {
 				retryCount++;
+				if (closed.get()) {
+					pendingTasks.decrementAndGet();
+					return;
+				}
 				if (retryCount == maxReties) {
+					pendingTasks.decrementAndGet();
 					logger.error(String.format("<framework-logging> DelayRetry maxReties over %s,traceId:%s ", maxReties,traceId),e);
 					return;
 				}
-				nextFireTime = nextFireTime + retryCount * retryPeriodUnit;
-				// 重新放入任务队列
-				taskQueue.add(this);
-				logger.debug("<framework-logging> DelayRetry error ,reAdd to queue traceId:{},retryCount:{}" + traceId,retryCount);
+				// 重新加入延迟调度
+				schedule();
+				logger.debug("<framework-logging> DelayRetry error ,reAdd to queue traceId:{},retryCount:{}", traceId,retryCount);
 			}
 		}
 
-		@Override
-		public int compareTo(PriorityTask<T> o) {
-			return (int) (this.nextFireTime - o.nextFireTime);
-		}
-
 	}
 }
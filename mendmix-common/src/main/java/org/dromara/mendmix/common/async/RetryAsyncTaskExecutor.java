@@ -25,9 +25,7 @@ import org.apache.commons.lang3.RandomUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.ThreadLocalContext;
-import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
 
 /**
  * 异步任务执行器
@@ -44,7 +42,7 @@ public class RetryAsyncTaskExecutor {
 	
 	private static ThreadLocal<String> traceIdHolder = new ThreadLocal<>();
 	
-	private StandardThreadExecutor executor;
+	private BoundedExecutor executor;
 	private int maxRetry;
 	
 	private static volatile RetryAsyncTaskExecutor defaultExecutor;
@@ -67,7 +65,7 @@ public class RetryAsyncTaskExecutor {
 	 */
 	public RetryAsyncTaskExecutor(String taskName, int threads, int queueSize,int maxRetry) {
 		this.maxRetry = maxRetry;
-		executor = new StandardThreadExecutor(1, threads, 300, TimeUnit.SECONDS, queueSize, new StandardThreadFactory(taskName + "-asyncTask"));
+		executor = ThreadExecutorFactory.create(taskName + "-asyncTask", 1, threads, 300, TimeUnit.SECONDS, queueSize, null);
 		logger.info("MENDMIX-TRACE-LOGGGING-->> AsyncTaskExecutor[{}] 初始化完成 -> threads:{},queueSize:{},maxRetry:{}",taskName,threads,queueSize,maxRetry);
 	}
 
@@ -80,7 +78,6 @@ public class RetryAsyncTaskExecutor {
 	}
 	
 	private void executeWithRetry(RetryTask task,int execNums) {
-		final Map<String, String> contextHeaders = CurrentRuntimeContext.getContextHeaders();
 		if(execNums >= maxRetry){	
 			logger.warn("MENDMIX-TRACE-LOGGGING-->> {} executeWithRetry over maxRetry[{}]",task.traceId(),maxRetry);
 			onFinalErrorProcess(task);
@@ -95,9 +92,6 @@ public class RetryAsyncTaskExecutor {
 		executor.execute(new Runnable() {
 			@Override
 			public void run() {
-				contextHeaders.forEach( (k,v) ->{
-					CurrentRuntimeContext.addContextHeader(k, v);
-				} );
 				traceIdHolder.set(task.traceId());
 				try {
 					boolean result = task.process();
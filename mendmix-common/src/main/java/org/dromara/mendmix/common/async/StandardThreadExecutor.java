@@ -35,7 +35,7 @@ import org.slf4j.LoggerFactory;
  * @author <a href="mailto:vakinge@gmail.com">vakin</a>
  * @date 2016年7月20日
  */
-public class StandardThreadExecutor extends ThreadPoolExecutor {
+public class StandardThreadExecutor extends ThreadPoolExecutor implements BoundedExecutor {
 	
 	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common.concurrent");
 
@@ -47,6 +47,7 @@ public class StandardThreadExecutor extends ThreadPoolExecutor {
 
 	protected AtomicInteger submittedTasksCount;	// 正在处理的任务数 
 	private int maxSubmittedTaskCount;				// 最大允许同时处理的任务数
+	private boolean contextPropagation;				// 是否传递ThreadLocalContext
 
 	public StandardThreadExecutor() {
 		this(DEFAULT_MIN_THREADS, DEFAULT_MAX_THREADS);
@@ -96,6 +97,11 @@ public class StandardThreadExecutor extends ThreadPoolExecutor {
 		if (count > maxSubmittedTaskCount) {
 			submittedTasksCount.decrementAndGet();
 			getRejectedExecutionHandler().rejectedExecution(command, this);
+			return;
+		}
+		
+		if(contextPropagation) {
+			command = ContextAwareRunnable.wrap(command);
 		}
 
 		try {
@@ -110,10 +116,16 @@ public class StandardThreadExecutor extends ThreadPoolExecutor {
 		}
 	}
 
+	void setContextPropagation(boolean contextPropagation) {
+		this.contextPropagation = contextPropagation;
+	}
+
+	@Override
 	public int getSubmittedTasksCount() {
 		return this.submittedTasksCount.get();
 	}
 	
+	@Override
 	public int getMaxSubmittedTaskCount() {
 		return maxSubmittedTaskCount;
 	}
@@ -129,6 +141,7 @@ public class StandardThreadExecutor extends ThreadPoolExecutor {
 	 * @param t
 	 */
 	private void printException(Runnable r, Throwable t) {
+		r = ContextAwareRunnable.unwrap(r);
 		if (t == null && r instanceof Future<?>) {
 			try {
 				Future<?> future = (Future<?>) r;
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.util.ResourceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 任务执行器工厂
+ * <br>
+ * 开启虚拟线程（mendmix-cloud.async.virtualThreads.enabled）且运行于JDK21+时创建{@link VirtualThreadExecutor}，否则创建{@link StandardThreadExecutor}
+ * <br>
+ * 两种执行器均在提交任务时传递{@link org.dromara.mendmix.common.ThreadLocalContext}快照
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class ThreadExecutorFactory {
+
+	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common.concurrent");
+
+	private static boolean virtualThreadMode = ResourceUtils.getBoolean("mendmix-cloud.async.virtualThreads.enabled", false);
+
+	static {
+		if (virtualThreadMode && !VirtualThreadExecutor.isSupported()) {
+			virtualThreadMode = false;
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> virtual threads not supported by current JDK,fallback to platform threads");
+		}
+	}
+
+	public static boolean isVirtualThreadMode() {
+		return virtualThreadMode;
+	}
+
+	public static BoundedExecutor create(String name, int maxThreads, int queueCapacity) {
+		return create(name, 1, maxThreads, 60, TimeUnit.SECONDS, queueCapacity, null);
+	}
+
+	/**
+	 * @param name 执行器名（线程名前缀）
+	 * @param coreThreads 核心线程数（仅平台线程）
+	 * @param maxThreads 最大同时执行任务数
+	 * @param keepAliveTime 空闲线程存活时间（仅平台线程）
+	 * @param unit
+	 * @param queueCapacity 排队任务数
+	 * @param handler 拒绝策略，为空时抛出RejectedExecutionException
+	 * @return
+	 */
+	public static BoundedExecutor create(String name, int coreThreads, int maxThreads, long keepAliveTime, TimeUnit unit,
+			int queueCapacity, RejectedExecutionHandler handler) {
+		if (virtualThreadMode) {
+			return new VirtualThreadExecutor(name, maxThreads, queueCapacity, handler);
+		}
+		StandardThreadExecutor executor = new StandardThreadExecutor(coreThreads, maxThreads, keepAliveTime, unit,
+				queueCapacity, new StandardThreadFactory(name), handler == null ? new AbortPolicy() : handler);
+		executor.setContextPropagation(true);
+		return executor;
+	}
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dromara.mendmix.common.util.ResourceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 哈希时间轮延迟调度
+ * <br>
+ * 添加、取消O(1)，任务不会早于到期时间执行，最多晚一个刻度（另加线程调度误差）；默认实例刻度为1毫秒
+ * （mendmix-cloud.async.timingWheel.tickMillis）
+ * <br>
+ * 到期任务在时间轮线程执行，耗时任务需自行提交到业务线程池
+ * <br>
+ * 待执行任务数超过容量时拒绝添加（返回null），计入丢弃数
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class TimingWheel {
+
+	private static final Logger logger = LoggerFactory.getLogger("org.dromara.mendmix");
+
+	private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+	private final String name;
+	private final long tickNanos;
+	private final Bucket[] wheel;
+	private final int mask;
+	private final long maxPending;
+	private final long startTime;
+
+	private final Queue<Timeout> addedTimeouts = new ConcurrentLinkedQueue<>();
+	private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong pendingCount = new AtomicLong();
+	private final AtomicLong firedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong cancelledCount = new AtomicLong();
+
+	private final Thread workerThread;
+	private volatile boolean stopped;
+	private long tick;
+
+	/**
+	 * @param name
+	 * @param tickMillis 刻度（毫秒）
+	 * @param wheelSize 槽数（向上取整为2的幂）
+	 * @param maxPending 最大待执行任务数
+	 */
+	public TimingWheel(String name, long tickMillis, int wheelSize, long maxPending) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("tickMillis must be greater than 0");
+		}
+		if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+			throw new IllegalArgumentException("wheelSize must be between 1 and 2^30");
+		}
+		this.name = name;
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.maxPending = maxPending;
+		this.startTime = System.nanoTime();
+		this.workerThread = new Thread(this::runWorker, name + "-timingWheel");
+		this.workerThread.setDaemon(true);
+		this.workerThread.start();
+	}
+
+	public static TimingWheel getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * 添加延迟任务
+	 * @param task
+	 * @param delay
+	 * @param unit
+	 * @return 超过容量或已停止返回null
+	 */
+	public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+		if (stopped) {
+			droppedCount.incrementAndGet();
+			return null;
+		}
+		if (pendingCount.incrementAndGet() > maxPending) {
+			pendingCount.decrementAndGet();
+			droppedCount.incrementAndGet();
+			return null;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+		Timeout timeout = new Timeout(this, task, deadline);
+		addedTimeouts.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * 停止时间轮，未到期的任务不再执行
+	 * @return 未执行的任务
+	 */
+	public List<Timeout> stop() {
+		if (Thread.currentThread() == workerThread) {
+			throw new IllegalStateException("TimingWheel.stop() cannot be called from timingWheel task");
+		}
+		stopped = true;
+		boolean interrupted = false;
+		while (workerThread.isAlive()) {
+			workerThread.interrupt();
+			try {
+				workerThread.join(100);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		List<Timeout> unprocessed = new ArrayList<>();
+		for (Bucket bucket : wheel) {
+			bucket.clearTimeouts(unprocessed);
+		}
+		//停止前并发添加的任务
+		Timeout timeout;
+		while ((timeout = addedTimeouts.poll()) != null) {
+			if (timeout.state() == Timeout.ST_INIT) {
+				unprocessed.add(timeout);
+			}
+		}
+		pendingCount.addAndGet(-unprocessed.size());
+		if (!unprocessed.isEmpty()) {
+			logger.warn("MENDMIX-TRACE-LOGGGING-->> timingWheel[{}] stopped,unprocessed tasks:{}", name, unprocessed.size());
+		}
+		return unprocessed;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getPendingCount() {
+		return pendingCount.get();
+	}
+
+	public long getFiredCount() {
+		return firedCount.get();
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	public long getCancelledCount() {
+		return cancelledCount.get();
+	}
+
+	private void runWorker() {
+		while (!stopped) {
+			long deadline = waitForNextTick();
+			if (deadline < 0) {
+				continue;
+			}
+			processCancelled();
+			transferTimeouts();
+			wheel[(int) (tick & mask)].expireTimeouts(deadline);
+			tick++;
+		}
+	}
+
+	/**
+	 * @return 当前刻度截止时间（相对启动时间），被中断返回-1
+	 */
+	private long waitForNextTick() {
+		long deadline = tickNanos * (tick + 1);
+		for (;;) {
+			long current = System.nanoTime() - startTime;
+			long sleepMillis = (deadline - current + 999999) / 1000000;
+			if (sleepMillis <= 0) {
+				return current;
+			}
+			try {
+				Thread.sleep(sleepMillis);
+			} catch (InterruptedException e) {
+				if (stopped) {
+					return -1;
+				}
+			}
+		}
+	}
+
+	private void transferTimeouts() {
+		Timeout timeout;
+		for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+			timeout = addedTimeouts.poll();
+			if (timeout == null) {
+				break;
+			}
+			if (timeout.state() == Timeout.ST_CANCELLED) {
+				continue;
+			}
+			long calculated = timeout.deadline / tickNanos;
+			timeout.remainingRounds = (calculated - tick) / wheel.length;
+			// 已过期的放入当前槽
+			long ticks = Math.max(calculated, tick);
+			Bucket bucket = wheel[(int) (ticks & mask)];
+			bucket.add(timeout);
+		}
+	}
+
+	private void processCancelled() {
+		Timeout timeout;
+		while ((timeout = cancelledTimeouts.poll()) != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	private static final class DefaultHolder {
+		static final TimingWheel INSTANCE = new TimingWheel("default",
+				ResourceUtils.getLong("mendmix-cloud.async.timingWheel.tickMillis", 1L),
+				ResourceUtils.getInt("mendmix-cloud.async.timingWheel.wheelSize", 512),
+				ResourceUtils.getLong("mendmix-cloud.async.timingWheel.maxPending", 100000L));
+	}
+
+	public static final class Timeout {
+
+		private static final int ST_INIT = 0;
+		private static final int ST_CANCELLED = 1;
+		private static final int ST_EXPIRED = 2;
+		private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater
+				.newUpdater(Timeout.class, "state");
+
+		private final TimingWheel timingWheel;
+		private final Runnable task;
+		private final long deadline;
+		private volatile int state = ST_INIT;
+
+		//以下仅由时间轮线程访问
+		long remainingRounds;
+		Timeout next;
+		Timeout prev;
+		Bucket bucket;
+
+		Timeout(TimingWheel timingWheel, Runnable task, long deadline) {
+			this.timingWheel = timingWheel;
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		public boolean cancel() {
+			if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+				return false;
+			}
+			timingWheel.pendingCount.decrementAndGet();
+			timingWheel.cancelledCount.incrementAndGet();
+			timingWheel.cancelledTimeouts.add(this);
+			return true;
+		}
+
+		public Runnable getTask() {
+			return task;
+		}
+
+		public boolean isCancelled() {
+			return state == ST_CANCELLED;
+		}
+
+		public boolean isExpired() {
+			return state == ST_EXPIRED;
+		}
+
+		int state() {
+			return state;
+		}
+
+		void expire() {
+			if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+				return;
+			}
+			timingWheel.pendingCount.decrementAndGet();
+			timingWheel.firedCount.incrementAndGet();
+			try {
+				task.run();
+			} catch (Throwable e) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> timingWheel[{}] task error", timingWheel.name, e);
+			}
+		}
+	}
+
+	private static final class Bucket {
+
+		private Timeout head;
+		private Timeout tail;
+
+		void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = tail = timeout;
+			} else {
+				tail.next = timeout;
+				timeout.prev = tail;
+				tail = timeout;
+			}
+		}
+
+		void expireTimeouts(long deadline) {
+			Timeout timeout = head;
+			while (timeout != null) {
+				Timeout next = timeout.next;
+				if (timeout.remainingRounds <= 0) {
+					// 未到期（不应出现）保留在当前槽
+					if (timeout.deadline <= deadline) {
+						next = remove(timeout);
+						timeout.expire();
+					}
+				} else if (timeout.isCancelled()) {
+					next = remove(timeout);
+				} else {
+					timeout.remainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+		/**
+		 * 移除所有任务，未取消且未执行的加入unprocessed
+		 */
+		void clearTimeouts(List<Timeout> unprocessed) {
+			Timeout timeout = head;
+			while (timeout != null) {
+				if (timeout.state() == Timeout.ST_INIT) {
+					unprocessed.add(timeout);
+				}
+				timeout = remove(timeout);
+			}
+		}
+
+		Timeout remove(Timeout timeout) {
+			Timeout next = timeout.next;
+			if (timeout.prev != null) {
+				timeout.prev.next = next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			if (timeout == head) {
+				if (timeout == tail) {
+					tail = null;
+					head = null;
+				} else {
+					head = next;
+				}
+			} else if (timeout == tail) {
+				tail = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+			return next;
+		}
+	}
+}
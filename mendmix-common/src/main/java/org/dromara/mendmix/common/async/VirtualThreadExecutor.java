@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.ThreadPoolExecutor.DiscardOldestPolicy;
+import java.util.concurrent.ThreadPoolExecutor.DiscardPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 虚拟线程执行器（JDK21+，每个任务一个虚拟线程）
+ * <br>
+ * 信号量限制同时执行的任务数为最大线程数，等待信号量的任务即排队任务；执行中+排队任务数超过最大线程数+队列容量时拒绝，与{@link StandardThreadExecutor}一致
+ * <br>
+ * 拒绝策略仅区分丢弃（DiscardPolicy、DiscardOldestPolicy）、调用线程执行（CallerRunsPolicy），其余抛出RejectedExecutionException
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService implements BoundedExecutor {
+
+	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common.concurrent");
+
+	private static final Method ofVirtualMethod;
+	private static final Method builderNameMethod;
+	private static final Method builderFactoryMethod;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name", String.class, long.class);
+			factory = builderClass.getMethod("factory");
+			//JDK19、20未开启预览时调用抛出异常
+			ofVirtual.invoke(null);
+		} catch (Throwable e) {
+			ofVirtual = null;
+		}
+		ofVirtualMethod = ofVirtual;
+		builderNameMethod = name;
+		builderFactoryMethod = factory;
+	}
+
+	private final String name;
+	private final ThreadFactory threadFactory;
+	private final Semaphore concurrencyLimiter;
+	private final RejectedExecutionHandler handler;
+	private final AtomicInteger submittedTasksCount = new AtomicInteger(0);
+	private final int maxSubmittedTaskCount;
+	private final Set<Thread> runningThreads = ConcurrentHashMap.newKeySet();
+	private final Object terminationLock = new Object();
+	private volatile boolean shutdown;
+
+	public VirtualThreadExecutor(String name, int maxThreads, int queueCapacity) {
+		this(name, maxThreads, queueCapacity, null);
+	}
+
+	/**
+	 * @param name
+	 * @param maxThreads 最大同时执行任务数
+	 * @param queueCapacity 排队任务数
+	 * @param handler 拒绝策略，为空时抛出RejectedExecutionException
+	 */
+	public VirtualThreadExecutor(String name, int maxThreads, int queueCapacity, RejectedExecutionHandler handler) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("virtual threads require JDK 21+");
+		}
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException("maxThreads must be greater than 0");
+		}
+		this.name = name;
+		this.threadFactory = newVirtualThreadFactory(name + "-virtual-");
+		this.concurrencyLimiter = new Semaphore(maxThreads);
+		this.maxSubmittedTaskCount = maxThreads + Math.max(queueCapacity, 0);
+		this.handler = handler;
+	}
+
+	public static boolean isSupported() {
+		return ofVirtualMethod != null;
+	}
+
+	private static ThreadFactory newVirtualThreadFactory(String namePrefix) {
+		try {
+			Object builder = ofVirtualMethod.invoke(null);
+			builder = builderNameMethod.invoke(builder, namePrefix, 1L);
+			return (ThreadFactory) builderFactoryMethod.invoke(builder);
+		} catch (Exception e) {
+			throw new IllegalStateException("create virtual thread factory error", e);
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		Objects.requireNonNull(command);
+		int count = submittedTasksCount.incrementAndGet();
+		if (shutdown || count > maxSubmittedTaskCount) {
+			onTaskFinished();
+			reject(command);
+			return;
+		}
+		Thread thread;
+		try {
+			thread = threadFactory.newThread(new Worker(ContextAwareRunnable.wrap(command)));
+			runningThreads.add(thread);
+			thread.start();
+		} catch (Throwable e) {
+			onTaskFinished();
+			throw new RejectedExecutionException("executor[" + name + "] start virtual thread error", e);
+		}
+	}
+
+	private void reject(Runnable command) {
+		if (handler instanceof DiscardPolicy || handler instanceof DiscardOldestPolicy) {
+			return;
+		}
+		if (handler instanceof CallerRunsPolicy && !shutdown) {
+			command.run();
+			return;
+		}
+		throw new RejectedExecutionException("Task " + command + " rejected from executor[" + name + "]");
+	}
+
+	private void onTaskFinished() {
+		if (submittedTasksCount.decrementAndGet() == 0 && shutdown) {
+			synchronized (terminationLock) {
+				terminationLock.notifyAll();
+			}
+		}
+	}
+
+	@Override
+	public int getSubmittedTasksCount() {
+		return submittedTasksCount.get();
+	}
+
+	@Override
+	public int getMaxSubmittedTaskCount() {
+		return maxSubmittedTaskCount;
+	}
+
+	@Override
+	public void shutdown() {
+		shutdown = true;
+		if (submittedTasksCount.get() == 0) {
+			synchronized (terminationLock) {
+				terminationLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * 中断所有任务线程，排队中（未获取到信号量）的任务不再执行
+	 * @return 始终返回空列表（排队任务已绑定虚拟线程）
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown();
+		for (Thread thread : runningThreads) {
+			thread.interrupt();
+		}
+		return new ArrayList<>(0);
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return shutdown && submittedTasksCount.get() == 0;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (terminationLock) {
+			while (!isTerminated()) {
+				long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remainingMillis <= 0) {
+					return false;
+				}
+				terminationLock.wait(remainingMillis);
+			}
+		}
+		return true;
+	}
+
+	private class Worker implements Runnable {
+
+		private final Runnable task;
+
+		Worker(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				concurrencyLimiter.acquire();
+			} catch (InterruptedException e) {
+				runningThreads.remove(Thread.currentThread());
+				onTaskFinished();
+				return;
+			}
+			try {
+				task.run();
+			} catch (Throwable t) {
+				logger.error(t.getMessage(), t);
+			} finally {
+				concurrencyLimiter.release();
+				runningThreads.remove(Thread.currentThread());
+				onTaskFinished();
+			}
+		}
+	}
+}
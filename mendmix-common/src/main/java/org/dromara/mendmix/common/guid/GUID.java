@@ -39,5 +39,9 @@ public class GUID {
 		return snowflakeGenerator.nextId();
 	}
 	
+	public static long[] guids(int n){
+		return snowflakeGenerator.nextIds(n);
+	}
+	
 	
 }
@@ -15,10 +15,16 @@
  */
 package org.dromara.mendmix.common.guid;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.dromara.mendmix.common.GlobalContext;
+import org.dromara.mendmix.common.util.ResourceUtils;
 
 /**
  * 全局ID生成器 （根据: https://github.com/twitter/snowflake）
+ * <br>
+ * 时间戳与序列号合并存储于AtomicLong，CAS分配无锁；同一毫秒序列号用尽时借用后续毫秒（借用超过容忍范围时等待时钟追上），
+ * 时钟回拨不超过容忍范围时沿用上次时间戳继续分配
  * 
  * @description <br>
  * @author <a href="mailto:vakinge@gmail.com">vakin</a>
@@ -26,9 +32,11 @@ import org.dromara.mendmix.common.GlobalContext;
  */
 public class SnowflakeGenerator {
 
+	//时钟回拨容忍毫秒数（同时为最大借用毫秒数），超过抛出异常
+	private static long maxBackwardMillis = ResourceUtils.getLong("mendmix-cloud.guid.snowflake.maxBackwardMillis", 1000L);
+
 	private long workerId;
 	private long datacenterId;
-	private long sequence = 0L;
 
 	private long twepoch = 1288834974657L;
 
@@ -43,11 +51,16 @@ public class SnowflakeGenerator {
 	private long timestampLeftShift = sequenceBits + workerIdBits + datacenterIdBits;
 	private long sequenceMask = -1L ^ (-1L << sequenceBits);
 
-	private long lastTimestamp = -1L;
+	//(timestamp - twepoch) << sequenceBits | sequence
+	private final AtomicLong state = new AtomicLong();
+	private final long nodeBits;
+	//已观测到的最大系统时间，用于区分时钟回拨与序列号借用
+	private volatile long observedTimestamp;
 
 	public SnowflakeGenerator() {
 		this.workerId = GlobalContext.getWorkerId();
 		this.datacenterId = 1;
+		this.nodeBits = (this.datacenterId << datacenterIdShift) | (this.workerId << workerIdShift);
 	}
 
 	public SnowflakeGenerator(long workerId, long datacenterId) {
@@ -62,37 +75,68 @@ public class SnowflakeGenerator {
 		}
 		this.workerId = workerId;
 		this.datacenterId = datacenterId;
+		this.nodeBits = (this.datacenterId << datacenterIdShift) | (this.workerId << workerIdShift);
 	}
 
-	public synchronized long nextId() {
-		long timestamp = timeGen();
+	public long nextId() {
+		return toId(allocate(1));
+	}
 
-		if (timestamp < lastTimestamp) {
-			throw new RuntimeException(String.format(
-					"Clock moved backwards.  Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
+	/**
+	 * 批量分配连续ID
+	 * @param n
+	 * @return
+	 */
+	public long[] nextIds(int n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n must be greater than 0");
 		}
+		long start = allocate(n);
+		long[] ids = new long[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = toId(start + i);
+		}
+		return ids;
+	}
 
-		if (lastTimestamp == timestamp) {
-			sequence = (sequence + 1) & sequenceMask;
-			if (sequence == 0) {
-				timestamp = tilNextMillis(lastTimestamp);
+	/**
+	 * 分配n个连续状态值
+	 * @return 首个状态值
+	 */
+	private long allocate(int n) {
+		long current;
+		long start;
+		long timestamp;
+		long lastTimestamp;
+		for (;;) {
+			current = state.get();
+			timestamp = timeGen() - twepoch;
+			lastTimestamp = current >>> sequenceBits;
+			if (timestamp > lastTimestamp) {
+				start = timestamp << sequenceBits;
+			} else {
+				// 同一毫秒、序列号借用的后续毫秒或时钟回拨，均在上次状态上递增
+				start = current + 1;
+				if (lastTimestamp - timestamp > maxBackwardMillis) {
+					if (observedTimestamp - timestamp > maxBackwardMillis) {
+						throw new RuntimeException(String.format(
+								"Clock moved backwards.  Refusing to generate id for %d milliseconds", observedTimestamp - timestamp));
+					}
+					Thread.yield();
+					continue;
+				}
+			}
+			if (timestamp > observedTimestamp) {
+				observedTimestamp = timestamp;
+			}
+			if (state.compareAndSet(current, start + n - 1)) {
+				return start;
 			}
-		} else {
-			sequence = 0L;
 		}
-
-		lastTimestamp = timestamp;
-
-		return ((timestamp - twepoch) << timestampLeftShift) | (datacenterId << datacenterIdShift)
-				| (workerId << workerIdShift) | sequence;
 	}
 
-	protected long tilNextMillis(long lastTimestamp) {
-		long timestamp = timeGen();
-		while (timestamp <= lastTimestamp) {
-			timestamp = timeGen();
-		}
-		return timestamp;
+	private long toId(long stateValue) {
+		return ((stateValue >>> sequenceBits) << timestampLeftShift) | nodeBits | (stateValue & sequenceMask);
 	}
 
 	protected long timeGen() {
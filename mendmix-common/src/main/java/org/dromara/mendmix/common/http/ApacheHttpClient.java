@@ -17,27 +17,37 @@ package org.dromara.mendmix.common.http;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 
 import org.dromara.mendmix.common.http.HttpRequestEntity.FileItem;
@@ -55,17 +65,16 @@ import org.dromara.mendmix.common.http.HttpRequestEntity.FileItem;
 public class ApacheHttpClient implements HttpClientProvider {
 
 	private static RequestConfig requestConfig;
+	private static PoolingHttpClientConnectionManager connectionManager;
+	//全局共享，按路由（目标主机）池化连接
+	private static CloseableHttpClient httpClient;
 	static {
 		requestConfig = RequestConfig.custom()
 				.setConnectTimeout(connectTimeout)
 				.setSocketTimeout(readTimeout)
 				.setConnectionRequestTimeout(readTimeout)
 				.build();
-	}
-	@Override
-	public HttpResponseEntity execute(HttpRequestEntity requestEntity)  throws IOException{
 		
-		CredentialsProvider  credsProvider = null;
 		SSLConnectionSocketFactory sslConnectionSocketFactory;
 		try {
 			sslConnectionSocketFactory = new SSLConnectionSocketFactory(
@@ -75,10 +84,30 @@ public class ApacheHttpClient implements HttpClientProvider {
 		} catch (Exception e) {
 			sslConnectionSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
 		}
-		CloseableHttpClient httpClient = HttpClients.custom()
-				.setDefaultCredentialsProvider(credsProvider)
-				.setSSLSocketFactory(sslConnectionSocketFactory)
+		Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", sslConnectionSocketFactory)
+				.build();
+		connectionManager = new PoolingHttpClientConnectionManager(registry, null, null, null, keepAliveMillis, TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(maxTotalConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnections);
+		connectionManager.setValidateAfterInactivity(2000);
+		//服务端未返回Keep-Alive时按keepAliveMillis，且不超过keepAliveMillis
+		ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return duration > 0 ? Math.min(duration, keepAliveMillis) : keepAliveMillis;
+		};
+		httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
 				.build();
+	}
+	@Override
+	public HttpResponseEntity execute(HttpRequestEntity requestEntity)  throws IOException{
+		
 		CloseableHttpResponse response = null;
 		try {
 			HttpUriRequest request = buildHttpUriRequest(requestEntity.getUri(), requestEntity);
@@ -94,11 +123,44 @@ public class ApacheHttpClient implements HttpClientProvider {
 			return responseEntity;
 		} finally {
 			if(response != null)response.close();
-			try {httpClient.close();} catch (IOException e) {}
 			requestEntity.unset();
 		}
 	}
 	
+	@Override
+	public <T> T execute(HttpRequestEntity requestEntity, ResponseBodyHandler<T> handler) throws IOException {
+		CloseableHttpResponse response = null;
+		try {
+			HttpUriRequest request = buildHttpUriRequest(requestEntity.getUri(), requestEntity);
+			response = httpClient.execute(request);
+			
+			HttpResponseEntity responseEntity = new HttpResponseEntity();
+			responseEntity.setStatusCode(response.getStatusLine().getStatusCode());
+			for (Header header : response.getAllHeaders()) {
+				responseEntity.addHeader(header.getName(), header.getValue());
+			}
+			HttpEntity entity = response.getEntity();
+			return handler.handle(responseEntity, entity == null ? null : entity.getContent());
+		} finally {
+			//已读完的连接归还连接池，未读完的直接关闭
+			if(response != null)response.close();
+			requestEntity.unset();
+		}
+	}
+	
+	@Override
+	public Map<String, Object> poolStats() {
+		PoolStats stats = connectionManager.getTotalStats();
+		Map<String, Object> result = new LinkedHashMap<>(6);
+		result.put("leased", stats.getLeased());
+		result.put("pending", stats.getPending());
+		result.put("available", stats.getAvailable());
+		result.put("max", stats.getMax());
+		result.put("routes", connectionManager.getRoutes().size());
+		result.put("asyncTasks", HttpAsyncSupport.getSubmittedTasksCount());
+		return result;
+	}
+	
 	
 	private static HttpUriRequest buildHttpUriRequest(String url, HttpRequestEntity requestEntity) throws IOException {
 	
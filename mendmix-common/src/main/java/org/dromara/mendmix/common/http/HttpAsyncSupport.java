@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.dromara.mendmix.common.async.BoundedExecutor;
+import org.dromara.mendmix.common.async.ThreadExecutorFactory;
+import org.dromara.mendmix.common.util.ResourceUtils;
+
+/**
+ * 同步客户端的异步执行支持（开启虚拟线程时每个请求一个虚拟线程）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class HttpAsyncSupport {
+
+	private static final BoundedExecutor executor = ThreadExecutorFactory.create("httpAsync",
+			ResourceUtils.getInt("mendmix-cloud.httpclient.async.maxThreads", 50),
+			ResourceUtils.getInt("mendmix-cloud.httpclient.async.queueSize", 1000));
+
+	private HttpAsyncSupport() {}
+
+	static CompletableFuture<HttpResponseEntity> execute(HttpClientProvider provider, HttpRequestEntity requestEntity) {
+		CompletableFuture<HttpResponseEntity> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(provider.execute(requestEntity));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			requestEntity.unset();
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	static int getSubmittedTasksCount() {
+		return executor.getSubmittedTasksCount();
+	}
+}
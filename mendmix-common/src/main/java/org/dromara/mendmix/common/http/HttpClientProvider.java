@@ -15,7 +15,11 @@
  */
 package org.dromara.mendmix.common.http;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.dromara.mendmix.common.util.ResourceUtils;
 
@@ -44,7 +48,11 @@ public interface HttpClientProvider {
 	
 	int connectTimeout = ResourceUtils.getInt("mendmix-cloud.httpclient.connectTimeout", 2000);
 	int readTimeout = ResourceUtils.getInt("mendmix-cloud.httpclient.readTimeout", 10000);
+	//单个目标主机最大连接数
 	int maxConnections = ResourceUtils.getInt("mendmix-cloud.httpclient.maxConnections", 10);
+	int maxTotalConnections = ResourceUtils.getInt("mendmix-cloud.httpclient.maxTotalConnections", 200);
+	//空闲连接保持时间
+	long keepAliveMillis = ResourceUtils.getLong("mendmix-cloud.httpclient.keepAliveMillis", 60000L);
 	
 	String sslCipherSuites = ResourceUtils.getProperty("mendmix-cloud.httpclient.ssl.cipherSuites", "TLS");
 	
@@ -52,4 +60,38 @@ public interface HttpClientProvider {
 
 
 	HttpResponseEntity execute(HttpRequestEntity requestEntity) throws IOException;
+	
+	/**
+	 * 流式处理响应体，默认实现基于{@link #execute(HttpRequestEntity)}（内置实现均不经过字符串）
+	 * @param requestEntity
+	 * @param handler
+	 * @return
+	 * @throws IOException
+	 */
+	default <T> T execute(HttpRequestEntity requestEntity, ResponseBodyHandler<T> handler) throws IOException {
+		HttpResponseEntity responseEntity = execute(requestEntity);
+		String body = responseEntity.getBody();
+		HttpResponseEntity streamResponse = new HttpResponseEntity(responseEntity.getStatusCode(), null);
+		if(responseEntity.getHeaders() != null) {
+			responseEntity.getHeaders().forEach(streamResponse::addHeader);
+		}
+		return handler.handle(streamResponse, body == null ? null : new ByteArrayInputStream(body.getBytes(requestEntity.getCharset())));
+	}
+	
+	/**
+	 * 异步执行，默认提交到共享异步执行器
+	 * @param requestEntity
+	 * @return 异常（含IOException）通过future返回
+	 */
+	default CompletableFuture<HttpResponseEntity> executeAsync(HttpRequestEntity requestEntity) {
+		return HttpAsyncSupport.execute(this, requestEntity);
+	}
+	
+	/**
+	 * 连接池状态
+	 * @return 在异步执行线程池中执行的请求包含asyncTasks（已提交未完成数）
+	 */
+	default Map<String, Object> poolStats() {
+		return Collections.singletonMap("asyncTasks", HttpAsyncSupport.getSubmittedTasksCount());
+	}
 }
@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
@@ -441,6 +442,14 @@ public class HttpRequestEntity {
 	public HttpResponseEntity execute() {
 		return HttpUtils.execute(this);
 	}
+	
+	public CompletableFuture<HttpResponseEntity> executeAsync() {
+		return HttpUtils.executeAsync(this);
+	}
+	
+	public <T> T execute(ResponseBodyHandler<T> handler) {
+		return HttpUtils.execute(this, handler);
+	}
 
 	public void unset() {
 		if (!isMultipart())
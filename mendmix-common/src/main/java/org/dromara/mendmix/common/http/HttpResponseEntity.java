@@ -15,12 +15,16 @@
  */
 package org.dromara.mendmix.common.http;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.GlobalConstants;
@@ -97,6 +101,16 @@ public class HttpResponseEntity {
 		return headers;
 	}
 	
+	public String getHeader(String name) {
+		if(headers == null)return null;
+		String value = headers.get(name);
+		if(value != null)return value;
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			if(entry.getKey().equalsIgnoreCase(name))return entry.getValue();
+		}
+		return null;
+	}
+	
 	public void addHeader(String name,String value) {
 		if(headers == null)headers = new HashMap<>();
 		headers.put(name, value);
@@ -210,6 +224,20 @@ public class HttpResponseEntity {
 		builder.append("\n---------------backend request trace end--------------------");
 	}
 	
+	/**
+	 * 流式响应状态检查，非2xx时读取错误内容并抛出异常
+	 */
+	static void ensureHttpOk(HttpResponseEntity response, InputStream body) throws IOException {
+		if(response.httpOk())return;
+		if(body != null) {
+			response.setBody(IOUtils.toString(body, StandardCharsets.UTF_8));
+		}
+		if(response.getMessage() == null) {
+			response.setMessage(StringUtils.defaultIfBlank(response.body, "http请求错误[" + response.statusCode + "]"));
+		}
+		throw response.buildException();
+	}
+	
 	public boolean httpOk() {
 		return statusCode == HttpURLConnection.HTTP_OK 
 				|| (statusCode >= 200 && statusCode <= 210);
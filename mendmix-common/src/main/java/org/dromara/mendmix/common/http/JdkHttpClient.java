@@ -23,6 +23,7 @@ import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -62,15 +63,68 @@ public class JdkHttpClient implements HttpClientProvider {
 	public HttpResponseEntity execute(HttpRequestEntity requestEntity) throws IOException {
 
 		HttpURLConnection connection = null;
-		OutputStream out = null;
-
+		boolean success = false;
+		try {
+			connection = sendRequest(requestEntity);
+			HttpResponseEntity responseEntity = getResponseAsResponseEntity(connection, requestEntity.getCharset());
+			success = true;
+			return responseEntity;
+		} finally {
+			//响应流已读完关闭，成功时保留底层连接供keep-alive复用
+			if (connection != null && !success) {
+				connection.disconnect();
+			}
+			requestEntity.unset();
+		}
+	}
+	
+	@Override
+	public <T> T execute(HttpRequestEntity requestEntity, ResponseBodyHandler<T> handler) throws IOException {
+		HttpURLConnection connection = null;
+		InputStream in = null;
+		boolean success = false;
+		try {
+			connection = sendRequest(requestEntity);
+			HttpResponseEntity responseEntity = new HttpResponseEntity();
+			responseEntity.setStatusCode(connection.getResponseCode());
+			for (Map.Entry<String, List<String>> entry : connection.getHeaderFields().entrySet()) {
+				if (entry.getKey() == null || entry.getValue().isEmpty())
+					continue;
+				responseEntity.addHeader(entry.getKey(), entry.getValue().get(0));
+			}
+			in = connection.getErrorStream();
+			if (in == null) {
+				in = connection.getInputStream();
+				if (CONTENT_ENCODING_GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+					in = new GZIPInputStream(in);
+				}
+			}
+			T result = handler.handle(responseEntity, in);
+			success = true;
+			return result;
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (Exception e2) {
+				}
+			}
+			if (connection != null && !success) {
+				connection.disconnect();
+			}
+			requestEntity.unset();
+		}
+	}
+	
+	private static HttpURLConnection sendRequest(HttpRequestEntity requestEntity) throws IOException {
 		String charset = requestEntity.getCharset();
 		String queryParam = buildQuery(requestEntity.getQueryParams(), charset);
 
 		URL url = buildQueryParamUrl(requestEntity.getUri(), queryParam);
 
+		HttpURLConnection connection = buildConnection(url, requestEntity);
+		OutputStream out = null;
 		try {
-			connection = buildConnection(url, requestEntity);
 			if (HttpMethod.POST == requestEntity.getMethod()) {
 				if (requestEntity.getBody() != null) {
 					byte[] data = requestEntity.getBody().getBytes();
@@ -127,7 +181,10 @@ public class JdkHttpClient implements HttpClientProvider {
 					}
 				}
 			}
-			return getResponseAsResponseEntity(connection, requestEntity.getCharset());
+			return connection;
+		} catch (IOException e) {
+			connection.disconnect();
+			throw e;
 		} finally {
 			if (out != null) {
 				try {
@@ -135,10 +192,6 @@ public class JdkHttpClient implements HttpClientProvider {
 				} catch (Exception e2) {
 				}
 			}
-			if (connection != null) {
-				connection.disconnect();
-			}
-			requestEntity.unset();
 		}
 	}
 
@@ -16,26 +16,34 @@
 package org.dromara.mendmix.common.http;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 
 import org.dromara.mendmix.common.http.HttpRequestEntity.FileItem;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.FormBody;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * 
@@ -56,7 +64,14 @@ public class OkHttp3Client implements HttpClientProvider{
 		mediaTypeMappings.put(CONTENT_TYPE_JSON_UTF8, MediaType.parse(CONTENT_TYPE_JSON_UTF8));
 		mediaTypeMappings.put(CONTENT_TYPE_FROM_URLENCODED_UTF8, MediaType.parse(CONTENT_TYPE_FROM_URLENCODED_UTF8));
 		//
-		httpClient = new OkHttpClient.Builder().connectionPool(new ConnectionPool(1, 60L, TimeUnit.SECONDS))
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(maxTotalConnections);
+		dispatcher.setMaxRequestsPerHost(maxConnections);
+		//https下通过ALPN协商HTTP/2，同一主机请求复用连接
+		httpClient = new OkHttpClient.Builder()
+				.connectionPool(new ConnectionPool(maxTotalConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+				.dispatcher(dispatcher)
+				.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
 				.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS).readTimeout(readTimeout, TimeUnit.MILLISECONDS)
 				.writeTimeout(readTimeout, TimeUnit.MILLISECONDS).build();
 	}
@@ -65,85 +80,156 @@ public class OkHttp3Client implements HttpClientProvider{
 	public HttpResponseEntity execute(HttpRequestEntity requestEntity) throws IOException {
 		
 		try {
-			HttpUrl.Builder urlBuilder = HttpUrl.parse(requestEntity.getUri()).newBuilder();
-			if (requestEntity.getQueryParams() != null) {
-				for (String key : requestEntity.getQueryParams().keySet()) {
-					urlBuilder.addQueryParameter(key, requestEntity.getQueryParams().get(key).toString());
+			Request request = buildRequest(requestEntity);
+			try(Response response = httpClient.newCall(request).execute()){
+				return toResponseEntity(response);
+			}
+		} finally {
+			requestEntity.unset();
+		}
+	}
+	
+	@Override
+	public <T> T execute(HttpRequestEntity requestEntity, ResponseBodyHandler<T> handler) throws IOException {
+		try {
+			Request request = buildRequest(requestEntity);
+			try(Response response = httpClient.newCall(request).execute()){
+				HttpResponseEntity responseEntity = new HttpResponseEntity();
+				responseEntity.setStatusCode(response.code());
+				Headers headers = response.headers();
+				for (int i = 0; i < headers.size(); i++) {
+					responseEntity.addHeader(headers.name(i), headers.value(i));
 				}
+				ResponseBody body = response.body();
+				return handler.handle(responseEntity, body == null ? null : body.byteStream());
 			}
-			
-			okhttp3.Headers.Builder headerBuilder = new Headers.Builder();
-			if (requestEntity.getHeaders() != null) {
-				for (String key : requestEntity.getHeaders().keySet()) {
-					headerBuilder.add(key, requestEntity.getHeaders().get(key).toString());
+		} finally {
+			requestEntity.unset();
+		}
+	}
+	
+	@Override
+	public CompletableFuture<HttpResponseEntity> executeAsync(HttpRequestEntity requestEntity) {
+		CompletableFuture<HttpResponseEntity> future = new CompletableFuture<>();
+		Request request;
+		try {
+			request = buildRequest(requestEntity);
+		} catch (Exception e) {
+			requestEntity.unset();
+			future.completeExceptionally(e);
+			return future;
+		}
+		//由okhttp调度线程执行，不占用业务线程
+		httpClient.newCall(request).enqueue(new Callback() {
+			@Override
+			public void onResponse(Call call, Response response) {
+				try(Response r = response) {
+					future.complete(toResponseEntity(r));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				} finally {
+					requestEntity.unset();
 				}
 			}
 			
-			if(requestEntity.getBasicAuth() != null) {
-				headerBuilder.add("Authorization", requestEntity.getBasicAuth().getEncodeBasicAuth());
+			@Override
+			public void onFailure(Call call, IOException e) {
+				requestEntity.unset();
+				future.completeExceptionally(e);
 			}
-			
-			okhttp3.Request.Builder requestBuilder = new Request.Builder().headers(headerBuilder.build())
-					.url(urlBuilder.build());
-			
-			if(HttpMethod.POST == requestEntity.getMethod()) {
-				RequestBody body = null;
-				if(requestEntity.getBody() != null) {
-					body = FormBody.create(contentType2MediaType(requestEntity.getContentType()), requestEntity.getBody());
-				} else if(requestEntity.getFormParams() != null) {
-					Set<Entry<String, Object>> formEntries = requestEntity.getFormParams().entrySet();
-					Object entryValue;
-					if(requestEntity.isMultipart()) {
-						MultipartBody.Builder builder = new MultipartBody.Builder();
-						for (Entry<String, Object> entry : formEntries) {
-							entryValue = entry.getValue();
-							if(entryValue == null)continue;
-							if(entryValue instanceof FileItem) {
-								FileItem fileItem = (FileItem)entryValue;
-								
-								MediaType contentType = null;
-								if(fileItem.getMimeType() != null) {
-									contentType = MediaType.parse(fileItem.getMimeType());
-								}
-								RequestBody requestBody;
-								requestBody = RequestBody.create(contentType, fileItem.getContent());
-								builder.addFormDataPart(entry.getKey(), fileItem.getFileName(), requestBody);
-							}else {
-								builder.addFormDataPart(entry.getKey(), entryValue.toString());
+		});
+		return future;
+	}
+	
+	@Override
+	public Map<String, Object> poolStats() {
+		ConnectionPool pool = httpClient.connectionPool();
+		Dispatcher dispatcher = httpClient.dispatcher();
+		Map<String, Object> result = new LinkedHashMap<>(6);
+		result.put("connections", pool.connectionCount());
+		result.put("idle", pool.idleConnectionCount());
+		result.put("runningCalls", dispatcher.runningCallsCount());
+		result.put("queuedCalls", dispatcher.queuedCallsCount());
+		return result;
+	}
+	
+	private static Request buildRequest(HttpRequestEntity requestEntity) throws IOException {
+		HttpUrl.Builder urlBuilder = HttpUrl.parse(requestEntity.getUri()).newBuilder();
+		if (requestEntity.getQueryParams() != null) {
+			for (String key : requestEntity.getQueryParams().keySet()) {
+				urlBuilder.addQueryParameter(key, requestEntity.getQueryParams().get(key).toString());
+			}
+		}
+		
+		okhttp3.Headers.Builder headerBuilder = new Headers.Builder();
+		if (requestEntity.getHeaders() != null) {
+			for (String key : requestEntity.getHeaders().keySet()) {
+				headerBuilder.add(key, requestEntity.getHeaders().get(key).toString());
+			}
+		}
+		
+		if(requestEntity.getBasicAuth() != null) {
+			headerBuilder.add("Authorization", requestEntity.getBasicAuth().getEncodeBasicAuth());
+		}
+		
+		okhttp3.Request.Builder requestBuilder = new Request.Builder().headers(headerBuilder.build())
+				.url(urlBuilder.build());
+		
+		if(HttpMethod.POST == requestEntity.getMethod()) {
+			RequestBody body = null;
+			if(requestEntity.getBody() != null) {
+				body = FormBody.create(contentType2MediaType(requestEntity.getContentType()), requestEntity.getBody());
+			} else if(requestEntity.getFormParams() != null) {
+				Set<Entry<String, Object>> formEntries = requestEntity.getFormParams().entrySet();
+				Object entryValue;
+				if(requestEntity.isMultipart()) {
+					MultipartBody.Builder builder = new MultipartBody.Builder();
+					for (Entry<String, Object> entry : formEntries) {
+						entryValue = entry.getValue();
+						if(entryValue == null)continue;
+						if(entryValue instanceof FileItem) {
+							FileItem fileItem = (FileItem)entryValue;
+							
+							MediaType contentType = null;
+							if(fileItem.getMimeType() != null) {
+								contentType = MediaType.parse(fileItem.getMimeType());
 							}
+							RequestBody requestBody;
+							requestBody = RequestBody.create(contentType, fileItem.getContent());
+							builder.addFormDataPart(entry.getKey(), fileItem.getFileName(), requestBody);
+						}else {
+							builder.addFormDataPart(entry.getKey(), entryValue.toString());
 						}
-						body = builder.build();
-					}else {
-						FormBody.Builder builder = new FormBody.Builder();
-						for (Entry<String, Object> entry : formEntries) {
-							if(entry.getValue() == null)continue;
-							builder.add(entry.getKey(), entry.getValue().toString());
-						}
-						body = builder.build();
 					}
-				}
-				
-				if(body != null) {
-					requestBuilder.post(body);
+					body = builder.build();
+				}else {
+					FormBody.Builder builder = new FormBody.Builder();
+					for (Entry<String, Object> entry : formEntries) {
+						if(entry.getValue() == null)continue;
+						builder.add(entry.getKey(), entry.getValue().toString());
+					}
+					body = builder.build();
 				}
 			}
 			
-			HttpResponseEntity responseEntity = new HttpResponseEntity();
-			
-			Request request = requestBuilder.build();
-			Response response = httpClient.newCall(request).execute();
-			responseEntity.setStatusCode(response.code());
-			if (response.body() != null) {
-				responseEntity.setBody(response.body().string());
-			}
-			if (!response.isSuccessful()) {
-				responseEntity.setMessage(StringUtils.defaultIfBlank(response.message(), responseEntity.getBody()));
+			if(body != null) {
+				requestBuilder.post(body);
 			}
-			
-			return responseEntity;
-		} finally {
-			requestEntity.unset();
 		}
+		
+		return requestBuilder.build();
+	}
+	
+	private static HttpResponseEntity toResponseEntity(Response response) throws IOException {
+		HttpResponseEntity responseEntity = new HttpResponseEntity();
+		responseEntity.setStatusCode(response.code());
+		if (response.body() != null) {
+			responseEntity.setBody(response.body().string());
+		}
+		if (!response.isSuccessful()) {
+			responseEntity.setMessage(StringUtils.defaultIfBlank(response.message(), responseEntity.getBody()));
+		}
+		return responseEntity;
 	}
 	
 	private static MediaType contentType2MediaType(String contentType) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.commons.io.IOUtils;
+import org.dromara.mendmix.common.util.JsonUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * 流式响应处理
+ * <br>
+ * 响应体不转换为字符串，直接以流交给处理器（仅在回调内有效，回调返回后连接即释放/归还连接池）
+ * <br>
+ * 内置处理器非2xx状态时读取错误内容并抛出MendmixBaseException
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+@FunctionalInterface
+public interface ResponseBodyHandler<T> {
+
+	/**
+	 * @param response 状态码、响应头（body为空）
+	 * @param body 响应体，无响应体时为null
+	 * @return
+	 * @throws IOException
+	 */
+	T handle(HttpResponseEntity response, InputStream body) throws IOException;
+	
+	@FunctionalInterface
+	interface ChannelHandler<T> {
+		T handle(ReadableByteChannel channel) throws IOException;
+	}
+	
+	/**
+	 * 写入文件（先写同目录下的唯一临时文件，完成后替换目标文件，并发下载同一文件互不覆盖临时文件）
+	 * @param file
+	 * @return
+	 */
+	static ResponseBodyHandler<File> ofFile(File file) {
+		return (response, body) -> {
+			HttpResponseEntity.ensureHttpOk(response, body);
+			File parent = file.getAbsoluteFile().getParentFile();
+			if(parent != null && !parent.exists()) {
+				parent.mkdirs();
+			}
+			File tmpFile = File.createTempFile("." + file.getName() + ".", ".tmp", parent);
+			try {
+				if(body != null) {
+					Files.copy(body, tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(tmpFile.toPath());
+			}
+			return file;
+		};
+	}
+	
+	/**
+	 * 写入输出流（不关闭输出流）
+	 * @param output
+	 * @return 写入字节数
+	 */
+	static ResponseBodyHandler<Long> ofOutputStream(OutputStream output) {
+		return (response, body) -> {
+			HttpResponseEntity.ensureHttpOk(response, body);
+			return body == null ? 0L : IOUtils.copyLarge(body, output);
+		};
+	}
+	
+	static <T> ResponseBodyHandler<T> ofChannel(ChannelHandler<T> handler) {
+		return (response, body) -> {
+			HttpResponseEntity.ensureHttpOk(response, body);
+			return handler.handle(body == null ? null : Channels.newChannel(body));
+		};
+	}
+	
+	/**
+	 * 从流直接反序列化（不经过中间字符串，不解析业务code包装）
+	 * @param clazz
+	 * @return
+	 */
+	static <T> ResponseBodyHandler<T> ofJson(Class<T> clazz) {
+		return (response, body) -> {
+			HttpResponseEntity.ensureHttpOk(response, body);
+			return body == null ? null : JsonUtils.getMapper().readValue(body, clazz);
+		};
+	}
+	
+	static <T> ResponseBodyHandler<T> ofJson(TypeReference<T> valueTypeRef) {
+		return (response, body) -> {
+			HttpResponseEntity.ensureHttpOk(response, body);
+			return body == null ? null : JsonUtils.getMapper().readValue(body, valueTypeRef);
+		};
+	}
+}
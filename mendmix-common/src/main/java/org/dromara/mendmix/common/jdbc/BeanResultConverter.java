@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.dromara.mendmix.common.util.BeanUtils;
+import org.dromara.mendmix.common.util.StringConverter;
+
+/**
+ * 行转Bean（列与属性写入器的对应关系在查询开始时解析一次，不经过中间Map）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+class BeanResultConverter<T> implements ResultConverter<T> {
+
+	private final Class<T> clazz;
+	private final int[] columnIndexes;
+	private final BiConsumer<Object, Object>[] writers;
+
+	BeanResultConverter(Class<T> clazz) {
+		this(clazz, null, null);
+	}
+
+	private BeanResultConverter(Class<T> clazz, int[] columnIndexes, BiConsumer<Object, Object>[] writers) {
+		this.clazz = clazz;
+		this.columnIndexes = columnIndexes;
+		this.writers = writers;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ResultConverter<T> prepare(ResultSetMetaData metaData) throws SQLException {
+		int columnCount = metaData.getColumnCount();
+		List<Integer> indexes = new ArrayList<>(columnCount);
+		List<BiConsumer<Object, Object>> writerList = new ArrayList<>(columnCount);
+		BiConsumer<Object, Object> writer;
+		for (int i = 1; i <= columnCount; i++) {
+			writer = BeanUtils.getPropertyWriter(clazz, StringConverter.toCamelCase(metaData.getColumnLabel(i)));
+			if(writer == null)continue;
+			indexes.add(i);
+			writerList.add(writer);
+		}
+		int[] columnIndexes = new int[indexes.size()];
+		for (int i = 0; i < columnIndexes.length; i++) {
+			columnIndexes[i] = indexes.get(i);
+		}
+		return new BeanResultConverter<>(clazz, columnIndexes, writerList.toArray(new BiConsumer[0]));
+	}
+
+	@Override
+	public T convert(ResultSet rs) {
+		if(columnIndexes == null) {
+			throw new IllegalStateException("converter not prepared");
+		}
+		T bean = BeanUtils.newInstance(clazz);
+		try {
+			for (int i = 0; i < columnIndexes.length; i++) {
+				writers[i].accept(bean, MapResultConverter.getColumnValue(rs, columnIndexes[i]));
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+		return bean;
+	}
+}
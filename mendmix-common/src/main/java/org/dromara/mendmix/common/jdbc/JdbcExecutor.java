@@ -18,21 +18,21 @@ package org.dromara.mendmix.common.jdbc;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
-import org.dromara.mendmix.common.util.BeanUtils;
-import org.dromara.mendmix.common.util.StringConverter;
+import org.dromara.mendmix.common.util.ResourceUtils;
 
 public class JdbcExecutor {
 
@@ -49,6 +49,8 @@ public class JdbcExecutor {
 //		try {Class.forName(driverClass);} catch (ClassNotFoundException e) {}
 //	}
 	
+	private static int defaultBatchSize = ResourceUtils.getInt("mendmix-cloud.jdbc.batchSize", 500);
+	
 	private static JdbcExecutor defaultExecutor;
 	
 	private DataSource dataSource;
@@ -103,11 +105,7 @@ public class JdbcExecutor {
 		try {
 			con = getconnnection();
 			ps = con.prepareStatement(sql);
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					ps.setObject((i + 1), args[i]);
-				}
-			}
+			setParameters(ps, args);
 			result = ps.executeUpdate();
 		} catch (SQLException e) {
 			throw new RuntimeException(e);
@@ -142,8 +140,8 @@ public class JdbcExecutor {
 	 * @return <T>
 	 */
 	public <T> T queryForObject(String sql, Object[] args,Class<T> clazz) {
-		T result = BeanUtils.mapToBean(queryForMap(sql, args), clazz);
-		return result;
+		List<T> list = queryForList(sql, args, clazz);
+		return list.isEmpty() ? null : list.get(0);
 	}
 
 	/**
@@ -154,34 +152,22 @@ public class JdbcExecutor {
 	 * @return List<Map<String,Object>>
 	 */
 	public List<Map<String, Object>> queryForList(String sql, Object[] args,boolean toCamelCase) {
-		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+		return queryForList(sql, args, ResultConverter.ofMap(toCamelCase));
+	}
+	
+	public <T> List<T> queryForList(String sql, Object[] args,ResultConverter<T> converter) {
+		List<T> result = new ArrayList<T>();
 		Connection con = null;
 		ResultSet rs = null;
 		PreparedStatement ps = null;
 		try {
 			con = getconnnection();
 			ps = con.prepareStatement(sql);
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					ps.setObject((i + 1), args[i]);
-				}
-			}
+			setParameters(ps, args);
 			rs = ps.executeQuery();
-			ResultSetMetaData rsmd = rs.getMetaData();
-			int columnCount = rsmd.getColumnCount();
-			String key;
-			Object value;
+			ResultConverter<T> preparedConverter = converter.prepare(rs.getMetaData());
 			while (rs.next()) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				for (int i = 1; i <= columnCount; i++) {
-					value = rs.getObject(i);
-					if(value instanceof LocalDateTime) {
-						value = Date.from(((LocalDateTime)value).atZone( ZoneId.systemDefault()).toInstant());
-					}
-					key = toCamelCase ? StringConverter.toCamelCase(rsmd.getColumnLabel(i)) : rsmd.getColumnLabel(i);
-					map.put(key, value);
-				}
-				result.add(map);
+				result.add(preparedConverter.convert(rs));
 			}
 		} catch (SQLException e) {
 			throw new RuntimeException(e);
@@ -191,27 +177,97 @@ public class JdbcExecutor {
 		return result;
 	}
 	
-	public <T> List<T> queryForList(String sql, Object[] args,ResultConverter<T> converter) {
-		List<T> result = new ArrayList<T>();
+	/**
+	 * 游标方式逐行处理，不在内存中保留整个结果集
+	 * 
+	 * @param sql
+	 * @param args
+	 * @param fetchSize 每次从数据库获取行数（MySQL需开启useCursorFetch=true，或传入Integer.MIN_VALUE使用流式结果集）
+	 * @param converter
+	 * @param action
+	 */
+	public <T> void forEach(String sql, Object[] args, int fetchSize, ResultConverter<T> converter, Consumer<? super T> action) {
+		try(Stream<T> stream = stream(sql, args, fetchSize, converter)) {
+			stream.forEach(action);
+		}
+	}
+	
+	/**
+	 * 游标方式查询，使用完必须关闭（try-with-resources）以释放连接
+	 * 
+	 * @param sql
+	 * @param args
+	 * @param fetchSize 见{@link #forEach(String, Object[], int, ResultConverter, Consumer)}
+	 * @param converter
+	 * @return Stream<T>
+	 */
+	public <T> Stream<T> stream(String sql, Object[] args, int fetchSize, ResultConverter<T> converter) {
+		Cursor<T> cursor = new Cursor<>();
+		try {
+			cursor.con = getconnnection();
+			//PostgreSQL等仅在事务内按fetchSize分批获取
+			if(fetchSize > 0 && cursor.con.getAutoCommit()) {
+				cursor.con.setAutoCommit(false);
+				cursor.restoreAutoCommit = true;
+			}
+			cursor.ps = cursor.con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			if(fetchSize != 0) {
+				cursor.ps.setFetchSize(fetchSize);
+			}
+			setParameters(cursor.ps, args);
+			cursor.rs = cursor.ps.executeQuery();
+			cursor.converter = converter.prepare(cursor.rs.getMetaData());
+		} catch (SQLException e) {
+			cursor.close();
+			throw new RuntimeException(e);
+		}
+		return StreamSupport.stream(cursor, false).onClose(cursor::close);
+	}
+	
+	/**
+	 * 批量更新（JDBC batch），按默认批次大小提交执行
+	 * 
+	 * @param sql
+	 * @param batchArgs
+	 * @return 影响行数（驱动无法返回行数的按1计）
+	 */
+	public int batchUpdate(String sql, List<Object[]> batchArgs) {
+		return batchUpdate(sql, batchArgs, defaultBatchSize);
+	}
+	
+	/**
+	 * 批量更新（JDBC batch），事务由调用方连接状态决定
+	 * 
+	 * @param sql
+	 * @param batchArgs
+	 * @param batchSize 每批执行行数
+	 * @return 影响行数（驱动无法返回行数的按1计）
+	 */
+	public int batchUpdate(String sql, List<Object[]> batchArgs, int batchSize) {
+		if(batchArgs == null || batchArgs.isEmpty())return 0;
+		if(batchSize <= 0)batchSize = defaultBatchSize;
+		int result = 0;
 		Connection con = null;
-		ResultSet rs = null;
 		PreparedStatement ps = null;
 		try {
 			con = getconnnection();
 			ps = con.prepareStatement(sql);
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					ps.setObject((i + 1), args[i]);
+			int pending = 0;
+			for (Object[] args : batchArgs) {
+				setParameters(ps, args);
+				ps.addBatch();
+				if (++pending >= batchSize) {
+					result += sumUpdateCounts(ps.executeBatch());
+					pending = 0;
 				}
 			}
-			rs = ps.executeQuery();
-			while (rs.next()) {
-				result.add(converter.convert(rs));
+			if (pending > 0) {
+				result += sumUpdateCounts(ps.executeBatch());
 			}
 		} catch (SQLException e) {
 			throw new RuntimeException(e);
 		} finally {
-			close(rs, ps, con);
+			close(null, ps, con);
 		}
 		return result;
 	}
@@ -224,12 +280,7 @@ public class JdbcExecutor {
 	 * @return List<T>
 	 */
 	public <T> List<T> queryForList(String sql, Object[] args, Class<T> clazz) {
-		List<Map<String, Object>> mapList = queryForList(sql, args , true);
-		List<T> result = new ArrayList<>(mapList.size());
-        for (Map<String, Object> map : mapList) {
-        	result.add(BeanUtils.mapToBean(map, clazz));
-		}
-		return result;
+		return queryForList(sql, args, ResultConverter.ofBean(clazz));
 	}
 	
 	public long queryForCount(String sql, Object[] args) {
@@ -239,11 +290,7 @@ public class JdbcExecutor {
 		try {
 			con = getconnnection();
 			ps = con.prepareStatement(sql);
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					ps.setObject((i + 1), args[i]);
-				}
-			}
+			setParameters(ps, args);
 			rs = ps.executeQuery();
 			if (rs.next()) {
 				return rs.getLong(1);
@@ -263,11 +310,7 @@ public class JdbcExecutor {
 		try {
 			con = getconnnection();
 			ps = con.prepareStatement(sql);
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					ps.setObject((i + 1), args[i]);
-				}
-			}
+			setParameters(ps, args);
 			rs = ps.executeQuery();
 			if (rs.next()) {
 				return rs.getString(1);
@@ -286,5 +329,66 @@ public class JdbcExecutor {
 		try {if (con != null)con.close();} catch (Exception e) {}
 	}
 	
+	private static void setParameters(PreparedStatement ps, Object[] args) throws SQLException {
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				ps.setObject((i + 1), args[i]);
+			}
+		}
+	}
+	
+	private static int sumUpdateCounts(int[] counts) {
+		int total = 0;
+		for (int count : counts) {
+			if(count > 0) {
+				total += count;
+			}else if(count == Statement.SUCCESS_NO_INFO) {
+				total++;
+			}
+		}
+		return total;
+	}
+	
+	private class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+		Connection con;
+		PreparedStatement ps;
+		ResultSet rs;
+		ResultConverter<T> converter;
+		boolean restoreAutoCommit;
+		boolean closed;
+
+		Cursor() {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if(closed)return false;
+			try {
+				if (!rs.next()) {
+					close();
+					return false;
+				}
+				action.accept(converter.convert(rs));
+				return true;
+			} catch (SQLException e) {
+				close();
+				throw new RuntimeException(e);
+			}
+		}
+
+		void close() {
+			if(closed)return;
+			closed = true;
+			if(restoreAutoCommit) {
+				try {
+					con.commit();
+					con.setAutoCommit(true);
+				} catch (Exception e) {}
+			}
+			JdbcExecutor.this.close(rs, ps, con);
+		}
+	}
+	
 	
 }
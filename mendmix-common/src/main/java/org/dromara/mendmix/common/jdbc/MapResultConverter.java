@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dromara.mendmix.common.util.StringConverter;
+
+/**
+ * 行转Map（列名在查询开始时解析一次）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+class MapResultConverter implements ResultConverter<Map<String, Object>> {
+
+	private final boolean toCamelCase;
+	private final String[] columnKeys;
+
+	MapResultConverter(boolean toCamelCase) {
+		this(toCamelCase, null);
+	}
+
+	private MapResultConverter(boolean toCamelCase, String[] columnKeys) {
+		this.toCamelCase = toCamelCase;
+		this.columnKeys = columnKeys;
+	}
+
+	@Override
+	public ResultConverter<Map<String, Object>> prepare(ResultSetMetaData metaData) throws SQLException {
+		String[] keys = new String[metaData.getColumnCount()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = toCamelCase ? StringConverter.toCamelCase(metaData.getColumnLabel(i + 1)) : metaData.getColumnLabel(i + 1);
+		}
+		return new MapResultConverter(toCamelCase, keys);
+	}
+
+	@Override
+	public Map<String, Object> convert(ResultSet rs) {
+		if(columnKeys == null) {
+			throw new IllegalStateException("converter not prepared");
+		}
+		Map<String, Object> map = new HashMap<String, Object>(columnKeys.length * 4 / 3 + 1);
+		try {
+			for (int i = 0; i < columnKeys.length; i++) {
+				map.put(columnKeys[i], getColumnValue(rs, i + 1));
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+		return map;
+	}
+
+	static Object getColumnValue(ResultSet rs, int index) throws SQLException {
+		Object value = rs.getObject(index);
+		if(value instanceof LocalDateTime) {
+			value = Date.from(((LocalDateTime)value).atZone( ZoneId.systemDefault()).toInstant());
+		}
+		return value;
+	}
+}
@@ -16,8 +16,29 @@
 package org.dromara.mendmix.common.jdbc;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
 
 public interface ResultConverter<T> {
 
 	T convert(ResultSet rs);
+	
+	/**
+	 * 每次查询执行前调用一次，可按结果集元数据预先解析列（列名、下标、属性写入器等）
+	 * @param metaData
+	 * @return 本次查询使用的转换器（预解析状态放在返回的实例中，保证原实例可并发复用）
+	 * @throws SQLException
+	 */
+	default ResultConverter<T> prepare(ResultSetMetaData metaData) throws SQLException {
+		return this;
+	}
+	
+	static ResultConverter<Map<String, Object>> ofMap(boolean toCamelCase) {
+		return new MapResultConverter(toCamelCase);
+	}
+	
+	static <T> ResultConverter<T> ofBean(Class<T> clazz) {
+		return new BeanResultConverter<>(clazz);
+	}
 }
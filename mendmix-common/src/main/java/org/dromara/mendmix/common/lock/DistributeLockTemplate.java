@@ -38,7 +38,7 @@ public class DistributeLockTemplate {
 	 * @return
 	 */
 	public static <T> T execute(String lockId,LockCaller<T> caller,int timeout){
-		RedisDistributeLock dLock = new RedisDistributeLock(lockId,(int)timeout/1000);
+		RedisDistributeLock dLock = new RedisDistributeLock(lockId,timeout * 1000L);
 		
 		boolean getLock = false;
 		try {
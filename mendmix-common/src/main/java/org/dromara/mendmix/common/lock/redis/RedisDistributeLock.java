@@ -16,13 +16,18 @@
 package org.dromara.mendmix.common.lock.redis;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.dromara.mendmix.common.GlobalConstants;
 import org.dromara.mendmix.common.GlobalContext;
 import org.dromara.mendmix.common.MendmixBaseException;
-import org.dromara.mendmix.common.async.RetryAsyncTaskExecutor;
-import org.dromara.mendmix.common.async.RetryTask;
+import org.dromara.mendmix.common.lock.redis.RedisLockNotifier.WaitEntry;
+import org.dromara.mendmix.common.util.ResourceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -30,6 +35,13 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 
 /**
  * 基于redis的锁
+ * <br>
+ * 等待锁时订阅释放通知代替轮询
+ * <br>
+ * 看门狗默认关闭（mendmix-cloud.lock.redis.watchdogEnabled=true开启）：持有期间按存活时间1/3间隔续期直到解锁，
+ * 开启后必须在加锁线程中解锁，不能依赖存活时间自动释放
+ * <br>
+ * 同一线程可重入（本地计数，不访问redis），加解锁次数需匹配；延迟解锁不计次数，直接清除本地持有
  * 
  * @description <br>
  * @author <a href="mailto:vakinge@gmail.com">vakin</a>
@@ -51,16 +63,60 @@ public class RedisDistributeLock  {
 		RedisDistributeLock.redisTemplate = redisTemplate;
 	}
 
+	//已被当前线程持有（如延迟解锁未到期）时重新设置存活时间
 	private static String getLockLua = "local res = redis.call('setnx', KEYS[1],ARGV[1])\n" + 
-            "if tonumber(res) > 0 then\n" + 
+            "if tonumber(res) > 0 or redis.call('get', KEYS[1]) == ARGV[1] then\n" + 
             "	redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" + 
             "	return 1\n" + 
             "else \n" + 
             "	return 0\n" + 
             "end";
 	
+	//持有者匹配时删除并发布释放通知，返回1：成功，0：锁不存在，-1：持有者不匹配
+	private static String unlockLua = "local val = redis.call('get', KEYS[1])\n" + 
+			"if val == ARGV[1] then\n" + 
+			"	redis.call('del', KEYS[1])\n" + 
+			"	if ARGV[2] ~= '' then\n" + 
+			"		redis.call('publish', ARGV[2], KEYS[1])\n" + 
+			"	end\n" + 
+			"	return 1\n" + 
+			"elseif val then\n" + 
+			"	return -1\n" + 
+			"else \n" + 
+			"	return 0\n" + 
+			"end";
+
+	//持有者匹配时缩短存活时间，返回值同上
+	private static String delayUnlockLua = "local val = redis.call('get', KEYS[1])\n" + 
+			"if val == ARGV[1] then\n" + 
+			"	redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" + 
+			"	return 1\n" + 
+			"elseif val then\n" + 
+			"	return -1\n" + 
+			"else \n" + 
+			"	return 0\n" + 
+			"end";
+
+	private static String renewLua = "if redis.call('get', KEYS[1]) == ARGV[1] then\n" + 
+			"	return redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" + 
+			"else \n" + 
+			"	return 0\n" + 
+			"end";
+
 	DefaultRedisScript<Long> lockScript = new DefaultRedisScript<>(getLockLua, Long.class);
+	private static final DefaultRedisScript<Long> unlockScript = new DefaultRedisScript<>(unlockLua, Long.class);
+	private static final DefaultRedisScript<Long> delayUnlockScript = new DefaultRedisScript<>(delayUnlockLua, Long.class);
+	private static final DefaultRedisScript<Long> renewScript = new DefaultRedisScript<>(renewLua, Long.class);
 	private static final long _DEFAULT_MAX_WAIT = 60 * 1000;
+	//续期间隔过短时不启用看门狗
+	private static final long MIN_RENEW_INTERVAL = 100;
+
+	private static boolean watchdogEnabled = ResourceUtils.getBoolean("mendmix-cloud.lock.redis.watchdogEnabled", false);
+	private static volatile ScheduledExecutorService watchdog;
+
+	//当前线程持有的锁：lockName -> 持有信息
+	private static final ThreadLocal<Map<String, LockHold>> heldLocks = ThreadLocal.withInitial(HashMap::new);
+
 	private String lockName;
 	private long maxLiveMillis;
 
@@ -97,9 +153,28 @@ public class RedisDistributeLock  {
 	public boolean tryLock() {
 		if (getRedisTemplate() == null)
 			return true;
+		Map<String, LockHold> holds = heldLocks.get();
+		LockHold hold = holds.get(lockName);
+		if (hold != null) {
+			if (System.currentTimeMillis() < hold.expireAt) {
+				hold.count++;
+				return true;
+			}
+			// 已过期（未解锁或续期失败）
+			holds.remove(lockName);
+			hold.stopRenew();
+		}
 		String threadKey = buildThreadKey();
+		long lockTime = System.currentTimeMillis();
 		Long result = redisTemplate.execute(lockScript, Arrays.asList(lockName), threadKey, String.valueOf(maxLiveMillis));
-		return result != null && result == 1;
+		boolean locked = result != null && result == 1;
+		if (locked) {
+			hold = new LockHold();
+			hold.expireAt = lockTime + maxLiveMillis;
+			holds.put(lockName, hold);
+			startRenew(hold, threadKey);
+		}
+		return locked;
 	}
 
 	public boolean tryLock(long time, TimeUnit unit) {
@@ -108,6 +183,32 @@ public class RedisDistributeLock  {
 		if (res)
 			return res;
 
+		RedisLockNotifier notifier = RedisLockNotifier.get(redisTemplate);
+		if (notifier != null) {
+			long deadline = start + unit.toMillis(time);
+			WaitEntry entry = notifier.register(lockName);
+			try {
+				long version;
+				long remaining;
+				while (true) {
+					version = entry.version();
+					if (tryLock()) {
+						return true;
+					}
+					remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						return false;
+					}
+					entry.await(version, Math.min(remaining, RedisLockNotifier.getPollMillis()));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} finally {
+				notifier.unregister(lockName);
+			}
+		}
+
 		long sleep = 100;
 		while (!res) {
 			try {
@@ -138,6 +239,31 @@ public class RedisDistributeLock  {
 		if (isIdle())
 			return 0L;
 		long start = System.currentTimeMillis();
+		RedisLockNotifier notifier = RedisLockNotifier.get(redisTemplate);
+		if (notifier != null) {
+			long deadline = start + unit.toMillis(time);
+			WaitEntry entry = notifier.register(lockName);
+			try {
+				long version;
+				long remaining;
+				while (true) {
+					version = entry.version();
+					if (isIdle()) {
+						return System.currentTimeMillis() - start;
+					}
+					remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						return System.currentTimeMillis() - start;
+					}
+					entry.await(version, Math.min(remaining, RedisLockNotifier.getPollMillis()));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return System.currentTimeMillis() - start;
+			} finally {
+				notifier.unregister(lockName);
+			}
+		}
 		boolean idle = false;
 		long sleep = 100;
 		while (!idle) {
@@ -162,15 +288,21 @@ public class RedisDistributeLock  {
 	public void unlock() {
 		if (getRedisTemplate() == null)
 			return;
-		String val = redisTemplate.opsForValue().get(lockName);
+		if (!releaseHold())
+			return;
 		String threadKey = buildThreadKey();
-		if(threadKey.equals(val)) {			
-			redisTemplate.delete(lockName);
-		}else if(val != null){
-			logger.info(">>线程[{}] 解锁不匹配!! -> lockName:{},期望线程:{}",threadKey,lockName,val);
+		Long result = redisTemplate.execute(unlockScript, Arrays.asList(lockName), threadKey, RedisLockNotifier.channel(lockName));
+		if(result != null && result < 0){
+			logger.info(">>线程[{}] 解锁不匹配!! -> lockName:{}",threadKey,lockName);
 		}
 	}
 	
+	/**
+	 * 延迟解锁（缩短锁剩余存活时间为指定毫秒）
+	 * <br>
+	 * 到期后由本节点发布释放通知；本节点在此之前退出时，等待线程按轮询间隔（waitPollMillis）发现锁已过期
+	 * @param delayMills
+	 */
 	public void unlock(int delayMills) {
 		if (getRedisTemplate() == null) {
 			return;
@@ -179,31 +311,124 @@ public class RedisDistributeLock  {
 			unlock();
 			return;
 		}
-		String val = redisTemplate.opsForValue().get(lockName);
+		//延迟解锁即释放，清除本地持有，之后加锁需经redis判断
+		LockHold hold = heldLocks.get().remove(lockName);
+		if (hold != null) {
+			hold.stopRenew();
+		}
 		String threadKey = buildThreadKey();
-		RetryAsyncTaskExecutor.execute(new RetryTask() {
-			@Override
-			public String traceId() {
-				return lockName;
+		Long result = redisTemplate.execute(delayUnlockScript, Arrays.asList(lockName), threadKey, String.valueOf(delayMills));
+		if(result != null && result < 0){
+			logger.info(">>线程[{}] 解锁不匹配!! -> lockName:{}",threadKey,lockName);
+		} else if(result != null && result > 0) {
+			publishOnExpire(delayMills);
+		}
+	}
+
+	/**
+	 * 锁过期后发布释放通知（PEXPIRE过期不会触发解锁脚本内的通知）
+	 */
+	private void publishOnExpire(long delayMills) {
+		final String channel = RedisLockNotifier.channel(lockName);
+		if (channel.isEmpty()) {
+			return;
+		}
+		final String lockName = this.lockName;
+		getWatchdog().schedule(() -> {
+			try {
+				redisTemplate.convertAndSend(channel, lockName);
+			} catch (Exception e) {
+				logger.debug("MENDMIX-TRACE-LOGGGING-->> publish lock[{}] released error:{}", lockName, e.getMessage());
 			}
-			@Override
-			public boolean process() throws Exception {
-				Thread.sleep(delayMills);
-				if(threadKey.equals(val)) {			
-					redisTemplate.delete(lockName);
-				}else if(val != null){
-					logger.info(">>线程[{}] 解锁不匹配!! -> lockName:{},期望线程:{}",threadKey,lockName,val);
+		}, delayMills, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 释放一次本地持有
+	 * @return 是否需要释放redis锁
+	 */
+	private boolean releaseHold() {
+		Map<String, LockHold> holds = heldLocks.get();
+		LockHold hold = holds.get(lockName);
+		if (hold == null) {
+			return true;
+		}
+		if (--hold.count > 0) {
+			return false;
+		}
+		holds.remove(lockName);
+		hold.stopRenew();
+		return true;
+	}
+	
+	private void startRenew(LockHold hold, String threadKey) {
+		long interval = maxLiveMillis / 3;
+		if (!watchdogEnabled || interval < MIN_RENEW_INTERVAL) {
+			return;
+		}
+		final String lockName = this.lockName;
+		final long maxLiveMillis = this.maxLiveMillis;
+		hold.renewTask = getWatchdog().scheduleWithFixedDelay(() -> {
+			try {
+				long renewTime = System.currentTimeMillis();
+				Long result = redisTemplate.execute(renewScript, Arrays.asList(lockName), threadKey, String.valueOf(maxLiveMillis));
+				// 锁已释放或被他人持有
+				if (result == null || result == 0) {
+					hold.expireAt = 0;
+					hold.stopRenew();
+				} else {
+					hold.expireAt = renewTime + maxLiveMillis;
 				}
-				return true;
+			} catch (Exception e) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> renew lock[{}] error:{}", lockName, e.getMessage());
 			}
-		});
+		}, interval, interval, TimeUnit.MILLISECONDS);
 	}
-	
+
+	private static ScheduledExecutorService getWatchdog() {
+		if (watchdog != null) {
+			return watchdog;
+		}
+		synchronized (RedisDistributeLock.class) {
+			if (watchdog == null) {
+				ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+					Thread thread = new Thread(r, "redisLockWatchdog");
+					thread.setDaemon(true);
+					return thread;
+				});
+				executor.setRemoveOnCancelPolicy(true);
+				watchdog = executor;
+			}
+		}
+		return watchdog;
+	}
+
+	/**
+	 * 持有者标识：workerId@线程名
+	 * <br>
+	 * 早期版本未写入workerId（@线程名），滚动发布期间新旧节点的持有者标识格式不同；
+	 * 各节点只释放自身加锁写入的标识，互斥不受影响，新旧节点之间不能互相解锁
+	 */
 	private String buildThreadKey() {
-		return new StringBuilder(GlobalContext.getWorkerId())
+		return new StringBuilder().append(GlobalContext.getWorkerId())
 				.append(GlobalConstants.AT)
 				.append(Thread.currentThread().getName())
 				.toString();
 	}
 
+	private static class LockHold {
+		int count = 1;
+		//本地判断的锁过期时间，重入时不访问redis
+		volatile long expireAt;
+		volatile ScheduledFuture<?> renewTask;
+
+		void stopRenew() {
+			ScheduledFuture<?> task = renewTask;
+			if (task != null) {
+				renewTask = null;
+				task.cancel(false);
+			}
+		}
+	}
+
 }
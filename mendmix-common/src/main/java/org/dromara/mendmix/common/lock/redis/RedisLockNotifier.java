@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.lock.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dromara.mendmix.common.util.ResourceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 锁释放通知
+ * <br>
+ * 解锁时（解锁脚本内）按锁发布消息，等待线程在本地按锁名挂起；每个JVM共用一个订阅连接，只订阅本地有等待线程的锁频道（随等待线程增减订阅/退订），
+ * 订阅生效前或消息丢失时按轮询间隔兜底重试
+ *
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class RedisLockNotifier implements MessageListener {
+
+	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common");
+
+	private static final String CHANNEL_PREFIX = "_dlock_released:";
+
+	private static boolean enabled = ResourceUtils.getBoolean("mendmix-cloud.lock.redis.notifyEnabled", true);
+	//未收到通知时兜底重试间隔
+	private static long pollMillis = ResourceUtils.getLong("mendmix-cloud.lock.redis.waitPollMillis", 1000L);
+
+	private static volatile RedisLockNotifier instance;
+	private static volatile boolean initFailed;
+
+	private final Map<String, WaitEntry> entries = new ConcurrentHashMap<>();
+	private RedisMessageListenerContainer container;
+
+	/**
+	 * @param redisTemplate
+	 * @return 未开启或订阅失败返回null
+	 */
+	static RedisLockNotifier get(StringRedisTemplate redisTemplate) {
+		if (!enabled || initFailed) {
+			return null;
+		}
+		if (instance != null) {
+			return instance;
+		}
+		synchronized (RedisLockNotifier.class) {
+			if (instance != null || initFailed) {
+				return instance;
+			}
+			try {
+				RedisLockNotifier notifier = new RedisLockNotifier();
+				notifier.start(redisTemplate);
+				instance = notifier;
+			} catch (Exception e) {
+				initFailed = true;
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> redis lock notifier init error,fallback to polling:{}", e.getMessage());
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @param lockName
+	 * @return 释放通知频道，未开启返回空字符串
+	 */
+	static String channel(String lockName) {
+		return enabled ? CHANNEL_PREFIX.concat(lockName) : "";
+	}
+
+	static long getPollMillis() {
+		return pollMillis;
+	}
+
+	private void start(StringRedisTemplate redisTemplate) throws Exception {
+		SimpleAsyncTaskExecutor subscriptionExecutor = new SimpleAsyncTaskExecutor("redisLockNotifier-");
+		subscriptionExecutor.setDaemon(true);
+		container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(redisTemplate.getConnectionFactory());
+		container.setSubscriptionExecutor(subscriptionExecutor);
+		//仅唤醒等待线程，直接在订阅线程处理
+		container.setTaskExecutor(Runnable::run);
+		container.afterPropertiesSet();
+		container.start();
+	}
+
+	WaitEntry register(String lockName) {
+		synchronized (entries) {
+			WaitEntry entry = entries.get(lockName);
+			if (entry == null) {
+				entries.put(lockName, entry = new WaitEntry());
+				subscribe(lockName, true);
+			}
+			entry.refs++;
+			return entry;
+		}
+	}
+
+	void unregister(String lockName) {
+		synchronized (entries) {
+			WaitEntry entry = entries.get(lockName);
+			if (entry != null && --entry.refs == 0) {
+				entries.remove(lockName);
+				subscribe(lockName, false);
+			}
+		}
+	}
+
+	private void subscribe(String lockName, boolean subscribe) {
+		ChannelTopic topic = new ChannelTopic(channel(lockName));
+		try {
+			if (subscribe) {
+				container.addMessageListener(this, topic);
+			} else {
+				container.removeMessageListener(this, topic);
+			}
+		} catch (Exception e) {
+			//订阅失败时等待线程按轮询间隔重试
+			logger.debug("MENDMIX-TRACE-LOGGGING-->> {} lock[{}] release channel error:{}", subscribe ? "subscribe" : "unsubscribe", lockName, e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String lockName = new String(message.getChannel(), StandardCharsets.UTF_8).substring(CHANNEL_PREFIX.length());
+		WaitEntry entry = entries.get(lockName);
+		if (entry != null) {
+			entry.signal();
+		}
+	}
+
+	static final class WaitEntry {
+		//guarded by entries
+		int refs;
+		private long version;
+
+		synchronized long version() {
+			return version;
+		}
+
+		/**
+		 * 等待释放通知
+		 * @param expectedVersion 检查锁状态前获取的版本，期间已收到通知则不等待
+		 * @param maxWaitMillis
+		 */
+		synchronized void await(long expectedVersion, long maxWaitMillis) throws InterruptedException {
+			if (version == expectedVersion && maxWaitMillis > 0) {
+				wait(maxWaitMillis);
+			}
+		}
+
+		synchronized void signal() {
+			version++;
+			notifyAll();
+		}
+	}
+}
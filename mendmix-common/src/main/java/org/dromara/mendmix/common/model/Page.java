@@ -26,6 +26,10 @@ public class Page<T> extends PageParams{
     private int pages;
     //结果集
     private List<T> data;
+    //keyset分页：下一页的起始排序值
+    private List<Object> nextSeekValues;
+    //总数超过计数上限，total为近似值
+    private boolean approximateTotal;
      
 	public Page() {}
 	
@@ -40,6 +44,16 @@ public class Page<T> extends PageParams{
 	public Page(PageParams pageParams,long total, List<T> data) {
 		setPageNo(pageParams.getPageNo());
 		setPageSize(pageParams.getPageSize());
+		//keyset分页依赖排序字段及起始值
+		if(pageParams.keysetMode()) {
+			setOrderBys(pageParams.getOrderBys());
+			setSeekValues(pageParams.getSeekValues());
+			setIgnoreCount(pageParams.isIgnoreCount());
+		}
+		if(pageParams instanceof Page) {
+			this.nextSeekValues = ((Page<?>) pageParams).nextSeekValues;
+			this.approximateTotal = ((Page<?>) pageParams).approximateTotal;
+		}
 		this.total = total;
 		this.data = data;
 		this.pages = (int) ((this.total / this.getPageSize()) + (this.total % this.getPageSize() == 0 ? 0 : 1));
@@ -73,6 +87,18 @@ public class Page<T> extends PageParams{
 	public void setData(List<T> data) {
 		this.data = data;
 	}
+	public List<Object> getNextSeekValues() {
+		return nextSeekValues;
+	}
+	public void setNextSeekValues(List<Object> nextSeekValues) {
+		this.nextSeekValues = nextSeekValues;
+	}
+	public boolean isApproximateTotal() {
+		return approximateTotal;
+	}
+	public void setApproximateTotal(boolean approximateTotal) {
+		this.approximateTotal = approximateTotal;
+	}
     
     
 }
@@ -16,6 +16,7 @@
 package org.dromara.mendmix.common.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class PageParams {
@@ -29,6 +30,11 @@ public class PageParams {
     
     private boolean concurrency;
     
+    //keyset分页：上一页最后一条记录的排序字段值（与orderBys一一对应，空列表表示第一页）
+    private List<Object> seekValues;
+    //不查询总数
+    private boolean ignoreCount;
+    
 	public PageParams() {}
 
 	public PageParams(int pageNo, int pageSize) {
@@ -75,6 +81,42 @@ public class PageParams {
 		this.concurrency = concurrency;
 	}
 
+	public List<Object> getSeekValues() {
+		return seekValues;
+	}
+
+	public void setSeekValues(List<Object> seekValues) {
+		this.seekValues = seekValues;
+	}
+
+	public boolean isIgnoreCount() {
+		return ignoreCount;
+	}
+
+	public void setIgnoreCount(boolean ignoreCount) {
+		this.ignoreCount = ignoreCount;
+	}
+
+	/**
+	 * 使用keyset分页，从指定排序值之后开始查询（不使用offset）
+	 * <br>排序字段须非空，未包含主键时自动追加主键排序
+	 * @param values 上一页返回的nextSeekValues（含追加的主键值），不传表示第一页
+	 * @return
+	 */
+	public PageParams seekAfter(Object...values) {
+		this.seekValues = new ArrayList<>(Arrays.asList(values));
+		return this;
+	}
+	
+	public PageParams ignoreCount() {
+		this.ignoreCount = true;
+		return this;
+	}
+	
+	public boolean keysetMode() {
+		return seekValues != null;
+	}
+
 	public PageParams orderBy(OrderBy orderBy) {
 		if(orderBy == null)return this;
 		if(this.orderBys == null)this.orderBys = new ArrayList<>(2);
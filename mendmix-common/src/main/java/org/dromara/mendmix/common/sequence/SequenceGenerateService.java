@@ -25,6 +25,12 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.sql.DataSource;
@@ -33,6 +39,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.mendmix.common.MendmixBaseException;
+import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
 import org.dromara.mendmix.common.jdbc.DataSourceGroups;
 import org.dromara.mendmix.common.jdbc.JdbcExecutor;
 import org.dromara.mendmix.common.lock.redis.RedisDistributeLock;
@@ -41,6 +48,7 @@ import org.dromara.mendmix.common.util.DateUtils;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -49,12 +57,15 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 
 /**
  * 
- * 
+ * <br>
+ * 默认队列模式：定时批量生成编码写入redis队列，每次取号从队列弹出
+ * <br>
+ * 分段模式（sequence.segment.enabled=true）：各节点按批次租用号段，本地双缓冲格式化，剩余低于阈值时异步预取下一号段
  * @description <br>
  * @author <a href="mailto:vakinge@gmail.com">jiangwei</a>
  * @date 2022年6月1日
  */
-public class SequenceGenerateService implements SubTimerTask, InitializingBean {
+public class SequenceGenerateService implements SubTimerTask, InitializingBean, DisposableBean {
 
 	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common");
 
@@ -65,6 +76,9 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 	private static final String NONE_TIME_EXPRE = "none";
 	private static final String SEQUENCE_QUEUE_KEY_TPL = "sequence.queue:%s_%s";
 	private static final String SEQUENCE_QUEUE_LAST_SEQ_KEY_TPL = "sequence.queue.lastSeq:%s";
+	private static final String SEQUENCE_SEGMENT_PERIOD_KEY_TPL = "sequence.segment.period:%s";
+	// 周期结束前该时间内不预取号段
+	private static final int PERIOD_END_PREFETCH_GUARD_MILLS = 60 * 1000;
 
 	private static String[] paddingzeros = new String[] { "", "0", "00", "000", "0000", "00000", "000000", "0000000",
 			"00000000", "000000000" };
@@ -84,6 +98,9 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 	private int batchSize;
 	private int threshold;
 
+	@Value("${sequence.segment.enabled:false}")
+	private boolean segmentMode;
+
 	@Autowired
 	private StringRedisTemplate redisTemplate;
 
@@ -93,6 +110,9 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 
 	private AtomicReference<Map<String, SequenceRule>> sequenceRules = new AtomicReference<>();
 
+	private Map<String, SegmentBuffer> segmentBuffers = new ConcurrentHashMap<>();
+	private ExecutorService segmentLoader;
+
 	public static String next(String code) {
 		if (me == null) {
 			throw new MendmixBaseException("SequenceGenerateService not init");
@@ -106,6 +126,9 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 		if (StringUtils.isNotBlank(rule.getTimeExpr())) {
 			timeSequence = buildTimeExprSequence(rule.getTimeExpr());
 		}
+		if (segmentMode) {
+			return genSegmentSequence(rule, timeSequence);
+		}
 		String queueName = String.format(SEQUENCE_QUEUE_KEY_TPL, code, timeSequence);
 		if (redisTemplate.opsForList().size(queueName) < threshold) {
 			generateWithLock(rule, queueName, timeSequence);
@@ -129,51 +152,178 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 			resetMarkKey = "queueName.reset:" + queueName;
 			resetLck = new RedisDistributeLock(resetMarkKey);
 			resetLck.lock();
-			// 并发情况重新判断一次
-			isReset = !redisTemplate.hasKey(resetMarkKey);
 		}
-		logger.info(">>>procuceSequence begin -> code:{},queueName:{},isReset:{},produceNums:{}", rule.getCode(),
-				queueName, isReset, produceNums);
-		List<String> sequeueList = new ArrayList<>(produceNums);
-		int[] incrSeqRange = updateLastSequenceValue(rule, produceNums, isReset);
+		try {
+			if (resetLck != null) {
+				// 并发情况重新判断一次
+				isReset = !redisTemplate.hasKey(resetMarkKey);
+			}
+			logger.info(">>>procuceSequence begin -> code:{},queueName:{},isReset:{},produceNums:{}", rule.getCode(),
+					queueName, isReset, produceNums);
+			List<String> sequeueList = new ArrayList<>(produceNums);
+			int[] incrSeqRange = updateLastSequenceValue(rule, produceNums, isReset);
+
+			StringBuilder builder = new StringBuilder();
+			for (int i = incrSeqRange[0]; i < incrSeqRange[1]; i++) {
+				builder.setLength(0);
+				sequeueList.add(buildSequence(builder, rule, timeSequence, i));
+			}
 
-		StringBuilder builder = new StringBuilder();
+			redisTemplate.opsForList().leftPushAll(queueName, sequeueList);
+			Date curTime = new Date();
+			long expireIn = DateUtils.getDiffSeconds(DateUtils.getDayEnd(curTime), curTime) + 5;
+			redisTemplate.expire(queueName, Duration.ofSeconds(expireIn));
+			// 记录当前已经重置过，方式并发重复处理
+			if (isReset) {
+				redisTemplate.opsForValue().set(resetMarkKey, queueName);
+				redisTemplate.expire(resetMarkKey, Duration.ofSeconds(30));
+			}
+			logger.info(">>>procuceSequence end -> code:{},queueName:{},isReset:{},incrRange:{}~{}", rule.getCode(),
+					queueName, isReset, incrSeqRange[0], incrSeqRange[1]);
+		} finally {
+			if (resetLck != null) {
+				resetLck.unlock();
+			}
+		}
+	}
+
+	private String buildSequence(StringBuilder builder, SequenceRule rule, String timeSequence, int value) {
 		if (StringUtils.isNotBlank(rule.getPrefix())) {
 			builder.append(rule.getPrefix());
 		}
 		if (StringUtils.isNotBlank(rule.getTimeExpr())) {
 			builder.append(timeSequence);
 		}
+		String seq = String.valueOf(value);
+		int len = rule.getSeqLength() - seq.length();
+		if (len > 0) {
+			seq = paddingzeros[len] + seq;
+		}
+		builder.append(seq);
+		//
+		if (rule.getRandomLength() > 0) {
+			builder.append(RandomStringUtils.random(rule.getRandomLength(), RandomType.chars(rule.getRandomType()),
+					RandomType.numbers(rule.getRandomType())));
+		}
+		return builder.toString();
+	}
 
-		int prefixLength = builder.length();
-		String seq;
-		for (int i = incrSeqRange[0]; i < incrSeqRange[1]; i++) {
-			builder.setLength(prefixLength);
-			seq = String.valueOf(i);
-			int len = rule.getSeqLength() - seq.length();
-			if (len > 0) {
-				seq = paddingzeros[len] + seq;
+	private String genSegmentSequence(SequenceRule rule, String timeSequence) {
+		SegmentBuffer buffer = segmentBuffers.computeIfAbsent(rule.getCode(), k -> new SegmentBuffer());
+		while (true) {
+			SequenceSegment segment = buffer.current;
+			// 进入新周期需切换号段（节点时钟落后时继续使用当前号段）
+			if (segment == null || segment.timeSequence.compareTo(timeSequence) < 0) {
+				segment = switchSegment(buffer, rule, timeSequence, segment);
 			}
-			builder.append(seq);
-			//
-			if (rule.getRandomLength() > 0) {
-				builder.append(RandomStringUtils.random(rule.getRandomLength(), RandomType.chars(rule.getRandomType()),
-						RandomType.numbers(rule.getRandomType())));
+			int value = segment.cursor.getAndIncrement();
+			if (value < segment.end) {
+				// 预取失败或被跳过时后续取号重试
+				if (segment.end - value <= Math.max(threshold, 1) && buffer.next == null) {
+					prefetchSegment(buffer, rule, segment);
+				}
+				return buildSequence(new StringBuilder(), rule, segment.timeSequence, value);
 			}
-			sequeueList.add(builder.toString());
+			switchSegment(buffer, rule, timeSequence, segment);
 		}
+	}
 
-		redisTemplate.opsForList().leftPushAll(queueName, sequeueList);
-		Date curTime = new Date();
-		long expireIn = DateUtils.getDiffSeconds(DateUtils.getDayEnd(curTime), curTime) + 5;
-		redisTemplate.expire(queueName, Duration.ofSeconds(expireIn));
-		// 记录当前已经重置过，方式并发重复处理
-		if (isReset) {
-			redisTemplate.opsForValue().set(resetMarkKey, queueName);
-			redisTemplate.expire(resetMarkKey, Duration.ofSeconds(30));
+	private SequenceSegment switchSegment(SegmentBuffer buffer, SequenceRule rule, String timeSequence,
+			SequenceSegment exhausted) {
+		synchronized (buffer) {
+			// 其他线程已切换
+			if (buffer.current != exhausted) {
+				return buffer.current;
+			}
+			SequenceSegment next = buffer.next;
+			buffer.next = null;
+			if (next == null || next.timeSequence.compareTo(timeSequence) < 0) {
+				next = leaseSegment(rule, timeSequence);
+			}
+			buffer.current = next;
+			return next;
+		}
+	}
+
+	private void prefetchSegment(SegmentBuffer buffer, SequenceRule rule, SequenceSegment current) {
+		// 临近周期切换不预取，避免预取的号段进入新周期后被丢弃
+		if (isNearPeriodEnd(rule, current.timeSequence)) {
+			return;
+		}
+		if (!buffer.loading.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			segmentLoader.execute(() -> loadNextSegment(buffer, rule, current));
+		} catch (RejectedExecutionException e) {
+			buffer.loading.set(false);
+		}
+	}
+
+	private void loadNextSegment(SegmentBuffer buffer, SequenceRule rule, SequenceSegment current) {
+		try {
+			// 已切换或已预取
+			if (buffer.current != current || buffer.next != null) {
+				return;
+			}
+			SequenceSegment next = leaseSegment(rule, current.timeSequence);
+			synchronized (buffer) {
+				if (buffer.current == current) {
+					buffer.next = next;
+				}
+			}
+		} catch (Exception e) {
+			logger.warn(">>prefetch sequence segment error -> code:{},error:{}", rule.getCode(), e.getMessage());
+		} finally {
+			buffer.loading.set(false);
+		}
+	}
+
+	private boolean isNearPeriodEnd(SequenceRule rule, String timeSequence) {
+		if (StringUtils.isBlank(rule.getTimeExpr())) {
+			return false;
+		}
+		Calendar calendar = Calendar.getInstance();
+		calendar.add(Calendar.MILLISECOND, PERIOD_END_PREFETCH_GUARD_MILLS);
+		return buildTimeExprSequence(rule.getTimeExpr(), calendar).compareTo(timeSequence) > 0;
+	}
+
+	/**
+	 * 租用号段，周期切换时首个租用的节点重置序列
+	 * <br>
+	 * 含时间表达式的规则在锁内租用，保证号段与所属周期一致（每个号段一次加锁）
+	 * 
+	 * @param rule
+	 * @param timeSequence
+	 * @return
+	 */
+	private SequenceSegment leaseSegment(SequenceRule rule, String timeSequence) {
+		if (StringUtils.isBlank(rule.getTimeExpr())) {
+			return new SequenceSegment(timeSequence, updateLastSequenceValue(rule, batchSize, false));
+		}
+		String periodKey = String.format(SEQUENCE_SEGMENT_PERIOD_KEY_TPL, rule.getCode());
+		RedisDistributeLock lock = new RedisDistributeLock(periodKey);
+		lock.lock();
+		try {
+			String period = redisTemplate.opsForValue().get(periodKey);
+			boolean isReset;
+			if (period == null) {
+				// 首次启用分段模式沿用原有跨周期判断，避免周期内重复编号
+				isReset = isCrossPeriodReset(rule, String.format(SEQUENCE_QUEUE_KEY_TPL, rule.getCode(), timeSequence));
+			} else {
+				isReset = period.compareTo(timeSequence) < 0;
+			}
+			int[] incrSeqRange = updateLastSequenceValue(rule, batchSize, isReset);
+			if (period == null || isReset) {
+				redisTemplate.opsForValue().set(periodKey, timeSequence);
+			} else if (period.compareTo(timeSequence) > 0) {
+				// 当前节点时钟落后，号段归属已切换的周期
+				timeSequence = period;
+			}
+			return new SequenceSegment(timeSequence, incrSeqRange);
+		} finally {
+			lock.unlock();
 		}
-		logger.info(">>>procuceSequence end -> code:{},queueName:{},isReset:{},incrRange:{}~{}", rule.getCode(),
-				queueName, isReset, incrSeqRange[0], incrSeqRange[1]);
 	}
 
 	private SequenceRule findRuleByCode(String code) {
@@ -197,8 +347,11 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 	 * @return String
 	 */
 	private String buildTimeExprSequence(String timeExpr) {
+		return buildTimeExprSequence(timeExpr, Calendar.getInstance());
+	}
+
+	private String buildTimeExprSequence(String timeExpr, Calendar calendar) {
 		String seq = timeExpr;
-		Calendar calendar = Calendar.getInstance();
 		if (timeExpr.contains(SeqTimeExpr.YEAR.getExpr())) {
 			seq = seq.replace(SeqTimeExpr.YEAR.getExpr(), String.valueOf(calendar.get(Calendar.YEAR)));
 		} else if (timeExpr.contains(SeqTimeExpr.SHORT_YEAR.getExpr())) {
@@ -295,6 +448,9 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 			}
 		}
 		sequenceRules.set(ruleMapping);
+		// 分段模式按需租用号段
+		if (segmentMode)
+			return;
 		//
 		String queueName;
 		for (SequenceRule rule : ruleMapping.values()) {
@@ -365,10 +521,20 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 		jdbcExecutor = new JdbcExecutor(dataSource);
 		//
 		threshold = batchSize * 20 / 100;
+		if (segmentMode) {
+			segmentLoader = Executors.newSingleThreadExecutor(new StandardThreadFactory("sequenceSegmentLoader"));
+		}
+
+		logger.info(">>>>>SequenceGenerateService inited -> taskInterval:{},batchSize:{},threshold:{},segmentMode:{}",
+				taskInterval, batchSize, threshold, segmentMode);
 
-		logger.info(">>>>>SequenceGenerateService inited -> taskInterval:{},batchSize:{},threshold:{}", taskInterval,
-				batchSize, threshold);
+	}
 
+	@Override
+	public void destroy() throws Exception {
+		if (segmentLoader != null) {
+			segmentLoader.shutdownNow();
+		}
 	}
 
 	@Override
@@ -376,4 +542,22 @@ public class SequenceGenerateService implements SubTimerTask, InitializingBean {
 		return taskInterval;
 	}
 
+	private static class SequenceSegment {
+		final String timeSequence;
+		final AtomicInteger cursor;
+		final int end;
+
+		SequenceSegment(String timeSequence, int[] incrSeqRange) {
+			this.timeSequence = timeSequence;
+			this.cursor = new AtomicInteger(incrSeqRange[0]);
+			this.end = incrSeqRange[1];
+		}
+	}
+
+	private static class SegmentBuffer {
+		volatile SequenceSegment current;
+		volatile SequenceSegment next;
+		final AtomicBoolean loading = new AtomicBoolean(false);
+	}
+
 }
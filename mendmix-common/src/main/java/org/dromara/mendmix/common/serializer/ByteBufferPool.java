@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.serializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import org.dromara.mendmix.common.util.ResourceUtils;
+
+/**
+ * 序列化缓冲区池
+ * <br>
+ * 按线程复用堆内ByteBuffer，超过保留上限的缓冲区不回收
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class ByteBufferPool {
+
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+	//每个线程最多缓存的缓冲区数
+	private static final int MAX_POOLED_BUFFERS = 4;
+	private static final int MAX_RETAIN_BYTES = ResourceUtils.getInt("mendmix-cloud.serializer.buffer.maxRetainBytes", 1024 * 1024);
+
+	private static final ThreadLocal<ArrayDeque<ByteBuffer>> pools = ThreadLocal.withInitial(() -> new ArrayDeque<>(MAX_POOLED_BUFFERS));
+
+	public static ByteBuffer acquire() {
+		return acquire(DEFAULT_BUFFER_SIZE);
+	}
+
+	public static ByteBuffer acquire(int minCapacity) {
+		Iterator<ByteBuffer> iterator = pools.get().iterator();
+		ByteBuffer buffer;
+		while(iterator.hasNext()) {
+			buffer = iterator.next();
+			if(buffer.capacity() >= minCapacity) {
+				iterator.remove();
+				return buffer;
+			}
+		}
+		return ByteBuffer.allocate(Math.max(minCapacity, DEFAULT_BUFFER_SIZE));
+	}
+
+	public static void release(ByteBuffer buffer) {
+		if(buffer == null || buffer.isDirect() || buffer.capacity() > MAX_RETAIN_BYTES)return;
+		ArrayDeque<ByteBuffer> pool = pools.get();
+		if(pool.size() >= MAX_POOLED_BUFFERS)return;
+		buffer.clear();
+		pool.addFirst(buffer);
+	}
+
+	/**
+	 * 确保剩余可写空间，不足时扩容（保留已写入内容）
+	 * <br>
+	 * 原缓冲区仍归调用方所有，不在此回收（调用方可能仍持有引用）
+	 * @param buffer 写模式
+	 * @param required 需要写入的字节数
+	 * @return 原缓冲区或扩容后的新缓冲区
+	 */
+	public static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+		if(buffer.remaining() >= required)return buffer;
+		int minCapacity = buffer.position() + required;
+		ByteBuffer newBuffer = acquire(Math.max(minCapacity, buffer.capacity() * 2));
+		buffer.flip();
+		newBuffer.put(buffer);
+		return newBuffer;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.serializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+
+import org.dromara.mendmix.common.util.ResourceUtils;
+
+/**
+ * kryo类注册表
+ * <br>
+ * 开启注册模式后，注册类序列化时写入整型ID代替类全名，并使用兼容字段序列化（新增字段不影响已缓存数据）
+ * <br>
+ * 注册模式写入的数据以{@link #FORMAT_MARKER}开头，开启前按类全名写入的数据仍按原方式读取；
+ * 注册模式写入的数据未开启注册模式的节点无法读取
+ * <br>
+ * 哈希ID只取决于类名，与注册顺序无关；本地注册的类哈希ID冲突时启动失败，需通过配置指定ID
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class KryoClassRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.common.serializer");
+
+	//低位ID为kryo内置类型保留
+	public static final int MIN_CLASS_ID = 1000;
+	//varint写入不超过4字节
+	private static final int HASH_ID_RANGE = 1 << 27;
+	//注册模式数据格式标记（类全名格式首字节为kryo类ID的varint，不会出现该值）
+	static final byte FORMAT_MARKER = (byte) 0xFD;
+
+	private static boolean enabled = ResourceUtils.getBoolean("mendmix-cloud.serializer.kryo.registrationMode", false);
+	//读取时跳过未知字段（滚动发布期间旧版本读取新增字段数据），开启后每个字段额外写入类型信息
+	private static boolean readUnknownFieldData = ResourceUtils.getBoolean("mendmix-cloud.serializer.kryo.readUnknownFieldData", false);
+
+	private static Map<Class<?>, Integer> registrations = new HashMap<>();
+	private static Map<Integer, Class<?>> idMappings = new HashMap<>();
+	private static volatile int version;
+
+	static {
+		if(enabled) {
+			//格式：com.example.User:1001,com.example.Order:1002
+			for (String item : ResourceUtils.getList("mendmix-cloud.serializer.kryo.registrations")) {
+				String[] parts = item.split(":");
+				try {
+					register(Class.forName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+				} catch (ClassNotFoundException e) {
+					logger.warn("MENDMIX-TRACE-LOGGGING-->> kryo registration class[{}] not found",parts[0]);
+				}
+			}
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 按类名哈希生成稳定ID注册
+	 * @param clazz
+	 */
+	public static void register(Class<?> clazz) {
+		register(Collections.singletonList(clazz));
+	}
+
+	/**
+	 * 批量注册，注册完成后只重建一次kryo实例
+	 * @param classes
+	 * @throws IllegalStateException 哈希ID与已注册类冲突
+	 */
+	public static synchronized void register(Collection<Class<?>> classes) {
+		if(!enabled)return;
+		List<Class<?>> conflicts = new ArrayList<>(0);
+		boolean changed = false;
+		int id;
+		Class<?> existClass;
+		for (Class<?> clazz : classes) {
+			if(registrations.containsKey(clazz))continue;
+			id = MIN_CLASS_ID + ((clazz.getName().hashCode() & Integer.MAX_VALUE) % HASH_ID_RANGE);
+			existClass = idMappings.get(id);
+			if(existClass != null) {
+				logger.error("MENDMIX-TRACE-LOGGGING-->> kryo registration id conflict:{},{} -> {}",id,existClass.getName(),clazz.getName());
+				conflicts.add(clazz);
+				continue;
+			}
+			addRegistration(clazz, id);
+			changed = true;
+		}
+		if(changed)version++;
+		//不同节点注册顺序不同会导致同一ID对应不同类，不能忽略冲突
+		if(!conflicts.isEmpty()) {
+			throw new IllegalStateException("kryo registration id conflict:" + conflicts + ",please config explicit id with [mendmix-cloud.serializer.kryo.registrations]");
+		}
+	}
+
+	/**
+	 * 指定ID注册
+	 * @param clazz
+	 * @param id 不小于{@link #MIN_CLASS_ID}
+	 */
+	public static synchronized void register(Class<?> clazz, int id) {
+		if(!enabled)return;
+		if(id < MIN_CLASS_ID) {
+			throw new IllegalArgumentException("kryo registration id must not less than " + MIN_CLASS_ID);
+		}
+		Class<?> existClass = idMappings.get(id);
+		if(existClass != null && existClass != clazz) {
+			throw new IllegalArgumentException("kryo registration id[" + id + "] already used by " + existClass.getName());
+		}
+		Integer existId = registrations.get(clazz);
+		if(existId != null) {
+			if(existId == id)return;
+			idMappings.remove(existId);
+		}
+		addRegistration(clazz, id);
+		version++;
+	}
+
+	static int version() {
+		return version;
+	}
+
+	static synchronized void applyTo(Kryo kryo) {
+		CompatibleFieldSerializer<?> serializer;
+		for (Entry<Class<?>, Integer> entry : registrations.entrySet()) {
+			serializer = new CompatibleFieldSerializer<>(kryo, entry.getKey());
+			serializer.getCompatibleFieldSerializerConfig().setReadUnknownFieldData(readUnknownFieldData);
+			serializer.updateFields();
+			kryo.register(entry.getKey(), serializer, entry.getValue());
+		}
+	}
+
+	private static void addRegistration(Class<?> clazz, int id) {
+		registrations.put(clazz, id);
+		idMappings.put(id, clazz);
+	}
+}
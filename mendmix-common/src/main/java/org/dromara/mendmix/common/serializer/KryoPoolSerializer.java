@@ -16,10 +16,12 @@
 package org.dromara.mendmix.common.serializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
@@ -35,14 +37,51 @@ public class KryoPoolSerializer implements Serializer{
      */
     private static class KryoHolder {
         private Kryo kryo;
+        //未注册实例，读取注册模式开启前写入的数据
+        private Kryo legacyKryo;
         static final int BUFFER_SIZE = 1024;
         private Output output = new Output(BUFFER_SIZE, -1);     //reuse
         private Input input = new Input();
+        private ByteBufferInput byteBufferInput = new ByteBufferInput();
+        private int registrationVersion;
 
-        KryoHolder(Kryo kryo) {
+        KryoHolder(Kryo kryo, int registrationVersion) {
             this.kryo = kryo;
+            this.registrationVersion = registrationVersion;
         }
 
+        /**
+         * 按数据格式选择读取实例
+         * @param marked 是否带注册模式标记
+         */
+        Kryo reader(boolean marked) throws IOException {
+        	if(!KryoClassRegistry.isEnabled()) {
+        		if(marked) {
+        			throw new IOException("data written in kryo registration mode,enable [mendmix-cloud.serializer.kryo.registrationMode] to read it");
+        		}
+        		return kryo;
+        	}
+        	if(marked)return kryo;
+        	if(legacyKryo == null) {
+        		legacyKryo = newKryo();
+        	}
+        	return legacyKryo;
+        }
+
+        void writeMarker() {
+        	if(KryoClassRegistry.isEnabled()) {
+        		output.writeByte(KryoClassRegistry.FORMAT_MARKER);
+        	}
+        }
+
+    }
+
+    private static Kryo newKryo() {
+    	Kryo kryo = new Kryo();
+    	kryo.setReferences(false);//
+    	kryo.setRegistrationRequired(false);
+    	kryo.setWarnUnregisteredClasses(false);
+    	return kryo;
     }
 
 
@@ -97,6 +136,10 @@ public class KryoPoolSerializer implements Serializer{
         @Override
         public KryoHolder get() {
             KryoHolder kryoHolder = kryoHolderDeque.pollFirst();       // Retrieves and removes the head of the queue represented by this table
+            //注册类变更后丢弃旧实例
+            while(kryoHolder != null && kryoHolder.registrationVersion != KryoClassRegistry.version()) {
+            	kryoHolder = kryoHolderDeque.pollFirst();
+            }
             return kryoHolder == null ? creatInstnce() : kryoHolder;
         }
 
@@ -105,11 +148,12 @@ public class KryoPoolSerializer implements Serializer{
          * @return KryoHolder instance
          */
         public KryoHolder creatInstnce() {
-            Kryo kryo = new Kryo();
-            kryo.setReferences(false);//
-            kryo.setRegistrationRequired(false);
-    		kryo.setWarnUnregisteredClasses(false);
-            return new KryoHolder(kryo);
+            Kryo kryo = newKryo();
+    		int registrationVersion = KryoClassRegistry.version();
+    		if(KryoClassRegistry.isEnabled()) {
+    			KryoClassRegistry.applyTo(kryo);
+    		}
+            return new KryoHolder(kryo, registrationVersion);
         }
 
         /**
@@ -149,6 +193,7 @@ public class KryoPoolSerializer implements Serializer{
 		try {
 			kryoHolder = KryoPoolImpl.getInstance().get();
 			kryoHolder.output.reset();//重置
+			kryoHolder.writeMarker();
 			kryoHolder.kryo.writeClassAndObject(kryoHolder.output, obj);
 			return kryoHolder.output.toBytes();
 		} catch (RuntimeException e) {
@@ -161,6 +206,62 @@ public class KryoPoolSerializer implements Serializer{
 		}
     }
 
+    /**
+     * 复用holder的输出缓冲区，直接写入目标buffer，避免中间byte数组
+     */
+    @Override
+    public ByteBuffer serialize(Object obj, ByteBuffer buffer) throws IOException {
+    	KryoHolder kryoHolder = null;
+    	if (obj == null)
+    		throw new RuntimeException("obj can not be null");
+    	try {
+    		kryoHolder = KryoPoolImpl.getInstance().get();
+    		kryoHolder.output.reset();
+    		kryoHolder.writeMarker();
+    		kryoHolder.kryo.writeClassAndObject(kryoHolder.output, obj);
+    		int length = kryoHolder.output.position();
+    		buffer = ByteBufferPool.ensureCapacity(buffer, length);
+    		return buffer.put(kryoHolder.output.getBuffer(), 0, length);
+    	} catch (RuntimeException e) {
+    		throw new RuntimeException(e);
+    	} finally {
+    		if (kryoHolder != null) {
+    			KryoPoolImpl.getInstance().offer(kryoHolder);
+    		}
+    	}
+    }
+
+    /**
+     * 堆内buffer直接读取底层数组，堆外buffer使用ByteBufferInput
+     */
+    @Override
+    public Object deserialize(ByteBuffer buffer) throws IOException {
+    	KryoHolder kryoHolder = null;
+    	try {
+    		kryoHolder = KryoPoolImpl.getInstance().get();
+    		boolean marked = buffer.hasRemaining() && buffer.get(buffer.position()) == KryoClassRegistry.FORMAT_MARKER;
+    		Kryo kryo = kryoHolder.reader(marked);
+    		if(marked)buffer.position(buffer.position() + 1);
+    		Object result;
+    		if(buffer.hasArray()) {
+    			kryoHolder.input.setBuffer(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    			result = kryo.readClassAndObject(kryoHolder.input);
+    			buffer.position(kryoHolder.input.position() - buffer.arrayOffset());
+    		}else {
+    			kryoHolder.byteBufferInput.setBuffer(buffer.slice());
+    			result = kryo.readClassAndObject(kryoHolder.byteBufferInput);
+    			buffer.position(buffer.position() + kryoHolder.byteBufferInput.position());
+    		}
+    		return result;
+    	} catch (RuntimeException e) {
+    		throw new RuntimeException(e);
+    	} finally {
+    		if (kryoHolder != null) {
+    			KryoPoolImpl.getInstance().offer(kryoHolder);
+    		}
+    	}
+    }
+
     /**
      * Deserialize data
      * @param bytes what to deserialize
@@ -172,8 +273,11 @@ public class KryoPoolSerializer implements Serializer{
         if (bytes == null) throw new RuntimeException("bytes can not be null");
         try {
             kryoHolder = KryoPoolImpl.getInstance().get();
-            kryoHolder.input.setBuffer(bytes, 0, bytes.length);//call it ,and then use input object  ,discard any array
-            return kryoHolder.kryo.readClassAndObject(kryoHolder.input);
+            boolean marked = bytes.length > 0 && bytes[0] == KryoClassRegistry.FORMAT_MARKER;
+            Kryo kryo = kryoHolder.reader(marked);
+            int offset = marked ? 1 : 0;
+            kryoHolder.input.setBuffer(bytes, offset, bytes.length - offset);//call it ,and then use input object  ,discard any array
+            return kryo.readClassAndObject(kryoHolder.input);
         } catch (RuntimeException e) {
             throw new RuntimeException(e);
 		} finally {
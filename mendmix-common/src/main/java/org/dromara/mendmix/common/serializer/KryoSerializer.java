@@ -23,6 +23,7 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.ThreadLocalContext.Key;
 
 /**
  * @description <br>
@@ -32,14 +33,16 @@ import org.dromara.mendmix.common.ThreadLocalContext;
 public class KryoSerializer implements Serializer {
 
     private static final String KRYO_INSTANCE_ID = "kryo";
+    //非线程安全，不传递到异步线程
+    private static final Key<Kryo> KRYO_INSTANCE_KEY = ThreadLocalContext.key(KRYO_INSTANCE_ID, false);
 
 	public static Kryo getKryo() {
-    	Kryo kryo = ThreadLocalContext.get(KRYO_INSTANCE_ID);
+    	Kryo kryo = ThreadLocalContext.get(KRYO_INSTANCE_KEY);
     	if(kryo == null) {
     		kryo = new Kryo();
     		kryo.setRegistrationRequired(false);
     		kryo.setWarnUnregisteredClasses(false);
-    		ThreadLocalContext.set(KRYO_INSTANCE_ID, kryo);
+    		ThreadLocalContext.set(KRYO_INSTANCE_KEY, kryo);
     	}
 		return kryo;
 	}
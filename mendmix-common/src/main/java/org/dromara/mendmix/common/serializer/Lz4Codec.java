@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.serializer;
+
+import java.nio.ByteBuffer;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * LZ4压缩
+ * <br>
+ * 压缩格式：[0xFE][codec][原始长度(4字节)][压缩数据]，未压缩数据不带头部，兼容旧格式
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class Lz4Codec {
+
+	public static final byte HEADER_MAGIC = (byte) 0xFE;
+	public static final byte CODEC_LZ4 = 0x01;
+	public static final int HEADER_LENGTH = 6;
+
+	private static final boolean available;
+	static {
+		boolean present;
+		try {
+			Class.forName("net.jpountz.lz4.LZ4Factory");
+			present = true;
+		} catch (ClassNotFoundException e) {
+			present = false;
+		}
+		available = present;
+	}
+
+	public static boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * @param buffer 读模式，不改变position
+	 * @return
+	 */
+	public static boolean isCompressed(ByteBuffer buffer) {
+		int position = buffer.position();
+		return buffer.remaining() > HEADER_LENGTH
+				&& buffer.get(position) == HEADER_MAGIC
+				&& buffer.get(position + 1) == CODEC_LZ4
+				&& buffer.getInt(position + 2) > 0;
+	}
+
+	public static boolean isCompressed(byte[] bytes) {
+		return bytes != null && isCompressed(ByteBuffer.wrap(bytes));
+	}
+
+	public static int originalLength(ByteBuffer buffer) {
+		return buffer.getInt(buffer.position() + 2);
+	}
+
+	/**
+	 * 压缩src剩余数据（带头部）写入dest
+	 * @param src 读模式
+	 * @param dest 写模式
+	 * @return 写入后的dest（可能扩容）
+	 */
+	public static ByteBuffer compress(ByteBuffer src, ByteBuffer dest) {
+		LZ4Compressor compressor = Holder.factory.fastCompressor();
+		int length = src.remaining();
+		dest = ByteBufferPool.ensureCapacity(dest, HEADER_LENGTH + compressor.maxCompressedLength(length));
+		dest.put(HEADER_MAGIC).put(CODEC_LZ4).putInt(length);
+		int compressedLength = compressor.compress(src, src.position(), length, dest, dest.position(), dest.remaining());
+		dest.position(dest.position() + compressedLength);
+		src.position(src.limit());
+		return dest;
+	}
+
+	/**
+	 * 解压src（带头部）写入dest
+	 * @param src 读模式
+	 * @param dest 写模式
+	 * @return 写入后的dest（可能扩容）
+	 */
+	public static ByteBuffer decompress(ByteBuffer src, ByteBuffer dest) {
+		LZ4FastDecompressor decompressor = Holder.factory.fastDecompressor();
+		int length = originalLength(src);
+		dest = ByteBufferPool.ensureCapacity(dest, length);
+		int readLength = decompressor.decompress(src, src.position() + HEADER_LENGTH, dest, dest.position(), length);
+		dest.position(dest.position() + length);
+		src.position(src.position() + HEADER_LENGTH + readLength);
+		return dest;
+	}
+
+	//延迟加载，lz4为可选依赖
+	private static class Holder {
+		static final LZ4Factory factory = LZ4Factory.fastestInstance();
+	}
+}
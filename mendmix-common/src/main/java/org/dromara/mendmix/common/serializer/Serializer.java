@@ -16,6 +16,7 @@
 package org.dromara.mendmix.common.serializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * 对象序列化接口
@@ -31,4 +32,29 @@ public interface Serializer {
 	
 	public Object deserialize(byte[] bytes) throws IOException ;
 	
+	/**
+	 * 序列化写入缓冲区（从当前position开始）
+	 * @param obj
+	 * @param buffer 写模式
+	 * @return 写入后的缓冲区，容量不足时为扩容后的新缓冲区
+	 * @throws IOException
+	 */
+	default ByteBuffer serialize(Object obj,ByteBuffer buffer) throws IOException {
+		byte[] bytes = serialize(obj);
+		buffer = ByteBufferPool.ensureCapacity(buffer, bytes.length);
+		return buffer.put(bytes);
+	}
+	
+	/**
+	 * 反序列化缓冲区position~limit区间数据
+	 * @param buffer 读模式
+	 * @return
+	 * @throws IOException
+	 */
+	default Object deserialize(ByteBuffer buffer) throws IOException {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return deserialize(bytes);
+	}
+	
 }
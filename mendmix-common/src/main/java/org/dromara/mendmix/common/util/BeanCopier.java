@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 对象复制器
+ * <br>
+ * 按（源类型,目标类型,deepCopy,ignoreNull）预先解析属性对应关系及转换方式，复制时不再查找属性描述
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class BeanCopier {
+
+	private static Logger logger = LoggerFactory.getLogger("org.dromara.mendmix");
+
+	//直接赋值
+	private static final int MODE_DIRECT = 0;
+	//简单类型转换
+	private static final int MODE_ADAPT = 1;
+	//列表元素复制
+	private static final int MODE_LIST = 2;
+	//对象递归复制
+	private static final int MODE_DEEP = 3;
+
+	private final PropertyMapping[] mappings;
+	private final boolean ignoreNull;
+
+	BeanCopier(Class<?> destClass, Map<String, BeanPropertyAccessor> srcAccessors, Map<String, BeanPropertyAccessor> destAccessors, boolean deepCopy, boolean ignoreNull) {
+		this.ignoreNull = ignoreNull;
+		List<PropertyMapping> mappings = new ArrayList<>(destAccessors.size());
+		BeanPropertyAccessor srcAccessor;
+		Class<?> srcType;
+		Class<?> destType;
+		int mode;
+		for (BeanPropertyAccessor destAccessor : destAccessors.values()) {
+			srcAccessor = srcAccessors.get(destAccessor.getName());
+			if(srcAccessor == null)continue;
+			srcType = srcAccessor.getPropertyType();
+			destType = destAccessor.getPropertyType();
+			if(srcType.isEnum() || BeanUtils.isSimpleDataType(srcType)) {
+				mode = srcType == destType ? MODE_DIRECT : MODE_ADAPT;
+			}else if(List.class.isAssignableFrom(destType)) {
+				mode = MODE_LIST;
+			}else if(deepCopy && !BeanUtils.isJdkType(destType)) {
+				mode = MODE_DEEP;
+			}else {
+				mode = MODE_DIRECT;
+			}
+			Class<?> destGenericType = mode == MODE_LIST ? BeanUtils.getGenericType(destClass, destAccessor.getName()) : null;
+			mappings.add(new PropertyMapping(srcAccessor, destAccessor, mode, destGenericType, deepCopy));
+		}
+		this.mappings = mappings.toArray(new PropertyMapping[0]);
+	}
+
+	void copy(Object src, Object dest) {
+		Object value;
+		for (PropertyMapping mapping : mappings) {
+			value = mapping.src.get(src);
+			if(value != null) {
+				if(mapping.mode == MODE_ADAPT) {
+					value = BeanUtils.toAdaptTypeValue(mapping.src.getPropertyType(), value, mapping.dest.getPropertyType());
+				}else if(mapping.mode == MODE_LIST || mapping.mode == MODE_DEEP) {
+					try {
+						value = mapping.mode == MODE_LIST ? copyList(mapping, value) : BeanUtils.copy(value, mapping.dest.getPropertyType());
+					} catch (Exception e) {
+						logger.error("copy object[{}.{}]error:{}", src.getClass().getName(),mapping.dest.getName(),ExceptionFormatUtils.buildExceptionMessages(e, 3));
+					}
+				}
+				mapping.dest.set(dest, value);
+			}else if(!ignoreNull) {
+				try {mapping.dest.set(dest, null);} catch (Exception e) {}
+			}
+		}
+	}
+
+	private Object copyList(PropertyMapping mapping, Object value) {
+		List<?> srcList = (List<?>)value;
+		if(srcList.isEmpty())return value;
+		Class<?> srcGenericClass = srcList.get(0).getClass();
+		if(BeanUtils.isSimpleDataType(srcGenericClass))return value;
+		if(mapping.destGenericType != null && (mapping.deepCopy || srcGenericClass != mapping.destGenericType)) {
+			return BeanUtils.copy(srcList, mapping.destGenericType);
+		}
+		return value;
+	}
+
+	private static class PropertyMapping {
+		final BeanPropertyAccessor src;
+		final BeanPropertyAccessor dest;
+		final int mode;
+		final Class<?> destGenericType;
+		final boolean deepCopy;
+
+		PropertyMapping(BeanPropertyAccessor src, BeanPropertyAccessor dest, int mode, Class<?> destGenericType, boolean deepCopy) {
+			this.src = src;
+			this.dest = dest;
+			this.mode = mode;
+			this.destGenericType = destGenericType;
+			this.deepCopy = deepCopy;
+		}
+	}
+}
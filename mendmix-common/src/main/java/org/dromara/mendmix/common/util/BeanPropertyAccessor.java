@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 属性读写访问器
+ * <br>
+ * 通过LambdaMetafactory生成getter/setter调用，类或方法不可访问时回退为反射调用
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class BeanPropertyAccessor {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	private final String name;
+	private final Class<?> propertyType;
+	private final Function<Object, Object> getter;
+	private final BiConsumer<Object, Object> setter;
+
+	BeanPropertyAccessor(String name, Class<?> propertyType, Method readMethod, Method writeMethod) {
+		this.name = name;
+		this.propertyType = propertyType;
+		this.getter = createGetter(readMethod);
+		this.setter = createSetter(writeMethod);
+	}
+
+	String getName() {
+		return name;
+	}
+
+	Class<?> getPropertyType() {
+		return propertyType;
+	}
+
+	Object get(Object bean) {
+		return getter.apply(bean);
+	}
+
+	void set(Object bean, Object value) {
+		try {
+			setter.accept(bean, value);
+		} catch (ClassCastException | NullPointerException e) {
+			//与反射调用一致，参数类型不匹配抛出IllegalArgumentException
+			if(value == null ? propertyType.isPrimitive() : !wrap(propertyType).isInstance(value)) {
+				throw new IllegalArgumentException("argument type mismatch", e);
+			}
+			throw e;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createGetter(Method method) {
+		if(isAccessible(method)) {
+			try {
+				MethodHandle handle = lookup.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+						MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class),
+						handle,
+						MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {}
+		}
+		trySetAccessible(method);
+		return bean -> {
+			try {
+				return method.invoke(bean);
+			} catch (InvocationTargetException e) {
+				throw new RuntimeException(e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> createSetter(Method method) {
+		if(isAccessible(method)) {
+			try {
+				MethodHandle handle = lookup.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+						MethodType.methodType(BiConsumer.class),
+						MethodType.methodType(void.class, Object.class, Object.class),
+						handle,
+						MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+				return (BiConsumer<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {}
+		}
+		trySetAccessible(method);
+		return (bean, value) -> {
+			try {
+				method.invoke(bean, value);
+			} catch (InvocationTargetException e) {
+				throw new RuntimeException(e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * 无参构造器
+	 */
+	@SuppressWarnings("unchecked")
+	static Supplier<Object> createInstantiator(Class<?> clazz) {
+		if(!Modifier.isAbstract(clazz.getModifiers()) && !clazz.isInterface() && isAccessible(clazz)) {
+			try {
+				Constructor<?> constructor = clazz.getConstructor();
+				MethodHandle handle = lookup.unreflectConstructor(constructor);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+						MethodType.methodType(Supplier.class),
+						MethodType.methodType(Object.class),
+						handle,
+						MethodType.methodType(clazz));
+				return (Supplier<Object>) site.getTarget().invoke();
+			} catch (Throwable e) {}
+		}
+		return () -> {
+			try {
+				return clazz.newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	private static void trySetAccessible(Method method) {
+		try {
+			method.setAccessible(true);
+		} catch (RuntimeException e) {}
+	}
+
+	private static boolean isAccessible(Method method) {
+		if(!Modifier.isPublic(method.getModifiers()))return false;
+		if(!isAccessible(method.getDeclaringClass()))return false;
+		if(!isVisible(method.getReturnType()))return false;
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if(!isVisible(parameterType))return false;
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> clazz) {
+		for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+			if(!Modifier.isPublic(c.getModifiers()))return false;
+		}
+		return isVisible(clazz);
+	}
+
+	/**
+	 * 生成的调用类由当前类加载器解析，需确保目标类可见（如devtools重启类加载器）
+	 */
+	private static boolean isVisible(Class<?> clazz) {
+		while(clazz.isArray()) {
+			clazz = clazz.getComponentType();
+		}
+		if(clazz.isPrimitive())return true;
+		try {
+			return Class.forName(clazz.getName(), false, BeanPropertyAccessor.class.getClassLoader()) == clazz;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	private static Class<?> wrap(Class<?> type) {
+		if(!type.isPrimitive())return type;
+		if(type == int.class)return Integer.class;
+		if(type == long.class)return Long.class;
+		if(type == boolean.class)return Boolean.class;
+		if(type == double.class)return Double.class;
+		if(type == float.class)return Float.class;
+		if(type == short.class)return Short.class;
+		if(type == byte.class)return Byte.class;
+		if(type == char.class)return Character.class;
+		return Void.class;
+	}
+}
@@ -15,10 +15,7 @@
  */
 package org.dromara.mendmix.common.util;
 
-import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
@@ -32,7 +29,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
@@ -53,10 +51,6 @@ public class BeanUtils {
 
     private static final String CLASS_PROP_NAME = "class";
 
-	private static Map<String, Map<String, PropertyDescriptor>> cache = new ConcurrentHashMap<>();
-
-    private static Map<String, List<String>> fieldCache = new HashMap<>();
-    
     private static List<String> dynaProxyClassKeys = Arrays.asList("JavassistProxyFactory$");
     
     private static List<String> jdkPackagePrefixs = Arrays.asList("java.");
@@ -79,67 +73,7 @@ public class BeanUtils {
             return null;
 
         try {
-            Class<? extends Object> destClass = dest.getClass();
-            Map<String, PropertyDescriptor> srcDescriptors = getCachePropertyDescriptors(src.getClass());
-            Map<String, PropertyDescriptor> destDescriptors = getCachePropertyDescriptors(destClass);
-
-            Set<String> keys = destDescriptors.keySet();
-            for (String key : keys) {
-                PropertyDescriptor srcDescriptor = srcDescriptors.get(key);
-
-                if (srcDescriptor == null)
-                    continue;
-
-                PropertyDescriptor destDescriptor = destDescriptors.get(key);
-
-                Object value = srcDescriptor.getReadMethod().invoke(src);
-
-                Class<?> propertyType = destDescriptor.getPropertyType();
-
-                Method writeMethod = destDescriptor.getWriteMethod();
-                String name = destDescriptor.getName();
-                if (writeMethod == null) {
-                    try {
-                        writeMethod = destClass.getMethod("set" + name.substring(0, 1).toUpperCase() + name.substring(1), destDescriptor.getPropertyType());
-                        destDescriptor.setWriteMethod(writeMethod);
-                    } catch (Exception e) {
-                    }
-                }
-                if(writeMethod == null)continue;
-                
-                if (value != null) {
-                	if(srcDescriptor.getPropertyType().isEnum() || isSimpleDataType(srcDescriptor.getPropertyType())){ 
-                		//类型不匹配
-                		if( propertyType != srcDescriptor.getPropertyType()) {   
-                			value = toAdaptTypeValue(srcDescriptor.getPropertyType(), value, propertyType);
-                		}
-                	}else{
-                		//非简单类型 对象递归复制
-                		try {
-                			if(List.class.isAssignableFrom(propertyType)) {
-                    			List<?> srcList = (List<?>)value;
-                    			if(srcList != null && !srcList.isEmpty()) {
-                    				Class<?> srcGenericClass = srcList.get(0).getClass();
-                        			if(!isSimpleDataType(srcGenericClass)) {
-                        				Class<?> distGenericType = getGenericType(destClass, name);
-                        				if(distGenericType != null && (deepCopy || srcGenericClass != distGenericType)) {
-                        					value = copy(srcList, distGenericType);
-                        				}
-                        			}
-                    			}
-                    		}else if(deepCopy && !jdkPackagePrefixs.stream().anyMatch(prefix -> propertyType.getName().startsWith(prefix))){
-                    			value = copy(value, propertyType);
-                    		}
-						} catch (Exception e) {
-							logger.error("copy object[{}.{}]error:{}", src.getClass().getName(),name,ExceptionFormatUtils.buildExceptionMessages(e, 3));
-						}
-                	}
-                    //
-                	writeMethod.invoke(dest, value);
-                }else if(!ignoreNull) {
-                	try {writeMethod.invoke(dest, value);} catch (Exception e) {}
-                }
-            }
+            getCopier(src.getClass(), dest.getClass(), deepCopy, ignoreNull).copy(src, dest);
             return dest;
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -170,8 +104,26 @@ public class BeanUtils {
             return new ArrayList<T>();
 
         List<T> dests = new ArrayList<T>(srcs.size());
+        Supplier<Object> instantiator = getInstantiator(destClass);
+        Class<?> srcClass = null;
+        BeanCopier copier = null;
         for (Object src : srcs) {
-            dests.add(copy(src, destClass, deepCopy));
+        	if(src == null) {
+        		dests.add(null);
+        		continue;
+        	}
+        	try {
+        		//同类型元素复用复制器
+        		if(src.getClass() != srcClass) {
+        			srcClass = src.getClass();
+        			copier = getCopier(srcClass, destClass, deepCopy, ignoreNull);
+        		}
+        		T dest = destClass.cast(instantiator.get());
+        		copier.copy(src, dest);
+        		dests.add(dest);
+        	} catch (Exception e) {
+        		throw new RuntimeException(e);
+        	}
         }
 
         return dests;
@@ -186,7 +138,7 @@ public class BeanUtils {
         if (src == null)
             return null;
         try {
-            T dest = destClass.newInstance();
+            T dest = destClass.cast(getInstantiator(destClass).get());
             copy(src, dest, deepCopy, ignoreNull);
             return dest;
         } catch (Exception e) {
@@ -214,8 +166,8 @@ public class BeanUtils {
      */
     public static void zeroWrapPropertiesToNull(Object bean, String... excludeFields) throws RuntimeException {
         try {
-            Map<String, PropertyDescriptor> srcDescriptors = getCachePropertyDescriptors(bean.getClass());
-            Set<String> keys = srcDescriptors.keySet();
+            Map<String, BeanPropertyAccessor> srcAccessors = getCachePropertyAccessors(bean.getClass());
+            Set<String> keys = srcAccessors.keySet();
 
             List<String> excludeFieldsList = null;
             if (excludeFields != null && excludeFields.length > 0 && StringUtils.isNotBlank(excludeFields[0])) {
@@ -223,16 +175,15 @@ public class BeanUtils {
             }
 
             for (String key : keys) {
-                PropertyDescriptor srcDescriptor = srcDescriptors.get(key);
-                if (srcDescriptor == null) continue;
+                BeanPropertyAccessor srcAccessor = srcAccessors.get(key);
+                if (srcAccessor == null) continue;
                 if (excludeFieldsList != null && excludeFieldsList.contains(key)) continue;
-                Object value = srcDescriptor.getReadMethod().invoke(bean);
-
-                boolean isWrapType = srcDescriptor.getPropertyType() == Long.class || srcDescriptor.getPropertyType() == Integer.class || srcDescriptor.getPropertyType() == Short.class || srcDescriptor.getPropertyType() == Double.class || srcDescriptor.getPropertyType() == Float.class;
-                if (isWrapType && value != null && Integer.parseInt(value.toString()) == 0) {
-                    value = null;
-                    Method writeMethod = srcDescriptor.getWriteMethod();
-                    if (writeMethod != null) writeMethod.invoke(bean, value);
+                Class<?> propertyType = srcAccessor.getPropertyType();
+                boolean isWrapType = propertyType == Long.class || propertyType == Integer.class || propertyType == Short.class || propertyType == Double.class || propertyType == Float.class;
+                if (!isWrapType) continue;
+                Object value = srcAccessor.get(bean);
+                if (value != null && Integer.parseInt(value.toString()) == 0) {
+                    srcAccessor.set(bean, null);
                 }
 
             }
@@ -242,7 +193,7 @@ public class BeanUtils {
     }
     
 
-    private static Object toAdaptTypeValue(Class<?> srcPropertyType, Object value, Class<?> distPropertyType) {
+    static Object toAdaptTypeValue(Class<?> srcPropertyType, Object value, Class<?> distPropertyType) {
 
     	if (distPropertyType == BigDecimal.class) {
             value = (value == null) ? BigDecimal.ZERO : new BigDecimal(value.toString().trim());
@@ -321,19 +272,17 @@ public class BeanUtils {
         
         String propertyName = null;
         try {	   	
-        	T bean = clazz.newInstance();
-        	Map<String, PropertyDescriptor> descriptors = getCachePropertyDescriptors(clazz);
-        	for (PropertyDescriptor descriptor : descriptors.values()) {
-        		propertyName = descriptor.getName();
-        		if(map.containsKey(propertyName)){
-        			Object object = map.get(propertyName);
-					if(object == null)continue;
-					if(descriptor.getPropertyType() != object.getClass() 
-							&& !descriptor.getPropertyType().isAssignableFrom(object.getClass())){						
-						object = toPrimitiveValue(object.toString(),descriptor.getPropertyType());
-					}
-        			descriptor.getWriteMethod().invoke(bean, object);
+        	T bean = clazz.cast(getInstantiator(clazz).get());
+        	Map<String, BeanPropertyAccessor> accessors = getCachePropertyAccessors(clazz);
+        	for (BeanPropertyAccessor accessor : accessors.values()) {
+        		propertyName = accessor.getName();
+        		Object object = map.get(propertyName);
+        		if(object == null)continue;
+        		if(accessor.getPropertyType() != object.getClass() 
+        				&& !accessor.getPropertyType().isAssignableFrom(object.getClass())){						
+        			object = toPrimitiveValue(object.toString(),accessor.getPropertyType());
         		}
+        		accessor.set(bean, object);
         	}
         	return bean;
 		} catch (Exception e) {
@@ -343,6 +292,34 @@ public class BeanUtils {
 		}
     }
 
+    /**
+     * 预先解析的属性写入器（类型不匹配时按mapToBean规则转换，null值忽略），供批量映射复用
+     * @param clazz
+     * @param propertyName
+     * @return 属性不存在（或无读写方法）返回null
+     */
+    public static BiConsumer<Object, Object> getPropertyWriter(Class<?> clazz, String propertyName) {
+    	BeanPropertyAccessor accessor;
+    	try {
+    		accessor = getCachePropertyAccessors(clazz).get(propertyName);
+    	} catch (IntrospectionException e) {
+    		throw new RuntimeException(e);
+    	}
+    	if(accessor == null)return null;
+    	final Class<?> propertyType = accessor.getPropertyType();
+    	return (bean, value) -> {
+    		if(value == null)return;
+    		if(propertyType != value.getClass() && !propertyType.isAssignableFrom(value.getClass())){						
+    			value = toPrimitiveValue(value.toString(), propertyType);
+    		}
+    		accessor.set(bean, value);
+    	};
+    }
+    
+    public static <T> T newInstance(Class<T> clazz) {
+    	return clazz.cast(getInstantiator(clazz).get());
+    }
+
     public static Map<String, Object> beanToMap(Object bean) {
     	return beanToMap(bean, false,false);
     }
@@ -354,18 +331,17 @@ public class BeanUtils {
     public static Map<String, Object> beanToMap(Object bean,boolean recursive,boolean dateFormat) {
         Map<String, Object> returnMap = new HashMap<String, Object>();
         try {
-            Map<String, PropertyDescriptor> descriptors = getCachePropertyDescriptors(bean.getClass());
-            for (PropertyDescriptor descriptor : descriptors.values()) {
-                String propertyName = descriptor.getName();
+            Map<String, BeanPropertyAccessor> accessors = getCachePropertyAccessors(bean.getClass());
+            for (BeanPropertyAccessor accessor : accessors.values()) {
+                String propertyName = accessor.getName();
                 if(CLASS_PROP_NAME.equalsIgnoreCase(propertyName))continue;
-                Method readMethod = descriptor.getReadMethod();
-                Object result = readMethod.invoke(bean, new Object[0]);
+                Object result = accessor.get(bean);
                 if (result != null) {
                 	String className = result.getClass().getName();
                 	if(dynaProxyClassKeys.stream().anyMatch(o -> className.contains(o))) {
                 		continue;
                 	}
-                	if(dateFormat && descriptor.getPropertyType() == Date.class) {
+                	if(dateFormat && accessor.getPropertyType() == Date.class) {
                 		Field field = CachingFieldUtils.getField(bean.getClass(), propertyName);
                 		if(field == null)continue;
                 		if(field.isAnnotationPresent(JsonFormat.class)) {
@@ -409,86 +385,38 @@ public class BeanUtils {
     public static void copy(Map<String, Object> src,Object dist){
     	if(src == null || src.isEmpty() || dist == null)return;
     	try {
-    		Map<String, PropertyDescriptor> descriptors = getCachePropertyDescriptors(dist.getClass());
-            for (PropertyDescriptor descriptor : descriptors.values()) {
-                String propertyName = descriptor.getName();
+    		Map<String, BeanPropertyAccessor> accessors = getCachePropertyAccessors(dist.getClass());
+            for (BeanPropertyAccessor accessor : accessors.values()) {
+                String propertyName = accessor.getName();
                 if(CLASS_PROP_NAME.equalsIgnoreCase(propertyName))continue;
-                if(!src.containsKey(propertyName))continue;
                 Object value = src.get(propertyName);
                 if(value == null)continue;
-                value = toAdaptTypeValue(value.getClass(), value, descriptor.getPropertyType());
-                descriptor.getWriteMethod().invoke(dist, value);
+                value = toAdaptTypeValue(value.getClass(), value, accessor.getPropertyType());
+                accessor.set(dist, value);
             }
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
     }
 
-    private static  Map<String, PropertyDescriptor> getCachePropertyDescriptors(Class<?> clazz) throws IntrospectionException {
-        String canonicalName = clazz.getCanonicalName();
-        Map<String, PropertyDescriptor> map = cache.get(canonicalName);
-
-        if (map == null) {
-            map = doCacheClass(clazz, canonicalName);
-        }
-
-        return map;
+    private static BeanCopier getCopier(Class<?> srcClass, Class<?> destClass, boolean deepCopy, boolean ignoreNull) throws IntrospectionException {
+    	BeanCopier[] copiers = ClassMetadata.of(srcClass).getCopiers(destClass);
+    	int index = (deepCopy ? 2 : 0) + (ignoreNull ? 1 : 0);
+    	BeanCopier copier = copiers[index];
+    	if(copier == null) {
+    		copier = new BeanCopier(destClass, getCachePropertyAccessors(srcClass), getCachePropertyAccessors(destClass), deepCopy, ignoreNull);
+    		copiers[index] = copier;
+    	}
+    	return copier;
+    }
+    
+    private static Supplier<Object> getInstantiator(Class<?> clazz) {
+    	return ClassMetadata.of(clazz).getInstantiator();
     }
 
-	/**
-	 * @param clazz
-	 * @param canonicalName
-	 * @return
-	 * @throws IntrospectionException
-	 */
-	private synchronized static Map<String, PropertyDescriptor> doCacheClass(Class<?> clazz, String canonicalName)
-			throws IntrospectionException {
-		if(cache.containsKey(canonicalName))return cache.get(canonicalName);
-		
-		Map<String, PropertyDescriptor> map = new ConcurrentHashMap<>();
-		
-		List<String> fieldNames = new ArrayList<>();
-
-		BeanInfo srcBeanInfo = Introspector.getBeanInfo(clazz);
-
-		PropertyDescriptor[] descriptors = srcBeanInfo.getPropertyDescriptors();
-		for (PropertyDescriptor descriptor : descriptors) {
-			
-			if("class".equals(descriptor.getName()))continue;
-			if("serialVersionUID".equals(descriptor.getName()))continue;
-			
-			fieldNames.add(descriptor.getName());
-			
-		    Method readMethod = descriptor.getReadMethod();
-		    Method writeMethod = descriptor.getWriteMethod();
-
-		    String name = descriptor.getName();
-
-		    if (readMethod == null)
-		        try {
-		            readMethod = clazz.getMethod("get" + name.substring(0, 1).toUpperCase() + name.substring(1));
-
-		            descriptor.setReadMethod(readMethod);
-		        } catch (NoSuchMethodException | SecurityException e) {
-		        }
-
-		    if (writeMethod == null)
-		        try {
-		            writeMethod = clazz.getMethod("set" + name.substring(0, 1).toUpperCase() + name.substring(1), descriptor.getPropertyType());
-
-		            descriptor.setWriteMethod(writeMethod);
-		        } catch (NoSuchMethodException | SecurityException e) {
-		        }
-
-		    if (readMethod != null && writeMethod != null) {
-		        map.put(descriptor.getName(), descriptor);
-		    }
-		}
-
-		cache.put(canonicalName, map);
-		fieldCache.put(canonicalName, fieldNames);
-		return map;
-	}
+    private static  Map<String, BeanPropertyAccessor> getCachePropertyAccessors(Class<?> clazz) throws IntrospectionException {
+        return ClassMetadata.of(clazz).getPropertyAccessors();
+    }
 	
 	
 	public static Class<?> getFieldGenericType(Field field){
@@ -572,13 +500,17 @@ public class BeanUtils {
        );   
    }
    
+   static boolean isJdkType(Class<?> clazz) {
+	   return jdkPackagePrefixs.stream().anyMatch(prefix -> clazz.getName().startsWith(prefix));
+   }
+   
    /**
     * 获取泛型类
     * @param objectClass
     * @param fieldName
     * @return
     */
-	private static Class<?> getGenericType(Class<?> objectClass, String fieldName) {
+	static Class<?> getGenericType(Class<?> objectClass, String fieldName) {
 		try {
 			Field field = FieldUtils.getField(objectClass, fieldName, true);
 			Type genericType = field.getGenericType();
@@ -16,10 +16,6 @@
 package org.dromara.mendmix.common.util;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.apache.commons.lang3.reflect.FieldUtils;
 
 /**
  * @description <br>
@@ -28,24 +24,9 @@ import org.apache.commons.lang3.reflect.FieldUtils;
  */
 public class CachingFieldUtils {
 
-	private static Map<String, Map<String, Field>> fieldCacheHub = new HashMap<>();
-
 	public static Field getField(final Class<?> cls, final String fieldName) {
-		String className = cls.getName();
 		try {
-			Field fileld;
-			if (!fieldCacheHub.containsKey(className) || !fieldCacheHub.get(className).containsKey(fieldName)) {
-				synchronized (fieldCacheHub) {
-					fileld = FieldUtils.getField(cls, fieldName, true);
-					if (!fieldCacheHub.containsKey(className)) {
-						fieldCacheHub.put(className, new HashMap<>());
-					}
-					fieldCacheHub.get(className).put(fieldName, fileld);
-				}
-			} else {
-				fileld = fieldCacheHub.get(className).get(fieldName);
-			}
-			return fileld;
+			return ClassMetadata.of(cls).getField(fieldName);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
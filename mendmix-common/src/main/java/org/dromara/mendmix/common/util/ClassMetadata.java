@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.common.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+/**
+ * 类反射元数据
+ * <br>
+ * 基于ClassValue按类存储，读取无锁，各项元数据首次使用时计算（并发首次计算结果等价，无需加锁）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class ClassMetadata {
+
+	private static final ClassValue<ClassMetadata> registry = new ClassValue<ClassMetadata>() {
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+
+	private final Class<?> type;
+	private volatile Map<String, BeanPropertyAccessor> propertyAccessors;
+	private volatile Supplier<Object> instantiator;
+	private final Map<String, Optional<Field>> fields = new ConcurrentHashMap<>();
+	private final Map<String, Method> signatureMethods = new ConcurrentHashMap<>();
+	//目标类型 -> 复制器（按deepCopy、ignoreNull组合），存于目标类的ClassValue中，不强引用目标类（避免类加载器泄漏）
+	private final ClassValue<BeanCopier[]> copiers = new ClassValue<BeanCopier[]>() {
+		@Override
+		protected BeanCopier[] computeValue(Class<?> destClass) {
+			return new BeanCopier[4];
+		}
+	};
+
+	private ClassMetadata(Class<?> type) {
+		this.type = type;
+	}
+
+	static ClassMetadata of(Class<?> clazz) {
+		return registry.get(clazz);
+	}
+
+	/**
+	 * 同时具备读写方法的属性
+	 */
+	Map<String, BeanPropertyAccessor> getPropertyAccessors() throws IntrospectionException {
+		Map<String, BeanPropertyAccessor> accessors = propertyAccessors;
+		if(accessors == null) {
+			accessors = introspect();
+			propertyAccessors = accessors;
+		}
+		return accessors;
+	}
+
+	Supplier<Object> getInstantiator() {
+		Supplier<Object> supplier = instantiator;
+		if(supplier == null) {
+			supplier = BeanPropertyAccessor.createInstantiator(type);
+			instantiator = supplier;
+		}
+		return supplier;
+	}
+
+	/**
+	 * 字段（含父类，已设置可访问），不存在返回null
+	 */
+	Field getField(String fieldName) {
+		Optional<Field> field = fields.get(fieldName);
+		if(field == null) {
+			field = Optional.ofNullable(FieldUtils.getField(type, fieldName, true));
+			fields.put(fieldName, field);
+		}
+		return field.orElse(null);
+	}
+
+	Method getSignatureMethod(String signature) {
+		return signatureMethods.get(signature);
+	}
+
+	void putSignatureMethod(String signature, Method method) {
+		signatureMethods.put(signature, method);
+	}
+
+	BeanCopier[] getCopiers(Class<?> destClass) {
+		return copiers.get(destClass);
+	}
+
+	private Map<String, BeanPropertyAccessor> introspect() throws IntrospectionException {
+		Map<String, BeanPropertyAccessor> map = new LinkedHashMap<>();
+		PropertyDescriptor[] descriptors = Introspector.getBeanInfo(type).getPropertyDescriptors();
+		for (PropertyDescriptor descriptor : descriptors) {
+			String name = descriptor.getName();
+			if("class".equals(name))continue;
+			if("serialVersionUID".equals(name))continue;
+
+			Method readMethod = descriptor.getReadMethod();
+			Method writeMethod = descriptor.getWriteMethod();
+
+			if (readMethod == null)
+				try {
+					readMethod = type.getMethod("get" + name.substring(0, 1).toUpperCase() + name.substring(1));
+				} catch (NoSuchMethodException | SecurityException e) {
+				}
+
+			if (writeMethod == null)
+				try {
+					writeMethod = type.getMethod("set" + name.substring(0, 1).toUpperCase() + name.substring(1), descriptor.getPropertyType());
+				} catch (NoSuchMethodException | SecurityException e) {
+				}
+
+			if (readMethod != null && writeMethod != null && descriptor.getPropertyType() != null) {
+				map.put(name, new BeanPropertyAccessor(name, descriptor.getPropertyType(), readMethod, writeMethod));
+			}
+		}
+		return Collections.unmodifiableMap(map);
+	}
+}
@@ -16,11 +16,11 @@
 package org.dromara.mendmix.common.util;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -34,6 +34,7 @@ import org.dromara.mendmix.common.http.HttpRequestEntity;
 import org.dromara.mendmix.common.http.HttpResponseEntity;
 import org.dromara.mendmix.common.http.JdkHttpClient;
 import org.dromara.mendmix.common.http.OkHttp3Client;
+import org.dromara.mendmix.common.http.ResponseBodyHandler;
 
 
 /**
@@ -108,13 +109,70 @@ public class HttpUtils {
 				logBuilder.append("\nexception:").append(e.getMessage());
 				logBuilder.append("\n---------------backend request trace end--------------------");
 			}
-			if(e instanceof java.net.ConnectException) {
-				return new HttpResponseEntity(503, "ConnectException:" + e.getMessage());
-			}else if(e instanceof java.net.UnknownHostException) {
-				return new HttpResponseEntity(400, "UnknownHostException:" + e.getMessage());
+			return toErrorResponse(e);
+		}
+	}
+	
+	/**
+	 * 流式处理响应体（大文件下载、直接反序列化等）
+	 * @param requestEntity
+	 * @param handler 见{@link ResponseBodyHandler}内置实现
+	 * @return
+	 */
+	public static <T> T execute(HttpRequestEntity requestEntity,ResponseBodyHandler<T> handler) {
+		if(StringUtils.isBlank(requestEntity.getUri())) {
+			throw new IllegalArgumentException("request uri is missing");
+		}
+		requestEntity.uri(HostMappingHolder.resolveUrl(requestEntity.getUri()));
+		try {
+			return provider.execute(requestEntity, handler);
+		} catch (IOException e) {
+			HttpResponseEntity errorResponse = toErrorResponse(e);
+			throw new MendmixBaseException(errorResponse.getStatusCode(), errorResponse.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 异步执行，IO异常与同步方式一样转换为对应状态码的响应
+	 * @param requestEntity
+	 * @return
+	 */
+	public static CompletableFuture<HttpResponseEntity> executeAsync(HttpRequestEntity requestEntity) {
+		if(StringUtils.isBlank(requestEntity.getUri())) {
+			throw new IllegalArgumentException("request uri is missing");
+		}
+		requestEntity.uri(HostMappingHolder.resolveUrl(requestEntity.getUri()));
+		StringBuilder logBuilder = logger.isDebugEnabled() ? requestEntity.buildRequestLog() : null;
+		return provider.executeAsync(requestEntity).handle((resp, ex) -> {
+			if(ex == null) {
+				if(logBuilder != null) {
+					resp.appendResponseLog(logBuilder);
+				}
+				return resp;
+			}
+			Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+			if(!(cause instanceof IOException)) {
+				throw ex instanceof CompletionException ? (CompletionException)ex : new CompletionException(cause);
 			}
-			return new HttpResponseEntity(400, e.getMessage());
+			return toErrorResponse((IOException) cause);
+		});
+	}
+	
+	/**
+	 * 连接池状态
+	 * @return
+	 */
+	public static Map<String, Object> poolStats() {
+		return provider.poolStats();
+	}
+	
+	private static HttpResponseEntity toErrorResponse(IOException e) {
+		if(e instanceof java.net.ConnectException) {
+			return new HttpResponseEntity(503, "ConnectException:" + e.getMessage());
+		}else if(e instanceof java.net.UnknownHostException) {
+			return new HttpResponseEntity(400, "UnknownHostException:" + e.getMessage());
 		}
+		return new HttpResponseEntity(400, e.getMessage());
 	}
 
 	
@@ -124,54 +182,34 @@ public class HttpUtils {
 		return execute(requestEntity);
 	}
 	
+	/**
+	 * 下载文件
+	 * <br>
+	 * 与其他请求一样经过当前HttpClientProvider：应用host映射，读超时（mendmix-cloud.httpclient.readTimeout）为两次读取间的最大间隔而非总耗时，
+	 * 服务端长时间无数据返回时下载失败
+	 * @param fileURL
+	 * @param saveDir
+	 * @return 保存路径
+	 */
 	public static String downloadFile(String fileURL, String saveDir){
-		HttpURLConnection httpConn = null;
-		FileOutputStream outputStream = null;
-		try {
-			URL url = new URL(fileURL);
-	        httpConn = (HttpURLConnection) url.openConnection();
-	        int responseCode = httpConn.getResponseCode();
-	 
-	        if (responseCode == HttpURLConnection.HTTP_OK) {
-	            String fileName = "";
-	            String disposition = httpConn.getHeaderField("Content-Disposition");
-	 
-	            if (disposition != null) {
-	                int index = disposition.indexOf("filename=");
-	                if (index > 0) {
-	                    fileName = disposition.substring(index + 10,
-	                            disposition.length() - 1);
-	                }
-	            } else {
-	                fileName = fileURL.substring(fileURL.lastIndexOf("/") + 1,
-	                        fileURL.length());
-	            }
-	            InputStream inputStream = httpConn.getInputStream();
-	            String saveFilePath = saveDir + File.separator + fileName;
-	             
-	            outputStream = new FileOutputStream(saveFilePath);
-	 
-	            int bytesRead = -1;
-	            byte[] buffer = new byte[2048];
-	            while ((bytesRead = inputStream.read(buffer)) != -1) {
-	                outputStream.write(buffer, 0, bytesRead);
-	            }
-	 
-	            outputStream.close();
-	            inputStream.close();
-	            
-	            return saveFilePath;
-	        } else {
-	        	throw new MendmixBaseException(responseCode, "下载失败");
-	        }
-		} catch (IOException e) {
-			throw new MendmixBaseException(500, "下载失败", e);
-		}finally {
-			try {if( outputStream!= null) outputStream.close();} catch (Exception e2) {}
-			try {if( httpConn!= null) httpConn.disconnect();} catch (Exception e2) {}
-		}
-        
-       
-    }
+		return execute(HttpRequestEntity.get(fileURL), (response, body) -> {
+			if (response.getStatusCode() != HttpURLConnection.HTTP_OK) {
+				throw new MendmixBaseException(response.getStatusCode(), "下载失败");
+			}
+			String fileName = "";
+			String disposition = response.getHeader("Content-Disposition");
+			if (disposition != null) {
+				int index = disposition.indexOf("filename=");
+				if (index > 0) {
+					fileName = disposition.substring(index + 10, disposition.length() - 1);
+				}
+			} else {
+				fileName = fileURL.substring(fileURL.lastIndexOf("/") + 1, fileURL.length());
+			}
+			String saveFilePath = saveDir + File.separator + fileName;
+			ResponseBodyHandler.ofFile(new File(saveFilePath)).handle(response, body);
+			return saveFilePath;
+		});
+	}
 
 }
@@ -129,8 +129,6 @@ public class ReflectUtils {
 
 	private static final ConcurrentMap<String, Class<?>> NAME_CLASS_CACHE      = new ConcurrentHashMap<String, Class<?>>();
 
-	private static final ConcurrentMap<String, Method> Signature_METHODS_CACHE = new ConcurrentHashMap<String, Method>();
-
 	public static boolean isPrimitives(Class<?> cls) {
 		if (cls.isArray()) {
 			return isPrimitive(cls.getComponentType());
@@ -863,7 +861,9 @@ public class ReflectUtils {
 		if (parameterTypes != null && parameterTypes.length > 0) {
 			signature = methodName + StringUtils.join(parameterTypes);
 		}
-		Method method = Signature_METHODS_CACHE.get(signature);
+		//按类缓存，避免不同类相同签名互相覆盖
+		ClassMetadata metadata = ClassMetadata.of(clazz);
+		Method method = metadata.getSignatureMethod(signature);
 		if (method != null) {
 			return method;
 		}
@@ -893,7 +893,7 @@ public class ReflectUtils {
 			method = clazz.getMethod(methodName, types);
 
 		}
-		Signature_METHODS_CACHE.put(signature, method);
+		metadata.putSignatureMethod(signature, method);
 		return method;
 	}
 
@@ -1120,6 +1120,10 @@ public class ReflectUtils {
 	 */
 	public static Object getObjectValue(Object target,String propertyName){
 		try {
+			BeanPropertyAccessor accessor = ClassMetadata.of(target.getClass()).getPropertyAccessors().get(propertyName);
+			if(accessor != null) {
+				return accessor.get(target);
+			}
 			PropertyDescriptor descriptor = new PropertyDescriptor(propertyName, target.getClass());
 			return descriptor.getReadMethod().invoke(target);
 		} catch (Exception e) {
@@ -16,8 +16,17 @@
 package org.dromara.mendmix.common.util;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.dromara.mendmix.common.serializer.ByteBufferPool;
+import org.dromara.mendmix.common.serializer.FSTSerializer;
+import org.dromara.mendmix.common.serializer.JavaSerializer;
 import org.dromara.mendmix.common.serializer.KryoPoolSerializer;
+import org.dromara.mendmix.common.serializer.KryoSerializer;
+import org.dromara.mendmix.common.serializer.Lz4Codec;
+import org.dromara.mendmix.common.serializer.Serializer;
 
 /**
  * @description <br>
@@ -26,7 +35,42 @@ import org.dromara.mendmix.common.serializer.KryoPoolSerializer;
  */
 public class SerializeUtils {
 
-	static KryoPoolSerializer serializer = new KryoPoolSerializer();
+	private static Map<String, Serializer> serializers = new ConcurrentHashMap<>();
+
+	static Serializer serializer;
+	//超过该大小启用LZ4压缩，小于等于0不压缩
+	private static int compressThreshold = ResourceUtils.getInt("mendmix-cloud.serializer.compressThreshold", 0);
+
+	static {
+		register(new KryoPoolSerializer());
+		register(new KryoSerializer());
+		register(new JavaSerializer());
+		try {
+			Class.forName("de.ruedigermoeller.serialization.FSTObjectOutput");
+			register(new FSTSerializer());
+		} catch (ClassNotFoundException e) {}
+		serializer = getSerializer(ResourceUtils.getProperty("mendmix-cloud.serializer.type", "kryo_pool_ser"));
+		if(compressThreshold > 0 && !Lz4Codec.isAvailable()) {
+			compressThreshold = 0;
+		}
+	}
+
+	public static void register(Serializer serializer) {
+		serializers.put(serializer.name(), serializer);
+	}
+
+	public static Serializer getSerializer(String name) {
+		Serializer serializer = serializers.get(name);
+		if(serializer == null) {
+			throw new IllegalArgumentException("serializer[" + name + "] not registered");
+		}
+		return serializer;
+	}
+
+	public static void setDefaultSerializer(String name) {
+		serializer = getSerializer(name);
+	}
+
     /**
      * 序列化
      *
@@ -35,7 +79,58 @@ public class SerializeUtils {
      */
     public static byte[] serialize(Object object) {
     	try {
-			return serializer.serialize(object);
+    		byte[] bytes = serializer.serialize(object);
+    		if(compressThreshold <= 0 || bytes.length < compressThreshold) {
+    			return bytes;
+    		}
+    		ByteBuffer compressed = ByteBufferPool.acquire(bytes.length);
+    		try {
+    			compressed = Lz4Codec.compress(ByteBuffer.wrap(bytes), compressed);
+    			//压缩后无收益保留原始数据
+    			if(compressed.position() >= bytes.length) {
+    				return bytes;
+    			}
+    			compressed.flip();
+    			byte[] result = new byte[compressed.remaining()];
+    			compressed.get(result);
+    			return result;
+    		} finally {
+    			ByteBufferPool.release(compressed);
+    		}
+    	} catch (IOException e) {
+    		throw new RuntimeException(e);
+    	}
+    }
+
+    /**
+     * 序列化写入缓冲区
+     * @param object
+     * @param buffer 写模式
+     * @return 写入后的缓冲区（可能扩容）
+     */
+    public static ByteBuffer serialize(Object object,ByteBuffer buffer) {
+    	try {
+    		int start = buffer.position();
+    		buffer = serializer.serialize(object, buffer);
+    		if(compressThreshold <= 0 || buffer.position() - start < compressThreshold) {
+    			return buffer;
+    		}
+    		ByteBuffer compressed = ByteBufferPool.acquire(buffer.position() - start);
+    		try {
+    			ByteBuffer src = buffer.duplicate();
+    			src.flip().position(start);
+    			compressed = Lz4Codec.compress(src, compressed);
+    			//压缩后无收益保留原始数据
+    			if(compressed.position() >= buffer.position() - start) {
+    				return buffer;
+    			}
+    			compressed.flip();
+    			buffer.position(start);
+    			buffer = ByteBufferPool.ensureCapacity(buffer, compressed.remaining());
+    			return buffer.put(compressed);
+    		} finally {
+    			ByteBufferPool.release(compressed);
+    		}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
@@ -48,10 +143,36 @@ public class SerializeUtils {
      * @return
      */
     public static Object deserialize(byte[] bytes) {
+    	if(Lz4Codec.isCompressed(bytes)) {
+    		return deserialize(ByteBuffer.wrap(bytes));
+    	}
     	try {
 			return serializer.deserialize(bytes);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
     }
+
+    /**
+     * 反序列化缓冲区position~limit区间数据
+     * @param buffer 读模式
+     * @return
+     */
+    public static Object deserialize(ByteBuffer buffer) {
+    	try {
+    		if(!Lz4Codec.isCompressed(buffer)) {
+    			return serializer.deserialize(buffer);
+    		}
+    		ByteBuffer decompressed = ByteBufferPool.acquire(Lz4Codec.originalLength(buffer));
+    		try {
+    			decompressed = Lz4Codec.decompress(buffer, decompressed);
+    			decompressed.flip();
+    			return serializer.deserialize(decompressed);
+    		} finally {
+    			ByteBufferPool.release(decompressed);
+    		}
+    	} catch (IOException e) {
+    		throw new RuntimeException(e);
+    	}
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dromara.mendmix.common.lock.redis.RedisDistributeLock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * redis锁重入、看门狗及延迟解锁（模拟redis脚本）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class RedisDistributeLockTest {
+
+	static {
+		//需在锁类初始化前设置
+		System.setProperty("mendmix-cloud.lock.redis.watchdogEnabled", "true");
+		System.setProperty("mendmix-cloud.lock.redis.notifyEnabled", "false");
+	}
+	
+	private MockRedisTemplate redisTemplate = new MockRedisTemplate();
+	
+	@Before
+	public void before() {
+		RedisDistributeLock.setRedisTemplate(redisTemplate);
+	}
+	
+	@After
+	public void after() {
+		RedisDistributeLock.setRedisTemplate(null);
+	}
+	
+	@Test
+	public void testReentrant() {
+		RedisDistributeLock lock = new RedisDistributeLock("test:reentrant");
+		assertTrue(lock.tryLock());
+		assertTrue(lock.tryLock());
+		assertEquals(1, redisTemplate.lockCount.get());
+		
+		lock.unlock();
+		assertFalse(lock.isIdle());
+		assertEquals(0, redisTemplate.unlockCount.get());
+		lock.unlock();
+		assertTrue(lock.isIdle());
+		assertEquals(1, redisTemplate.unlockCount.get());
+	}
+	
+	@Test
+	public void testOtherThread() throws InterruptedException {
+		RedisDistributeLock lock = new RedisDistributeLock("test:other");
+		assertTrue(lock.tryLock());
+		AtomicBoolean locked = new AtomicBoolean(true);
+		Thread thread = new Thread(() -> {
+			locked.set(lock.tryLock());
+			//非持有者解锁不生效
+			lock.unlock();
+		});
+		thread.start();
+		thread.join();
+		
+		assertFalse(locked.get());
+		assertFalse(lock.isIdle());
+		lock.unlock();
+		assertTrue(lock.isIdle());
+	}
+	
+	@Test
+	public void testWatchdogStopAfterUnlock() throws InterruptedException {
+		//续期间隔100ms
+		RedisDistributeLock lock = new RedisDistributeLock("test:watchdog", 300);
+		assertTrue(lock.tryLock());
+		Thread.sleep(450);
+		assertTrue(redisTemplate.renewCount.get() >= 2);
+		//续期后本地持有未过期，重入不访问redis
+		assertTrue(lock.tryLock());
+		assertEquals(1, redisTemplate.lockCount.get());
+		
+		lock.unlock();
+		lock.unlock();
+		assertTrue(lock.isIdle());
+		int renewCount = redisTemplate.renewCount.get();
+		Thread.sleep(300);
+		assertEquals(renewCount, redisTemplate.renewCount.get());
+	}
+	
+	@Test
+	public void testDelayUnlock() throws InterruptedException {
+		RedisDistributeLock lock = new RedisDistributeLock("test:delay");
+		assertTrue(lock.tryLock());
+		assertTrue(lock.tryLock());
+		lock.unlock(1000);
+		assertEquals(1, redisTemplate.delayUnlockCount.get());
+		assertFalse(lock.isIdle());
+		
+		//本地持有已清除，同一线程经redis重新获取
+		assertTrue(lock.tryLock());
+		assertEquals(2, redisTemplate.lockCount.get());
+		AtomicBoolean locked = new AtomicBoolean(true);
+		Thread thread = new Thread(() -> locked.set(lock.tryLock()));
+		thread.start();
+		thread.join();
+		assertFalse(locked.get());
+		
+		lock.unlock();
+		assertTrue(lock.isIdle());
+	}
+	
+	/**
+	 * 按脚本内容模拟加解锁（不处理存活时间）
+	 */
+	private static class MockRedisTemplate extends StringRedisTemplate {
+		
+		final Map<String, String> store = new ConcurrentHashMap<>();
+		final AtomicInteger lockCount = new AtomicInteger();
+		final AtomicInteger unlockCount = new AtomicInteger();
+		final AtomicInteger delayUnlockCount = new AtomicInteger();
+		final AtomicInteger renewCount = new AtomicInteger();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+			String lua = script.getScriptAsString();
+			String key = keys.get(0);
+			String owner = (String) args[0];
+			long result;
+			if(lua.contains("'setnx'")) {
+				lockCount.incrementAndGet();
+				result = store.putIfAbsent(key, owner) == null || owner.equals(store.get(key)) ? 1 : 0;
+			}else if(lua.startsWith("if redis.call('get'")) {
+				renewCount.incrementAndGet();
+				result = owner.equals(store.get(key)) ? 1 : 0;
+			}else {
+				boolean delay = !lua.contains("'del'");
+				(delay ? delayUnlockCount : unlockCount).incrementAndGet();
+				String value = store.get(key);
+				if(owner.equals(value)) {
+					if(!delay)store.remove(key);
+					result = 1;
+				}else {
+					result = value == null ? 0 : -1;
+				}
+			}
+			return (T) Long.valueOf(result);
+		}
+
+		@Override
+		public Boolean hasKey(String key) {
+			return store.containsKey(key);
+		}
+
+		@Override
+		public void convertAndSend(String channel, Object message) {}
+	}
+}
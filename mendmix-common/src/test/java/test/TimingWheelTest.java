@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.dromara.mendmix.common.async.TimingWheel;
+import org.dromara.mendmix.common.async.TimingWheel.Timeout;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 时间轮调度、取消及停止
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class TimingWheelTest {
+
+	private TimingWheel timingWheel = new TimingWheel("test", 10, 8, 100);
+	
+	@After
+	public void after() {
+		timingWheel.stop();
+	}
+	
+	@Test
+	public void testFire() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(2);
+		//超过一圈的延迟
+		Timeout timeout = timingWheel.schedule(latch::countDown, 150, TimeUnit.MILLISECONDS);
+		timingWheel.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+		
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertTrue(timeout.isExpired());
+		assertEquals(2, timingWheel.getFiredCount());
+		assertEquals(0, timingWheel.getPendingCount());
+	}
+	
+	@Test
+	public void testNotFireEarly() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel("test-precision", 1, 8, 100);
+		try {
+			AtomicLong firedAt = new AtomicLong();
+			CountDownLatch latch = new CountDownLatch(1);
+			long start = System.nanoTime();
+			wheel.schedule(() -> {
+				firedAt.set(System.nanoTime());
+				latch.countDown();
+			}, 25, TimeUnit.MILLISECONDS);
+			
+			assertTrue(latch.await(2, TimeUnit.SECONDS));
+			assertTrue(firedAt.get() - start >= TimeUnit.MILLISECONDS.toNanos(25));
+		} finally {
+			wheel.stop();
+		}
+	}
+	
+	@Test
+	public void testCancel() throws InterruptedException {
+		AtomicBoolean fired = new AtomicBoolean();
+		Timeout timeout = timingWheel.schedule(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+		assertTrue(timeout.cancel());
+		assertFalse(timeout.cancel());
+		
+		Thread.sleep(200);
+		assertFalse(fired.get());
+		assertTrue(timeout.isCancelled());
+		assertEquals(0, timingWheel.getPendingCount());
+	}
+	
+	@Test
+	public void testMaxPending() {
+		TimingWheel wheel = new TimingWheel("test-bounded", 10, 8, 1);
+		try {
+			assertNotNull(wheel.schedule(() -> {}, 1, TimeUnit.MINUTES));
+			assertNull(wheel.schedule(() -> {}, 1, TimeUnit.MINUTES));
+			assertEquals(1, wheel.getDroppedCount());
+		} finally {
+			wheel.stop();
+		}
+	}
+	
+	@Test
+	public void testStopReturnUnprocessed() throws InterruptedException {
+		AtomicInteger fired = new AtomicInteger();
+		Runnable task = fired::incrementAndGet;
+		timingWheel.schedule(task, 1, TimeUnit.MINUTES);
+		Timeout cancelled = timingWheel.schedule(task, 1, TimeUnit.MINUTES);
+		cancelled.cancel();
+		//等待转入时间轮槽
+		Thread.sleep(50);
+		timingWheel.schedule(task, 1, TimeUnit.MINUTES);
+		
+		List<Timeout> unprocessed = timingWheel.stop();
+		assertEquals(2, unprocessed.size());
+		assertSame(task, unprocessed.get(0).getTask());
+		assertEquals(0, timingWheel.getPendingCount());
+		assertEquals(0, fired.get());
+		
+		assertNull(timingWheel.schedule(task, 0, TimeUnit.MILLISECONDS));
+		assertTrue(timingWheel.stop().isEmpty());
+	}
+	
+	@Test
+	public void testStopInTask() throws InterruptedException {
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		timingWheel.schedule(() -> {
+			try {
+				timingWheel.stop();
+			} catch (Throwable e) {
+				error.set(e);
+			}
+			latch.countDown();
+		}, 0, TimeUnit.MILLISECONDS);
+		
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertTrue(error.get() instanceof IllegalStateException);
+	}
+}
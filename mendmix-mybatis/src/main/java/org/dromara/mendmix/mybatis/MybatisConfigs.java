@@ -64,6 +64,10 @@ public class MybatisConfigs {
 	public static final boolean DATA_PERM_MULTI_SCOPE_MODE = ResourceUtils.getBoolean("mendmix-cloud.mybatis.dataPermission.multiScopeMode");
 	public static final boolean DATA_PERM_STRICT_MODE = ResourceUtils.getBoolean("mendmix-cloud.mybatis.dataPermission.strictMode");
 	public static final boolean DATA_PERM_INNER_JOIN_USING_ON = ResourceUtils.getBoolean("mendmix-cloud.mybatis.dataPermission.innerJoinUsingOn",true);
+	//权限条件值使用绑定参数
+	public static final boolean DATA_PERM_BIND_PARAMETER = ResourceUtils.getBoolean("mendmix-cloud.mybatis.dataPermission.bindParameter.enabled",false);
+	public static final int DATA_PERM_BIND_PARAMETER_MAX_SIZE = ResourceUtils.getInt("mendmix-cloud.mybatis.dataPermission.bindParameter.maxSize", 1000);
+	public static final boolean DATA_PERM_BIND_PARAMETER_PADDING = ResourceUtils.getBoolean("mendmix-cloud.mybatis.dataPermission.bindParameter.inPadding",true);
 	
 	public static final int DB_OFFSET = ResourceUtils.getInt("mendmix-cloud.using-db-time.offset", 0);
 	
@@ -24,6 +24,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.CustomRequestHeaders;
 import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.ThreadLocalContext.Key;
 import org.dromara.mendmix.common.model.AuthUser;
 import org.dromara.mendmix.common.model.DataPermItem;
 import org.dromara.mendmix.mybatis.datasource.DataSourceConfig;
@@ -47,23 +48,24 @@ import org.dromara.mendmix.spring.InstanceFactory;
 public class MybatisRuntimeContext {
 
 
-	private static final String CONTEXT_TRANS_ON_KEY = "_ctx_trans_on_";
-	private static final String CONTEXT_FORCE_MASTER = "_ctx_force_master_";
-	private static final String CONTEXT_DATASOURCE_KEY = "_ctx_ds_";
-	private static final String CONTEXT_DATA_PROFILE_KEY = "_ctx_dataprofile_";
-	private static final String CONTEXT_DATA_PERM_STRATEGY = "_ctx_dataperm_strategy_";
-	private static final String CONTEXT_IGNORE_ANY = "_ctx_ignore_any_";
-	private static final String CONTEXT_IGNORE_RWROUTE = "_ctx_ignore_rwroute_";
-	private static final String CONTEXT_IGNORE_REWRITE = "_ctx_ignore_rewrite_";
-	private static final String CONTEXT_IGNORE_DATA_PERM = "_ctx_ignore_dataperm_";
-	private static final String CONTEXT_IGNORE_SOFT_DELETE = "_ctx_ignore_softdel_";
-	private static final String CONTEXT_IGNORE_CACHE = "_ctx_ignore_cache_";
-	private static final String CONTEXT_IGNORE_TABLE_SHARDING = "_ctx_ignore_tableSharding_";
-	private static final String CONTEXT_IGNORE_LOGGING_CHANGED = "_ctx_ignore_logging_changed_";
-	private static final String CONTEXT_REWRITE_TABLE_RULES = "_ctx_rewrite_table_rules_";
-	private static final String CONTEXT_DATASOURCE_GROUP = "_ctx_datasource_group_";
-	private static final String CONTEXT_IGNORE_OPER_PROTECT = "_ctx_ignore_operProtect_";
-	private static final String CONTEXT_MAPPER_INVOCATION_VALS = "_ctx_mapper_invocationVals_";
+	//事务、数据源路由、单次调用上下文不传递到异步线程
+	private static final Key<String> CONTEXT_TRANS_ON_KEY = ThreadLocalContext.key("_ctx_trans_on_", false);
+	private static final Key<String> CONTEXT_FORCE_MASTER = ThreadLocalContext.key("_ctx_force_master_");
+	private static final Key<DataSourceContextVals> CONTEXT_DATASOURCE_KEY = ThreadLocalContext.key("_ctx_ds_", false);
+	private static final Key<Map<String, String[]>> CONTEXT_DATA_PROFILE_KEY = ThreadLocalContext.key("_ctx_dataprofile_");
+	private static final Key<DataPermissionStrategy> CONTEXT_DATA_PERM_STRATEGY = ThreadLocalContext.key("_ctx_dataperm_strategy_");
+	private static final Key<String> CONTEXT_IGNORE_ANY = ThreadLocalContext.key("_ctx_ignore_any_");
+	private static final Key<String> CONTEXT_IGNORE_RWROUTE = ThreadLocalContext.key("_ctx_ignore_rwroute_");
+	private static final Key<String> CONTEXT_IGNORE_REWRITE = ThreadLocalContext.key("_ctx_ignore_rewrite_");
+	private static final Key<String> CONTEXT_IGNORE_DATA_PERM = ThreadLocalContext.key("_ctx_ignore_dataperm_");
+	private static final Key<String> CONTEXT_IGNORE_SOFT_DELETE = ThreadLocalContext.key("_ctx_ignore_softdel_");
+	private static final Key<String> CONTEXT_IGNORE_CACHE = ThreadLocalContext.key("_ctx_ignore_cache_");
+	private static final Key<String> CONTEXT_IGNORE_TABLE_SHARDING = ThreadLocalContext.key("_ctx_ignore_tableSharding_");
+	private static final Key<String> CONTEXT_IGNORE_LOGGING_CHANGED = ThreadLocalContext.key("_ctx_ignore_logging_changed_");
+	private static final Key<Map<String, String>> CONTEXT_REWRITE_TABLE_RULES = ThreadLocalContext.key("_ctx_rewrite_table_rules_");
+	private static final Key<String> CONTEXT_DATASOURCE_GROUP = ThreadLocalContext.key("_ctx_datasource_group_");
+	private static final Key<String> CONTEXT_IGNORE_OPER_PROTECT = ThreadLocalContext.key("_ctx_ignore_operProtect_");
+	private static final Key<OnceContextVal> CONTEXT_MAPPER_INVOCATION_VALS = ThreadLocalContext.key("_ctx_mapper_invocationVals_", false);
 	
 	public static final String PARAM_CONTEXT_NAME = "__param_cxt_name";
 	public static final String ATTR_VALUE_CONTEXT_NAME = "__attrval_cxt_name:%s:%s";
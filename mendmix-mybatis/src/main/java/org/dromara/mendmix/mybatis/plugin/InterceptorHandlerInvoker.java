@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 拦截处理器调用及耗时统计
+ * <br>
+ * onInterceptor耗时包含处理器内直接执行的查询（如分页、重写查询）
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class InterceptorHandlerInvoker {
+
+	final PluginInterceptorHandler handler;
+	private final boolean statEnabled;
+	private final LongAdder interceptCount = new LongAdder();
+	private final LongAdder interceptNanos = new LongAdder();
+	private final LongAdder finishedCount = new LongAdder();
+	private final LongAdder finishedNanos = new LongAdder();
+
+	InterceptorHandlerInvoker(PluginInterceptorHandler handler, boolean statEnabled) {
+		this.handler = handler;
+		this.statEnabled = statEnabled;
+	}
+
+	Object onInterceptor(OnceContextVal invocationVal) throws Throwable {
+		if (!statEnabled) {
+			return handler.onInterceptor(invocationVal);
+		}
+		long start = System.nanoTime();
+		try {
+			return handler.onInterceptor(invocationVal);
+		} finally {
+			interceptNanos.add(System.nanoTime() - start);
+			interceptCount.increment();
+		}
+	}
+
+	void onFinished(OnceContextVal invocationVal, Object result) {
+		if (!statEnabled) {
+			handler.onFinished(invocationVal, result);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			handler.onFinished(invocationVal, result);
+		} finally {
+			finishedNanos.add(System.nanoTime() - start);
+			finishedCount.increment();
+		}
+	}
+
+	Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>(4);
+		stats.put("interceptCount", interceptCount.sum());
+		stats.put("interceptMicros", TimeUnit.NANOSECONDS.toMicros(interceptNanos.sum()));
+		stats.put("finishedCount", finishedCount.sum());
+		stats.put("finishedMicros", TimeUnit.NANOSECONDS.toMicros(finishedNanos.sum()));
+		return stats;
+	}
+}
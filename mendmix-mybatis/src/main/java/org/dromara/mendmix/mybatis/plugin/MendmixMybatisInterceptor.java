@@ -19,9 +19,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -73,6 +76,12 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 	
 	private SqlRewriteHandler sqlRewriteHandler;
 	
+	private boolean handlerStatEnabled = ResourceUtils.getBoolean("mendmix-cloud.mybatis.interceptor.statEnabled",false);
+	private InterceptorHandlerInvoker[] handlerInvokers;
+	//mappedStatementId -> 适用的处理器
+	private Map<String, InterceptorHandlerInvoker[]> statementHandlerChains = new ConcurrentHashMap<>();
+	private volatile boolean started;
+	
 	private static boolean cacheEnabled,rwRouteEnabled;
 	
 	private DataSource dataSource;
@@ -110,10 +119,6 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 			this.interceptorHandlers.add(new TableShardingHandler());
 		}
 		
-		if(ResourceUtils.getBoolean("mendmix-cloud.mybatis.tableshard.enabled",false)) {
-			this.interceptorHandlers.add(new TableShardingHandler());
-		}
-		
 		if(ResourceUtils.getBoolean("mendmix-cloud.mybatis.operProtect.enabled",false)) {
 			this.interceptorHandlers.add(new SensitiveOperProtectHandler());
 		}
@@ -130,6 +135,10 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 				return Integer.compare(o1.interceptorOrder(), o2.interceptorOrder());
 			}
 		});
+		this.handlerInvokers = new InterceptorHandlerInvoker[interceptorHandlers.size()];
+		for (int i = 0; i < handlerInvokers.length; i++) {
+			handlerInvokers[i] = new InterceptorHandlerInvoker(interceptorHandlers.get(i), handlerStatEnabled);
+		}
 	}
 
 	private void initCustomInterceptorHandlers() {
@@ -154,12 +163,13 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 		}
 		String groupName = this.groupName;
 		OnceContextVal invocationVal = new OnceContextVal(groupName,invocation);
+		InterceptorHandlerInvoker[] handlerChain = getHandlerChain(invocationVal);
 		Object result = null;
 		boolean cacheHited = false;
-		for (PluginInterceptorHandler handler : interceptorHandlers) {
-			result = handler.onInterceptor(invocationVal);
+		for (InterceptorHandlerInvoker invoker : handlerChain) {
+			result = invoker.onInterceptor(invocationVal);
 			if(result != null) {
-				cacheHited = handler.getClass() == CacheHandler.class;
+				cacheHited = invoker.handler.getClass() == CacheHandler.class;
 				break;
 			}
 		}
@@ -168,10 +178,10 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 			result = invocation.proceed();
 		}
         //
-		for (PluginInterceptorHandler handler : interceptorHandlers) {
-			if(cacheHited && handler.getClass() == CacheHandler.class)continue;
+		for (InterceptorHandlerInvoker invoker : handlerChain) {
+			if(cacheHited && invoker.handler.getClass() == CacheHandler.class)continue;
 			try {					
-				handler.onFinished(invocationVal,result);
+				invoker.onFinished(invocationVal,result);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -196,6 +206,31 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 		return result;
 	}
 
+	private InterceptorHandlerInvoker[] getHandlerChain(OnceContextVal invocationVal) {
+		//处理器未初始化完成前不缓存
+		if(!started)return handlerInvokers;
+		String statementId = invocationVal.getMappedStatement().getId();
+		InterceptorHandlerInvoker[] handlerChain = statementHandlerChains.get(statementId);
+		if(handlerChain == null) {
+			handlerChain = buildHandlerChain(invocationVal);
+			statementHandlerChains.put(statementId, handlerChain);
+		}
+		return handlerChain;
+	}
+	
+	private InterceptorHandlerInvoker[] buildHandlerChain(OnceContextVal invocationVal) {
+		List<InterceptorHandlerInvoker> handlerChain = new ArrayList<>(handlerInvokers.length);
+		for (InterceptorHandlerInvoker invoker : handlerInvokers) {
+			if(invoker.handler.applicable(invocationVal.getMappedStatement(), invocationVal.getEntityInfo())) {
+				handlerChain.add(invoker);
+			}
+		}
+		if(logger.isDebugEnabled()) {
+			logger.debug("<framework-logging> mapper[{}] handlerChain:{}",invocationVal.getMappedStatement().getId(),handlerChain.stream().map(o -> o.handler.getClass().getSimpleName()).collect(Collectors.toList()));
+		}
+		return handlerChain.toArray(new InterceptorHandlerInvoker[0]);
+	}
+
 	@Override
 	public Object plugin(Object target) {
 		if (target instanceof Executor) {
@@ -227,6 +262,7 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 			PluginInterceptorHandler handler = it.next();
 			handler.start(this);
 		}
+		started = true;
 	}
 
 	@Override
@@ -255,6 +291,22 @@ public class MendmixMybatisInterceptor implements Interceptor,DisposableBean{
 	public List<PluginInterceptorHandler> getInterceptorHandlers() {
 		return interceptorHandlers;
 	}
+	
+	/**
+	 * 各处理器调用次数及累计耗时（需开启mendmix-cloud.mybatis.interceptor.statEnabled）
+	 * @return
+	 */
+	public Map<String, Map<String, Object>> getHandlerStats() {
+		Map<String, Map<String, Object>> stats = new LinkedHashMap<>(handlerInvokers.length);
+		for (InterceptorHandlerInvoker invoker : handlerInvokers) {
+			stats.put(invoker.handler.getClass().getSimpleName(), invoker.stats());
+		}
+		return stats;
+	}
+	
+	public int getHandlerChainCount() {
+		return statementHandlerChains.size();
+	}
 
 	@SuppressWarnings("unchecked")
 	public <T extends PluginInterceptorHandler> T getInterceptorHandler(Class<T> clazz){
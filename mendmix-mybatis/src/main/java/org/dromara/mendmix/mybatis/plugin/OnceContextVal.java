@@ -16,11 +16,13 @@
 package org.dromara.mendmix.mybatis.plugin;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.plugin.Invocation;
 import org.dromara.mendmix.common.model.Page;
@@ -32,6 +34,7 @@ import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
 import org.dromara.mendmix.mybatis.plugin.cache.QueryCacheMethodMetadata;
 import org.dromara.mendmix.mybatis.plugin.pagination.PageExecutor;
 import org.dromara.mendmix.mybatis.plugin.pagination.PaginationHandler;
+import org.dromara.mendmix.mybatis.plugin.rewrite.SqlRewriteHandler;
 
 public class OnceContextVal {
 
@@ -49,6 +52,9 @@ public class OnceContextVal {
 	private boolean select;
 	private String sql;
 	private boolean sqlRewrited;
+	//重写SQL新增绑定参数时的完整参数列表
+	private List<ParameterMapping> rewriteParameterMappings;
+	private Map<String, Object> rewriteParameters;
 	private boolean usingDataPermission;
 	
 	private String mapperNameSpace;
@@ -127,6 +133,53 @@ public class OnceContextVal {
 	public void setRewriteSql(String sql) {
 		this.sql = sql;
 		this.sqlRewrited = true;
+		this.rewriteParameterMappings = null;
+		this.rewriteParameters = null;
+	}
+
+	public void setRewriteSql(String sql,List<ParameterMapping> parameterMappings,Map<String, Object> additionalParameters) {
+		this.sql = sql;
+		this.sqlRewrited = true;
+		this.rewriteParameterMappings = parameterMappings;
+		if(this.rewriteParameters == null) {
+			this.rewriteParameters = additionalParameters;
+		}else {
+			this.rewriteParameters.putAll(additionalParameters);
+		}
+	}
+	
+	/**
+	 * 按重写参数构建BoundSql
+	 * @param sql 基于当前重写SQL生成的SQL（如分页、count）
+	 * @return
+	 */
+	public BoundSql buildBoundSql(String sql) {
+		return buildBoundSql(sql, getParameterMappings(), null);
+	}
+	
+	/**
+	 * @param sql
+	 * @param parameterMappings 完整参数列表
+	 * @param additionalParameters 在当前重写参数之外新增的参数
+	 * @return
+	 */
+	public BoundSql buildBoundSql(String sql,List<ParameterMapping> parameterMappings,Map<String, Object> additionalParameters) {
+		BoundSql newBoundSql = new BoundSql(mappedStatement.getConfiguration(), sql, parameterMappings, parameter);
+		SqlRewriteHandler.copyAdditionalParameters(boundSql, newBoundSql);
+		if(rewriteParameters != null) {
+			rewriteParameters.forEach(newBoundSql::setAdditionalParameter);
+		}
+		if(additionalParameters != null) {
+			additionalParameters.forEach(newBoundSql::setAdditionalParameter);
+		}
+		return newBoundSql;
+	}
+	
+	/**
+	 * 当前SQL对应的参数列表
+	 */
+	public List<ParameterMapping> getParameterMappings() {
+		return rewriteParameterMappings == null ? boundSql.getParameterMappings() : rewriteParameterMappings;
 	}
 
 	public Object[] getArgs() {
@@ -15,6 +15,9 @@
  */
 package org.dromara.mendmix.mybatis.plugin;
 
+import org.apache.ibatis.mapping.MappedStatement;
+import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
+
 /**
  * mybatis插件拦截处理器接口
  * @description <br>
@@ -36,5 +39,13 @@ public interface PluginInterceptorHandler {
 	
 	default boolean compatibleSqlRewrite() {return false;}
 	
+	/**
+	 * 是否适用于该方法（在start之后按方法计算一次并缓存，只能依赖静态元数据）
+	 * @param mt
+	 * @param entityInfo 未解析到mapper元数据时为null
+	 * @return
+	 */
+	default boolean applicable(MappedStatement mt,MapperMetadata entityInfo) {return true;}
+	
 	
 }
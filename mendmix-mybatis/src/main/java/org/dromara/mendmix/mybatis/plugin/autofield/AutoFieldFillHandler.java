@@ -15,6 +15,7 @@
  */
 package org.dromara.mendmix.mybatis.plugin.autofield;
 
+import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.Date;
 import java.util.HashMap;
@@ -162,15 +163,26 @@ public class AutoFieldFillHandler implements PluginInterceptorHandler {
 				if(parameter instanceof Map) {
 					try {
 						List<Object> list = (List<Object>) ((Map<String, Object>)parameter).get("arg0");
+						//批量插入一次性分配ID
+						Serializable[] ids = null;
+						if(!updateAction && fields[0] != null && idGenerator() != null) {
+							int count = 0;
+							for (Object obj : list) {
+								if(isNullValue(obj, fields[0]))count++;
+							}
+							if(count > 1)ids = idGenerator.next(count);
+						}
+						int idIndex = 0;
 						for (Object obj : list) {
-							setFieldValues(fields,obj,updateAction);
+							Serializable presetId = ids != null && isNullValue(obj, fields[0]) ? ids[idIndex++] : null;
+							setFieldValues(fields,obj,updateAction,presetId);
 						}
 					} catch (Exception e) {
 						e.printStackTrace();
 					}
 				}
 			}else {
-				setFieldValues(fields,parameter,updateAction);
+				setFieldValues(fields,parameter,updateAction,null);
 			}
 		}
 		
@@ -178,11 +190,11 @@ public class AutoFieldFillHandler implements PluginInterceptorHandler {
 	}
 
 
-	private void setFieldValues(Field[] fields, Object parameter,boolean updateAction) {
+	private void setFieldValues(Field[] fields, Object parameter,boolean updateAction,Serializable presetId) {
 		String tmpVal;
 		
 		if(fields[0] != null && idGenerator() != null && isNullValue(parameter, fields[0])) {
-			Object id = idGenerator.next();
+			Object id = presetId != null ? presetId : idGenerator.next();
 			if(fields[0].getType() == Long.class) {
 				id = Long.parseLong(id.toString());
 			}
@@ -295,6 +307,12 @@ public class AutoFieldFillHandler implements PluginInterceptorHandler {
 	@Override
 	public void close() {}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return mt.getSqlCommandType() != SqlCommandType.SELECT
+				&& mt.getSqlCommandType() != SqlCommandType.DELETE;
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 1;
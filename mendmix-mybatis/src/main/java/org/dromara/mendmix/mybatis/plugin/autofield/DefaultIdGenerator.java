@@ -26,4 +26,14 @@ public class DefaultIdGenerator implements IDGenerator {
 		return String.valueOf(GUID.guid());
 	}
 
+	@Override
+	public Serializable[] next(int count) {
+		long[] guids = GUID.guids(count);
+		Serializable[] ids = new Serializable[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = String.valueOf(guids[i]);
+		}
+		return ids;
+	}
+
 }
@@ -26,4 +26,17 @@ import java.io.Serializable;
 public interface IDGenerator {
 
 	Serializable next();
+	
+	/**
+	 * 批量生成
+	 * @param count
+	 * @return
+	 */
+	default Serializable[] next(int count) {
+		Serializable[] ids = new Serializable[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = next();
+		}
+		return ids;
+	}
 }
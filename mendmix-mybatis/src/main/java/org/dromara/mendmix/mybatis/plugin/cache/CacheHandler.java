@@ -30,8 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -47,8 +45,9 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.GlobalConstants;
-import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.async.ThreadExecutorFactory;
 import org.dromara.mendmix.common.model.AuthUser;
+import org.dromara.mendmix.common.serializer.KryoClassRegistry;
 import org.dromara.mendmix.common.util.CachingFieldUtils;
 import org.dromara.mendmix.common.util.DigestUtils;
 import org.dromara.mendmix.common.util.JsonUtils;
@@ -126,10 +125,7 @@ public class CacheHandler implements PluginInterceptorHandler {
 	@Override
 	public void start(MendmixMybatisInterceptor context) {
 		
-		cleanCacheExecutor = new ThreadPoolExecutor(2, 20,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<Runnable>(2000),
-                new StandardThreadFactory("cleanCacheExecutor"));
+		cleanCacheExecutor = ThreadExecutorFactory.create("cleanCacheExecutor", 2, 20, 60L, TimeUnit.SECONDS, 2000, null);
 		
 		dataSourceGroupName = context.getGroupName();
 		dataSource = context.getDataSource();
@@ -140,6 +136,9 @@ public class CacheHandler implements PluginInterceptorHandler {
 
 		List<MapperMetadata> entityInfos = MybatisMapperParser.getMapperMetadatas(context.getGroupName());
 		
+		//实体类注册kryo序列化ID
+		KryoClassRegistry.register(entityInfos.stream().map(MapperMetadata::getEntityClass).collect(Collectors.toList()));
+		
 		Class<BaseEntity> baseEntityClass = BaseEntity.class;
 		QueryCacheMethodMetadata methodCache = null;
 		for (MapperMetadata ei : entityInfos) {
@@ -342,13 +341,10 @@ public class CacheHandler implements PluginInterceptorHandler {
 						String idColumn = entityInfo.getIdColumn();
 						SqlMetadata sqlMetadata = MybatisSqlRewriteUtils.rewriteAsSelectPkField(orignSql, idColumn);
 						//
-						String tenantId = MybatisRuntimeContext.getCurrentTenant();
+						//执行器提交时已传递上下文（含租户）
 						cleanCacheExecutor.execute(new Runnable() {
 							@Override
 							public void run() {
-								if(tenantId != null) {
-									CurrentRuntimeContext.setTenantId(tenantId);
-								}
 								removeCacheByDyncQuery(entityInfo,boundSql, sqlMetadata);
 							}
 						});
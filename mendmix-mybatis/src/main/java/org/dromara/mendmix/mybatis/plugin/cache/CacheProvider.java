@@ -16,12 +16,16 @@
 package org.dromara.mendmix.mybatis.plugin.cache;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.dromara.mendmix.cache.CacheUtils;
+import org.dromara.mendmix.cache.KeyPrefixRemover;
 import org.dromara.mendmix.cache.RedisTemplateGroups;
+import org.dromara.mendmix.common.util.ResourceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -38,6 +42,9 @@ public class CacheProvider {
 	protected String groupName;
 
 	protected int batchSize = 100;
+	//按前缀SCAN删除，不依赖分组key列表
+	protected boolean scanRemoveEnabled = ResourceUtils.getBoolean("mendmix-cloud.mybatis.cache.scanRemove.enabled", false);
+	protected int scanRemoveMaxKeysPerSecond = ResourceUtils.getInt("mendmix-cloud.mybatis.cache.scanRemove.maxKeysPerSecond", 0);
 	
 	
 	
@@ -113,11 +120,22 @@ public class CacheProvider {
 	
 	public void clearGroup(final String groupName,String ...prefixs) {
 		String cacheGroupKey = groupName.endsWith(CacheHandler.GROUPKEY_SUFFIX) ? groupName : groupName + CacheHandler.GROUPKEY_SUFFIX;
-		int keyCount = (int) getListSize(cacheGroupKey);
-		if(keyCount <= 0)return;
-
 		boolean withPrefixs = prefixs != null && prefixs.length > 0 && prefixs[0] != null;
+		if(withPrefixs && scanRemoveEnabled && CacheUtils.isRedis()) {
+			//与分组列表的过滤规则一致：key包含前缀
+			for (String prefix : prefixs) {
+				String pattern = "*" + KeyPrefixRemover.escapePattern(prefix) + "*";
+				long removed = CacheUtils.removeByKeyPattern(pattern, new KeyPrefixRemover(batchSize, scanRemoveMaxKeysPerSecond, null));
+				if(logger.isDebugEnabled()) {
+					logger.debug(">> auto_cache_process removeByKeyPattern finish -> group:{},pattern:{},removed:{}",groupName,pattern,removed);
+				}
+			}
+			pruneGroupKeys(cacheGroupKey, prefixs);
+			return;
+		}
 		
+		int keyCount = (int) getListSize(cacheGroupKey);
+		if(keyCount <= 0)return;
 		int toIndex;
 		List<String> keys;
 		for (int i = 0; i <= keyCount; i+=batchSize) {
@@ -146,5 +164,34 @@ public class CacheProvider {
 			}
 		}
 	}
+	
+	/**
+	 * 从分组列表移除已扫描删除的key，避免列表持续增长
+	 * @param cacheGroupKey
+	 * @param prefixs
+	 */
+	private void pruneGroupKeys(String cacheGroupKey,String[] prefixs) {
+		int keyCount = (int) getListSize(cacheGroupKey);
+		if(keyCount <= 0)return;
+		Set<String> removeKeys = new LinkedHashSet<>();
+		List<String> keys;
+		for (int i = 0; i < keyCount; i+=batchSize) {
+			keys = getListItems(cacheGroupKey, i, i + batchSize - 1);
+			if(keys.isEmpty())break;
+			for (String key : keys) {
+				for (String prefix : prefixs) {
+					if(key.contains(prefix)) {
+						removeKeys.add(key);
+						break;
+					}
+				}
+			}
+		}
+		if(removeKeys.isEmpty())return;
+		StringRedisTemplate redisTemplate = RedisTemplateGroups.getDefaultStringRedisTemplate();
+		for (String key : removeKeys) {
+			redisTemplate.opsForList().remove(cacheGroupKey, 0, key);
+		}
+	}
 
 }
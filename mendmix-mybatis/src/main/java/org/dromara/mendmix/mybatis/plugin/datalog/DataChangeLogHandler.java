@@ -268,6 +268,13 @@ public class DataChangeLogHandler implements PluginInterceptorHandler {
 		return entityName;
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return !SqlCommandType.SELECT.equals(mt.getSqlCommandType())
+				&& entityInfo != null
+				&& entityInfo.getEntityClass().isAnnotationPresent(DataChangeLogeable.class);
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 9;
@@ -230,6 +230,13 @@ public class DeleteBackupHandler implements PluginInterceptorHandler {
 		}
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return SqlCommandType.DELETE.equals(mt.getSqlCommandType())
+				&& entityInfo != null
+				&& backupTableNameMapping.containsKey(entityInfo.getTableName());
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 9;
@@ -16,6 +16,7 @@
 package org.dromara.mendmix.mybatis.plugin.operProtect;
 
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.dromara.mendmix.common.MendmixBaseException;
 import org.dromara.mendmix.common.exception.MainErrorType;
@@ -89,6 +90,11 @@ public class SensitiveOperProtectHandler implements PluginInterceptorHandler{
 		
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return mt.getSqlCommandType() != SqlCommandType.INSERT;
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 1;
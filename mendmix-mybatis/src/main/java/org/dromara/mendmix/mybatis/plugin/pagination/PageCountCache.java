@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.pagination;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.dromara.mendmix.common.CurrentRuntimeContext;
+import org.dromara.mendmix.common.util.DigestUtils;
+import org.dromara.mendmix.common.util.ResourceUtils;
+import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
+import org.dromara.mendmix.mybatis.kit.MybatisSqlRewriteUtils;
+import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
+import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+
+/**
+ * 分页总数缓存
+ * <br>
+ * 按count SQL及绑定参数缓存总数；按表维护写版本，本地写操作（同CacheHandler的mapper级写事件）递增版本使相关缓存失效，
+ * 其他实例的写入及未提交事务由较短的过期时间兜底
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class PageCountCache {
+
+	private static final char SEPARATOR = '\u0001';
+
+	private static boolean enabled = ResourceUtils.getBoolean("mendmix-cloud.mybatis.pagination.countCache.enabled", false);
+
+	private static Cache<String, Entry> cache = CacheBuilder.newBuilder()
+			.maximumSize(ResourceUtils.getLong("mendmix-cloud.mybatis.pagination.countCache.maxSize", 2000L))
+			.expireAfterWrite(ResourceUtils.getLong("mendmix-cloud.mybatis.pagination.countCache.expireSeconds", 30L), TimeUnit.SECONDS)
+			.build();
+	//表 -> 写版本
+	private static Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+	//mappedStatement -> 关联表
+	private static Map<String, String[]> statementTables = new ConcurrentHashMap<>();
+
+	private PageCountCache() {}
+
+	static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 事务内可能读到未提交数据，不使用缓存
+	 */
+	static boolean isAvailable() {
+		return enabled
+				&& !MybatisRuntimeContext.isTransactionalOn()
+				&& !MybatisRuntimeContext.isIgnoreCache();
+	}
+
+	/**
+	 * @param cacheKey
+	 * @param version 查询前获取的表版本
+	 * @return 不存在或期间有写入返回null
+	 */
+	static Long get(String cacheKey,long version) {
+		Entry entry = cache.getIfPresent(cacheKey);
+		if(entry == null)return null;
+		if(entry.version != version) {
+			cache.invalidate(cacheKey);
+			return null;
+		}
+		return entry.count;
+	}
+
+	static void put(String cacheKey,long version,long count) {
+		cache.put(cacheKey, new Entry(count, version));
+	}
+
+	/**
+	 * 关联表版本之和（各表版本只增不减，任一表写入都会改变）
+	 */
+	static long version(String[] tables) {
+		long version = 0;
+		AtomicLong tableVersion;
+		for (String table : tables) {
+			if((tableVersion = tableVersions.get(table)) != null) {
+				version += tableVersion.get();
+			}
+		}
+		return version;
+	}
+
+	static void invalidate(String[] tables) {
+		for (String table : tables) {
+			tableVersions.computeIfAbsent(table, k -> new AtomicLong()).incrementAndGet();
+		}
+	}
+
+	/**
+	 * mappedStatement关联的表：实体表、mapper解析的表及首次执行SQL中的表
+	 */
+	static String[] getTables(OnceContextVal invocation) {
+		String msId = invocation.getMappedStatement().getId();
+		String[] tables = statementTables.get(msId);
+		if(tables != null)return tables;
+		Set<String> tableSet = new LinkedHashSet<>(3);
+		MapperMetadata entityInfo = invocation.getEntityInfo();
+		if(entityInfo != null) {
+			addTable(tableSet, entityInfo.getTableName());
+			List<String> mappingTables = entityInfo.getQueryTableMappings().get(msId);
+			if(mappingTables != null) {
+				mappingTables.forEach(o -> addTable(tableSet, o));
+			}
+		}
+		Statement statement = MybatisSqlRewriteUtils.parseSql(invocation.getSql());
+		if(statement != null) {
+			new TablesNamesFinder().getTableList(statement).forEach(o -> addTable(tableSet, o));
+		}
+		tables = tableSet.toArray(new String[0]);
+		statementTables.put(msId, tables);
+		return tables;
+	}
+
+	static String buildKey(OnceContextVal invocation,BoundSql boundSql) {
+		MappedStatement mappedStatement = invocation.getMappedStatement();
+		StringBuilder builder = new StringBuilder(boundSql.getSql().length() + 128);
+		builder.append(mappedStatement.getId()).append(SEPARATOR);
+		builder.append(invocation.getGroupName()).append(SEPARATOR);
+		builder.append(CurrentRuntimeContext.getTenantId()).append(SEPARATOR);
+		builder.append(MybatisRuntimeContext.getTenantDataSourceKey()).append(SEPARATOR);
+		builder.append(boundSql.getSql());
+		List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+		if(parameterMappings == null || parameterMappings.isEmpty()) {
+			return builder.toString();
+		}
+		//参数值可能较大，只保留摘要
+		Configuration configuration = mappedStatement.getConfiguration();
+		Object parameterObject = boundSql.getParameterObject();
+		MetaObject metaObject = null;
+		StringBuilder paramBuilder = new StringBuilder();
+		Object value;
+		for (ParameterMapping parameterMapping : parameterMappings) {
+			if(parameterMapping.getMode() == ParameterMode.OUT)continue;
+			String property = parameterMapping.getProperty();
+			if (boundSql.hasAdditionalParameter(property)) {
+				value = boundSql.getAdditionalParameter(property);
+			} else if (parameterObject == null) {
+				value = null;
+			} else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+				value = parameterObject;
+			} else {
+				if(metaObject == null)metaObject = configuration.newMetaObject(parameterObject);
+				value = metaObject.getValue(property);
+			}
+			//Date.toString只精确到秒
+			if(value instanceof Date) {
+				value = ((Date) value).getTime();
+			}
+			paramBuilder.append(SEPARATOR).append(value);
+		}
+		builder.append(SEPARATOR).append(DigestUtils.md5(paramBuilder.toString()));
+		return builder.toString();
+	}
+
+	private static void addTable(Set<String> tableSet,String table) {
+		if(StringUtils.isBlank(table))return;
+		table = StringUtils.replaceChars(table, "`\"[]", "");
+		//去掉schema
+		table = table.substring(table.lastIndexOf('.') + 1);
+		tableSet.add(table.trim().toLowerCase());
+	}
+
+	private static final class Entry {
+		final long count;
+		final long version;
+
+		Entry(long count, long version) {
+			this.count = count;
+			this.version = version;
+		}
+	}
+}
@@ -33,11 +33,13 @@ public class PageSqlUtils {
 	private static final String KEY_SELECT = "SELECT";
 	private static final char PAIR_CLOSE_CHAR = ')';
 	private static final char PAIR_OPEN_CHAR = '(';
+	private static final String PARAMETER_PLACEHOLDER = "?";
 	private static final String[] SQL_LINE_CHARS = new String[] {"\r","\n","\t"};
 	private static final String[] SQL_LINE_REPLACE_CHARS = new String[] {" "," "," "};
 	private static final String PAGE_SIZE_PLACEHOLDER = "#{pageSize}";
 	private static final String OFFSET_PLACEHOLDER = "#{offset}";
 	private static final String SQL_COUNT_PREFIX = "SELECT count(1) ";
+	private static final String SQL_CONST_SELECT_PREFIX = "SELECT 1 ";
 	private static String[] unionKeys = new String[] {" UNION "," union "};
 	// 
 	private static Pattern selectFromPattern = Pattern.compile("(SELECT\\s{1})|(\\s{1}FROM\\s{1})",Pattern.CASE_INSENSITIVE);
@@ -64,9 +66,45 @@ public class PageSqlUtils {
 	}
 	
 	public static String getLimitSQL(DatabaseType dbType,String sql,PageParams pageParams){
+		return getLimitSQL(dbType, sql, pageParams.offset(), pageParams.getPageSize());
+	}
+	
+	public static String getLimitSQL(DatabaseType dbType,String sql,int offset,int pageSize){
 		return getLimitSQL(dbType, sql)//
-				.replace(OFFSET_PLACEHOLDER, String.valueOf(pageParams.offset()))//
-				.replace(PAGE_SIZE_PLACEHOLDER, String.valueOf(pageParams.getPageSize()));
+				.replace(OFFSET_PLACEHOLDER, String.valueOf(offset))//
+				.replace(PAGE_SIZE_PLACEHOLDER, String.valueOf(pageSize));
+	}
+	
+	/**
+	 * 限定上限的count SQL：最多计数到maxCount + 1，用于判断是否超过上限
+	 * <br>
+	 * 与{@link #getCountSql(String)}一样去掉最外层排序（否则无匹配索引时仍需对全部匹配行排序），
+	 * 不含聚合、union及group by时查询列替换为常量；被去掉的查询列或排序中含参数占位符时保留原样，避免参数位置错位
+	 */
+	public static String getCappedCountSql(DatabaseType dbType,String sql,int maxCount){
+		final String formatSql = StringUtils.replaceEach(sql, SQL_LINE_CHARS, SQL_LINE_REPLACE_CHARS).trim();
+		String selectHead = matchTopSelectFrom(formatSql);
+		boolean useWrapperMode = aggregationKeyPatterns.stream().anyMatch(p -> p.matcher(selectHead).find());
+		String outterSql = removeNestedSelect(formatSql, selectHead);
+		if(!useWrapperMode) {
+			useWrapperMode = StringUtils.containsAny(outterSql, unionKeys) 
+					|| groupByPattern.matcher(outterSql).find();
+		}
+		String limitSql = formatSql;
+		Matcher matcher = orderByPattern.matcher(outterSql);
+		if(matcher.find()) {
+			int end = formatSql.lastIndexOf(matcher.group());
+			//排序位于未识别的子查询中时不处理
+			String orderBySql = formatSql.substring(end);
+			if(!orderBySql.contains(PARAMETER_PLACEHOLDER) 
+					&& StringUtils.countMatches(orderBySql, PAIR_OPEN_CHAR) == StringUtils.countMatches(orderBySql, PAIR_CLOSE_CHAR)) {
+				limitSql = formatSql.substring(0, end).trim();
+			}
+		}
+		if(!useWrapperMode && !selectHead.contains(PARAMETER_PLACEHOLDER)) {
+			limitSql = StringUtils.replaceOnce(limitSql, selectHead, SQL_CONST_SELECT_PREFIX);
+		}
+		return String.format(commonCountSqlTemplate, getLimitSQL(dbType, limitSql, 0, maxCount + 1));
 	}
 	
 	public static String getCountSql(String sql){
@@ -76,12 +114,7 @@ public class PageSqlUtils {
 		boolean useWrapperMode = aggregationKeyPatterns.stream().anyMatch(p -> p.matcher(selectHead).find());
 		String outterSql = formatSql; //
 		if(!useWrapperMode) {
-			//嵌套查询
-			String removeSelectHead = formatSql.substring(selectHead.length());
-			if(nestSelectPattern.matcher(removeSelectHead).find()) {
-				String innerSql = matchOutterParenthesesPair(removeSelectHead);
-				outterSql = formatSql.replace(innerSql, StringUtils.EMPTY);
-			}
+			outterSql = removeNestedSelect(formatSql, selectHead);
 			//最外层sql包含union或者group by
 			useWrapperMode = StringUtils.containsAny(outterSql, unionKeys) 
 					|| groupByPattern.matcher(outterSql).find();
@@ -101,6 +134,18 @@ public class PageSqlUtils {
 		}
 	}
 	
+	/**
+	 * 去掉查询列之后的首个嵌套查询
+	 */
+	private static String removeNestedSelect(String formatSql,String selectHead) {
+		String removeSelectHead = formatSql.substring(selectHead.length());
+		if(nestSelectPattern.matcher(removeSelectHead).find()) {
+			String innerSql = matchOutterParenthesesPair(removeSelectHead);
+			return formatSql.replace(innerSql, StringUtils.EMPTY);
+		}
+		return formatSql;
+	}
+	
 	public static String matchOutterParenthesesPair(String sql) {
 		char[] chars = sql.toCharArray();
         int start = -1;
@@ -21,12 +21,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
@@ -37,25 +39,52 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
-import org.dromara.mendmix.common.CurrentRuntimeContext;
+import org.dromara.mendmix.common.MendmixBaseException;
 import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.ThreadLocalContext.Snapshot;
+import org.dromara.mendmix.common.ThreadLocalContext.Values;
 import org.dromara.mendmix.common.async.StandardThreadExecutor;
 import org.dromara.mendmix.common.async.StandardThreadExecutor.StandardThreadFactory;
+import org.dromara.mendmix.common.model.OrderBy;
+import org.dromara.mendmix.common.model.OrderBy.OrderType;
 import org.dromara.mendmix.common.model.Page;
 import org.dromara.mendmix.common.model.PageParams;
+import org.dromara.mendmix.common.util.CachingFieldUtils;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.dromara.mendmix.mybatis.MybatisConfigs;
 import org.dromara.mendmix.mybatis.datasource.DatabaseType;
 import org.dromara.mendmix.mybatis.exception.MybatisHanlerInitException;
 import org.dromara.mendmix.mybatis.kit.MybatisMapperParser;
+import org.dromara.mendmix.mybatis.kit.MybatisSqlRewriteUtils;
 import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
 import org.dromara.mendmix.mybatis.plugin.MendmixMybatisInterceptor;
 import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
 import org.dromara.mendmix.mybatis.plugin.PluginInterceptorHandler;
-import org.dromara.mendmix.mybatis.plugin.rewrite.SqlRewriteHandler;
+import org.dromara.mendmix.mybatis.plugin.rewrite.RewriteParameterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SelectExpressionItem;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.SubSelect;
+
 import com.google.common.collect.Lists;
 
 /**
@@ -74,6 +103,8 @@ public class PaginationHandler implements PluginInterceptorHandler {
 	
 	private static final String PAGE_QUERY_EXECUTOR_THREAD_PREFIX = "pageQueryExecutor";
 	private static final String PAGE_COUNT_SUFFIX = "_PageCount";
+	private static final String SEEK_MARKER_PREFIX = "__seek_";
+	private static final String KEYSET_WRAP_ALIAS = "_kt";
 	
 	public static  Map<String,Boolean> pageMappedStatements = new HashMap<>();
 	
@@ -81,6 +112,8 @@ public class PaginationHandler implements PluginInterceptorHandler {
 	
 	private boolean concurrency = ResourceUtils.getBoolean("mendmix-cloud.mybatis.pagination.concurrency");
 	private  ThreadPoolExecutor concurrencyQueryExecutor;
+	//总数计数上限，0不限制
+	private int countLimit = ResourceUtils.getInt("mendmix-cloud.mybatis.pagination.countLimit", 0);
 	
 	@Override
 	public void start(MendmixMybatisInterceptor context) {
@@ -139,26 +172,23 @@ public class PaginationHandler implements PluginInterceptorHandler {
 		final ResultHandler resultHandler = (ResultHandler) invocation.getArgs() [3];
         //查询总数
         Long total = pageObject.getTotal();
-        boolean concurrency = this.concurrency && pageObject.isConcurrency() && total == 0;
+        boolean queryCount = total == 0 && !pageObject.isIgnoreCount();
+        boolean concurrency = this.concurrency && pageObject.isConcurrency() && queryCount;
         Future<List<?>> dataQueryFuture = null;
-        if(total == 0) {
+        if(queryCount) {
         	if(concurrency) {//异步查询
-        		final Map<String, Object> contextVals = CurrentRuntimeContext.getAllContextVals();
+        		final Snapshot snapshot = ThreadLocalContext.snapshot();
         		dataQueryFuture = concurrencyQueryExecutor.submit(new Callable<List<?>>() {
 					@Override
 					public List<?> call() throws Exception {
 						//拒绝策略用了主线程就不处理
 						boolean usingSelfThread = Thread.currentThread().getName().startsWith(PAGE_QUERY_EXECUTOR_THREAD_PREFIX);
-						if(usingSelfThread) {
-							contextVals.forEach((k, v) -> {
-								ThreadLocalContext.set(k, v);
-							});
-						}
+						Values previous = usingSelfThread ? ThreadLocalContext.attach(snapshot) : null;
 						try {
 							return executeQuery(invocation, resultHandler);
 						} finally {
 							if(usingSelfThread) {								
-								ThreadLocalContext.unset();
+								ThreadLocalContext.detach(previous);
 							}
 						}
 					}
@@ -169,7 +199,7 @@ public class PaginationHandler implements PluginInterceptorHandler {
         List<?> data = null;
         if(dataQueryFuture != null) {
         	data = dataQueryFuture.get();
-        }else if (total > 0) {
+        }else if (total > 0 || pageObject.isIgnoreCount()) {
 			data = executeQuery(invocation, resultHandler);
 		} else {
 			data = Lists.newArrayListWithCapacity(0);
@@ -177,6 +207,9 @@ public class PaginationHandler implements PluginInterceptorHandler {
 
         pageObject.setTotal(total);
         pageObject.setData(data);
+        if(pageObject.keysetMode()) {
+        	pageObject.setNextSeekValues(getNextSeekValues(invocation.getEntityInfo(), pageObject, data));
+        }
         pageObject.setOrderBys(null);
 		
 		List<Page<?>> list = new ArrayList<>(1);
@@ -193,25 +226,50 @@ public class PaginationHandler implements PluginInterceptorHandler {
         Executor executor = invocation.getExecutor();
         Object parameter = invocation.getParameter();
         BoundSql boundSql = invocation.getBoundSql();
+        Page<?> pageObject = invocation.getPageObject();
         
 		CacheKey countKey = executor.createCacheKey(countMappedStatement, parameter, RowBounds.DEFAULT, boundSql);
 		
 		// count sql
-		String countSql = PageSqlUtils.getCountSql(invocation.getSql());
+		String countSql;
+		if(countLimit > 0) {
+			countSql = PageSqlUtils.getCappedCountSql(dbType, invocation.getSql(), countLimit);
+		}else {
+			countSql = PageSqlUtils.getCountSql(invocation.getSql());
+		}
 		
-		BoundSql countBoundSql = new BoundSql(countMappedStatement.getConfiguration(), countSql, boundSql.getParameterMappings(),
-				parameter);
-		//
-		SqlRewriteHandler.copyAdditionalParameters(boundSql, countBoundSql);
-		// 执行 count 查询
-		Object countResultList = executor.query(countMappedStatement, parameter, RowBounds.DEFAULT, resultHandler, countKey,
-				countBoundSql);
-		try {
-			Long count = (Long) ((List) countResultList).get(0);
-			return count;
-		} catch (IndexOutOfBoundsException e) {
-			return 0L;
+		BoundSql countBoundSql = invocation.buildBoundSql(countSql);
+		//总数缓存
+		String cacheKey = null;
+		long tableVersion = 0;
+		Long count = null;
+		if(PageCountCache.isAvailable()) {
+			//查询前获取版本，查询期间有写入则不命中
+			tableVersion = PageCountCache.version(PageCountCache.getTables(invocation));
+			cacheKey = PageCountCache.buildKey(invocation, countBoundSql);
+			count = PageCountCache.get(cacheKey, tableVersion);
+			if(count != null && logger.isDebugEnabled()) {
+				logger.debug("MENDMIX-TRACE-LOGGGING-->> pageCount cache hit -> mapperId:{},count:{}",invocation.getMappedStatement().getId(),count);
+			}
+		}
+		if(count == null) {
+			// 执行 count 查询
+			Object countResultList = executor.query(countMappedStatement, parameter, RowBounds.DEFAULT, resultHandler, countKey,
+					countBoundSql);
+			try {
+				count = (Long) ((List) countResultList).get(0);
+			} catch (IndexOutOfBoundsException e) {
+				count = 0L;
+			}
+			if(cacheKey != null) {
+				PageCountCache.put(cacheKey, tableVersion, count);
+			}
+		}
+		if(countLimit > 0 && count > countLimit) {
+			pageObject.setApproximateTotal(true);
+			count = (long) countLimit;
 		}
+		return count;
 		
 	}
 	
@@ -220,20 +278,234 @@ public class PaginationHandler implements PluginInterceptorHandler {
 		
 		Executor executor = invocation.getExecutor();
 		MappedStatement mappedStatement = invocation.getMappedStatement();
-		BoundSql boundSql = invocation.getBoundSql();
 		Object parameter = invocation.getParameter();
 		
-		String pageSql = PageSqlUtils.getLimitSQL(dbType,invocation.getSql(),invocation.getPageObject());
-		
-		BoundSql pageBoundSql = new BoundSql(mappedStatement.getConfiguration(), pageSql, boundSql.getParameterMappings(),
-				parameter);
-		//
-		SqlRewriteHandler.copyAdditionalParameters(boundSql, pageBoundSql);
+		BoundSql pageBoundSql;
+		if(invocation.getPageObject().keysetMode()) {
+			pageBoundSql = buildKeysetBoundSql(invocation);
+		}else {
+			String pageSql = PageSqlUtils.getLimitSQL(dbType,invocation.getSql(),invocation.getPageObject());
+			pageBoundSql = invocation.buildBoundSql(pageSql);
+		}
 		
 		List<?> resultList = executor.query(mappedStatement, parameter, RowBounds.DEFAULT, resultHandler, null,pageBoundSql);
 		return resultList;
 	}
 	
+	/**
+	 * keyset分页：按排序字段追加 (c1 > ?) OR (c1 = ? AND c2 > ?)... 条件，从第一条开始取
+	 * @param invocation
+	 * @return
+	 */
+	BoundSql buildKeysetBoundSql(OnceContextVal invocation) {
+		return buildKeysetBoundSql(invocation, invocation.getEntityInfo());
+	}
+	
+	BoundSql buildKeysetBoundSql(OnceContextVal invocation,MapperMetadata entityInfo) {
+		Page<?> pageObject = invocation.getPageObject();
+		List<OrderBy> orderBys = getKeysetOrderBys(entityInfo, pageObject);
+		List<Object> seekValues = pageObject.getSeekValues();
+		if(!seekValues.isEmpty() && seekValues.size() != orderBys.size()) {
+			throw new MendmixBaseException("keyset分页排序值与排序字段数量不一致");
+		}
+		//col > NULL恒为假，不能静默返回空页
+		if(seekValues.contains(null)) {
+			throw new MendmixBaseException("keyset分页排序值不能为空");
+		}
+		Statement statement = MybatisSqlRewriteUtils.parseSql(invocation.getSql());
+		if(statement == null) {
+			throw new MendmixBaseException("keyset分页无法解析SQL:" + invocation.getMappedStatement().getId());
+		}
+		SelectBody selectBody = ((Select)statement).getSelectBody();
+		PlainSelect select;
+		Table table = null;
+		//包装前的查询，按结果列匹配排序字段
+		PlainSelect wrappedSelect = null;
+		if(isSingleTableSelect(selectBody)) {
+			select = (PlainSelect) selectBody;
+			table = (Table) select.getFromItem();
+		}else {
+			//关联、分组、去重及union查询包装为子查询，按结果列处理
+			if(selectBody instanceof PlainSelect) {
+				wrappedSelect = (PlainSelect) selectBody;
+			}
+			SubSelect subSelect = new SubSelect();
+			subSelect.setSelectBody(selectBody);
+			subSelect.setAlias(new Alias(KEYSET_WRAP_ALIAS, false));
+			select = new PlainSelect();
+			select.addSelectItems(new AllColumns());
+			select.setFromItem(subSelect);
+		}
+		
+		RewriteParameterBinder binder = new RewriteParameterBinder(SEEK_MARKER_PREFIX);
+		List<Column> columns = new ArrayList<>(orderBys.size());
+		List<OrderByElement> orderByElements = new ArrayList<>(orderBys.size());
+		Expression seekExpression = null;
+		for (int i = 0; i < orderBys.size(); i++) {
+			OrderBy orderBy = orderBys.get(i);
+			Column column = new Column(table, getKeysetColumnName(entityInfo, wrappedSelect, orderBy.getField()));
+			boolean asc = OrderType.ASC.name().equals(orderBy.getSortType());
+			columns.add(column);
+			OrderByElement orderByElement = new OrderByElement();
+			orderByElement.setAsc(asc);
+			orderByElement.setExpression(column);
+			orderByElements.add(orderByElement);
+			if(seekValues.isEmpty())continue;
+			//前序字段相等且当前字段越过
+			Expression itemExpression = null;
+			for (int j = 0; j < i; j++) {
+				EqualsTo equalsTo = new EqualsTo();
+				equalsTo.setLeftExpression(columns.get(j));
+				equalsTo.setRightExpression(binder.bindExpression(seekValues.get(j)));
+				itemExpression = itemExpression == null ? equalsTo : new AndExpression(itemExpression, equalsTo);
+			}
+			ComparisonOperator compare = asc ? new GreaterThan() : new MinorThan();
+			compare.setLeftExpression(column);
+			compare.setRightExpression(binder.bindExpression(seekValues.get(i)));
+			itemExpression = itemExpression == null ? compare : new Parenthesis(new AndExpression(itemExpression, compare));
+			seekExpression = seekExpression == null ? itemExpression : new OrExpression(seekExpression, itemExpression);
+		}
+		if(seekExpression != null) {
+			seekExpression = new Parenthesis(seekExpression);
+			select.setWhere(select.getWhere() == null ? seekExpression : new AndExpression(new Parenthesis(select.getWhere()), seekExpression));
+		}
+		select.setOrderByElements(orderByElements);
+		
+		String pageSql = PageSqlUtils.getLimitSQL(dbType, select.toString(), 0, pageObject.getPageSize());
+		return binder.buildBoundSql(invocation, pageSql);
+	}
+	
+	private static boolean isSingleTableSelect(SelectBody selectBody) {
+		if(!(selectBody instanceof PlainSelect))return false;
+		PlainSelect select = (PlainSelect) selectBody;
+		return select.getFromItem() instanceof Table
+				&& (select.getJoins() == null || select.getJoins().isEmpty())
+				&& select.getGroupBy() == null
+				&& select.getDistinct() == null;
+	}
+	
+	/**
+	 * 排序字段通常来自客户端，同{@link org.dromara.mendmix.mybatis.plugin.rewrite.SqlRewriteHandler}排序处理只接受实体属性或已知列名（包装子查询时也可为结果列名/别名），其他字段拒绝
+	 */
+	private static String getKeysetColumnName(MapperMetadata entityInfo,PlainSelect wrappedSelect,String field) {
+		if(wrappedSelect != null) {
+			SelectExpressionItem expressionItem;
+			for (SelectItem selectItem : wrappedSelect.getSelectItems()) {
+				if(!(selectItem instanceof SelectExpressionItem))continue;
+				expressionItem = (SelectExpressionItem) selectItem;
+				if(expressionItem.getAlias() != null) {
+					if(field.equalsIgnoreCase(StringUtils.strip(expressionItem.getAlias().getName(), "`\""))) {
+						return expressionItem.getAlias().getName();
+					}
+				}else if(expressionItem.getExpression() instanceof Column) {
+					String columnName = ((Column) expressionItem.getExpression()).getColumnName();
+					if(field.equalsIgnoreCase(StringUtils.strip(columnName, "`\""))) {
+						return columnName;
+					}
+				}
+			}
+		}
+		String columnName = null;
+		if(entityInfo != null) {
+			columnName = entityInfo.property2ColumnName(field);
+			if(columnName == null && entityInfo.getPropToColumnMappings().values().contains(field)) {
+				columnName = field;
+			}
+		}
+		if(columnName == null) {
+			throw new MendmixBaseException("keyset分页排序字段[" + field + "]不存在");
+		}
+		return columnName;
+	}
+	
+	/**
+	 * 有效排序字段（忽略空项），未包含主键时追加主键作为唯一排序字段
+	 */
+	static List<OrderBy> getKeysetOrderBys(MapperMetadata entityInfo,Page<?> pageObject) {
+		if(entityInfo == null || entityInfo.getEntityMetadata() == null || entityInfo.getEntityMetadata().getIdColumn() == null) {
+			throw new MendmixBaseException("keyset分页需要实体主键作为唯一排序字段");
+		}
+		List<OrderBy> orderBys = pageObject.getOrderBys();
+		List<OrderBy> result = new ArrayList<>(orderBys == null ? 1 : orderBys.size() + 1);
+		boolean withIdField = false;
+		if(orderBys != null) {
+			for (OrderBy orderBy : orderBys) {
+				if(orderBy == null || StringUtils.isBlank(orderBy.getField()))continue;
+				result.add(orderBy);
+				if(!withIdField) {
+					withIdField = orderBy.getField().equals(entityInfo.getIdProperty()) 
+							|| orderBy.getField().equalsIgnoreCase(entityInfo.getIdColumn());
+				}
+			}
+		}
+		if(!withIdField) {
+			result.add(new OrderBy(entityInfo.getIdProperty()));
+		}
+		return result;
+	}
+	
+	/**
+	 * 排序字段对应的结果属性：实体属性名或列名按实体映射转为属性名，否则为结果列名/别名
+	 */
+	private static String getSeekProperty(MapperMetadata entityInfo,String field) {
+		Map<String, String> propToColumnMappings = entityInfo.getPropToColumnMappings();
+		if(propToColumnMappings.containsKey(field))return field;
+		String columnName = StringUtils.strip(field, "`\"");
+		for (Entry<String, String> entry : propToColumnMappings.entrySet()) {
+			if(columnName.equalsIgnoreCase(entry.getValue())) {
+				return entry.getKey();
+			}
+		}
+		return field;
+	}
+	
+	/**
+	 * 最后一条记录的排序字段值，不足一页表示没有下一页
+	 */
+	@SuppressWarnings("rawtypes")
+	static List<Object> getNextSeekValues(MapperMetadata entityInfo,Page<?> pageObject,List<?> data) {
+		if(data.isEmpty() || data.size() < pageObject.getPageSize()) {
+			return null;
+		}
+		Object last = data.get(data.size() - 1);
+		List<OrderBy> orderBys = getKeysetOrderBys(entityInfo, pageObject);
+		List<Object> values = new ArrayList<>(orderBys.size());
+		String property;
+		Object value;
+		for (OrderBy orderBy : orderBys) {
+			property = getSeekProperty(entityInfo, orderBy.getField());
+			if(last instanceof Map) {
+				value = getMapValue((Map) last, property, entityInfo.property2ColumnName(property), orderBy.getField());
+			}else {				
+				value = CachingFieldUtils.readField(last, property);
+			}
+			//下一页无法定位，不能等到下次请求才失败
+			if(value == null) {
+				throw new MendmixBaseException("keyset分页排序字段[" + orderBy.getField() + "]值为空，排序字段须非空");
+			}
+			values.add(value);
+		}
+		return values;
+	}
+	
+	/**
+	 * Map结果按列标签取值（属性名、列名或别名，大小写不敏感）
+	 */
+	@SuppressWarnings("rawtypes")
+	private static Object getMapValue(Map row,String...keys) {
+		for (String key : keys) {
+			if(key != null && row.get(key) != null)return row.get(key);
+		}
+		for (Object rowKey : row.keySet()) {
+			for (String key : keys) {
+				if(key != null && key.equalsIgnoreCase(String.valueOf(rowKey))) {
+					return row.get(rowKey);
+				}
+			}
+		}
+		return null;
+	}
+	
 	/**
      * 新建count查询的MappedStatement
      *
@@ -293,7 +565,10 @@ public class PaginationHandler implements PluginInterceptorHandler {
 
 	@Override
 	public void onFinished(OnceContextVal invocation, Object result) {
-		
+		if(!PageCountCache.isEnabled() || invocation.isSelect())return;
+		//返回0，未更新成功
+		if(result instanceof Integer && ((Integer)result) == 0)return;
+		PageCountCache.invalidate(PageCountCache.getTables(invocation));
 	}
 	
 	@Override
@@ -303,6 +578,12 @@ public class PaginationHandler implements PluginInterceptorHandler {
 		}
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		//开启总数缓存时需处理写操作
+		return SqlCommandType.SELECT.equals(mt.getSqlCommandType()) || PageCountCache.isEnabled();
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 3;
@@ -11,12 +11,18 @@ public class ConditionPair {
 
 	private String column;
 	private String[] values;
+	private String field; //values对应的权限字段
 	
 	public ConditionPair(String column, String[] values) {
 		super();
 		this.column = column;
 		this.values = values;
 	}
+	
+	public ConditionPair(String column, String[] values, String field) {
+		this(column, values);
+		this.field = field;
+	}
 
 	public String getColumn() {
 		return column;
@@ -33,7 +39,13 @@ public class ConditionPair {
 	public void setValues(String[] values) {
 		this.values = values;
 	}
-	
-	
+
+	public String getField() {
+		return field;
+	}
+
+	public void setField(String field) {
+		this.field = field;
+	}
 	
 }
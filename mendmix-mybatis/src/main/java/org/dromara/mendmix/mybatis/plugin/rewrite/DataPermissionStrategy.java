@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.mendmix.common.GlobalConstants;
@@ -127,6 +128,19 @@ public class DataPermissionStrategy {
         return result;
 	}
 	
+	/**
+	 * 策略特征（用于重写SQL缓存键）
+	 */
+	String fingerprint() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(allMatch ? 1 : 0).append(handleJoin ? 1 : 0).append(handleOwner ? 1 : 0)
+		       .append(joinConditionWithOn ? 1 : 0).append(onlyHandleOwner ? 1 : 0);
+		if(strategies != null) {
+			new TreeMap<>(strategies).forEach((k, v) -> builder.append(GlobalConstants.COMMA).append(v));
+		}
+		return builder.toString();
+	}
+	
 	public static void updateHandleOwner(boolean handleOwner) {
 		DataPermissionStrategy strategy = MybatisRuntimeContext.getDataPermissionStrategy();
 		if(strategy == null) {
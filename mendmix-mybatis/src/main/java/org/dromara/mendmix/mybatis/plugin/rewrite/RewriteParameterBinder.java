@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.rewrite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.dromara.mendmix.common.MendmixBaseException;
+import org.dromara.mendmix.mybatis.MybatisConfigs;
+import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcNamedParameter;
+import net.sf.jsqlparser.expression.StringValue;
+
+/**
+ * 重写条件值参数化
+ * <br>
+ * 条件值以占位符写入重写SQL，生成SQL后替换为?并按位置合并到当前参数列表，不同用户得到相同SQL文本；
+ * 数据权限IN列表按2的幂补齐长度（重复最后一个值）以收敛SQL形态，超过上限仍使用字面量；
+ * 同时记录每个参数的来源，供重写SQL缓存命中后按当前上下文重新取值
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class RewriteParameterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger("org.dromara.mendmix.mybatis");
+	
+	static final String DATA_PERM_MARKER_PREFIX = "__dperm_";
+	private static final char QUOTE = '\'';
+	private static final char DOUBLE_QUOTE = '"';
+	private static final char PLACEHOLDER = '?';
+
+	private final String markerPrefix;
+	private List<Object> values;
+	private List<SqlRewriteCache.ValueRef> valueRefs;
+	//是否有条件值以字面量写入SQL
+	private boolean inlined;
+	
+	/**
+	 * @param markerPrefix 占位参数名前缀，同一SQL多次参数化需使用不同前缀
+	 */
+	public RewriteParameterBinder(String markerPrefix) {
+		this.markerPrefix = markerPrefix;
+	}
+
+	public List<Object> getValues() {
+		return values == null ? Collections.emptyList() : values;
+	}
+	
+	/**
+	 * @return 参数来源，存在未知来源或字面量时返回null
+	 */
+	List<SqlRewriteCache.ValueRef> getValueRefs() {
+		if(inlined)return null;
+		if(values == null)return Collections.emptyList();
+		return valueRefs.contains(null) ? null : valueRefs;
+	}
+	
+	/**
+	 * 数据权限条件值（未开启参数化时使用字面量）
+	 */
+	Expression valueExpression(String value,SqlRewriteCache.ValueRef ref) {
+		if(!MybatisConfigs.DATA_PERM_BIND_PARAMETER) {
+			inlined = true;
+			return new StringValue(value);
+		}
+		return bindExpression(value, ref);
+	}
+	
+	/**
+	 * 数据权限IN条件值列表
+	 * @param values 已过滤null
+	 * @param refs 与values一一对应的来源
+	 */
+	List<Expression> listExpressions(List<String> values,List<SqlRewriteCache.ValueRef> refs) {
+		List<Expression> expressions;
+		if(!MybatisConfigs.DATA_PERM_BIND_PARAMETER || values.size() > MybatisConfigs.DATA_PERM_BIND_PARAMETER_MAX_SIZE) {
+			inlined = true;
+			expressions = new ArrayList<>(values.size());
+			for (String value : values) {
+				expressions.add(new StringValue(value));
+			}
+			return expressions;
+		}
+		int size = values.size();
+		if(MybatisConfigs.DATA_PERM_BIND_PARAMETER_PADDING && size > 1) {
+			size = Math.min(Integer.highestOneBit(size - 1) << 1, MybatisConfigs.DATA_PERM_BIND_PARAMETER_MAX_SIZE);
+		}
+		expressions = new ArrayList<>(size);
+		int index;
+		for (int i = 0; i < size; i++) {
+			index = Math.min(i, values.size() - 1);
+			expressions.add(bindExpression(values.get(index), refs.get(index)));
+		}
+		return expressions;
+	}
+	
+	public Expression bindExpression(Object value) {
+		return bindExpression(value, null);
+	}
+	
+	private Expression bindExpression(Object value,SqlRewriteCache.ValueRef ref) {
+		if(values == null) {
+			values = new ArrayList<>();
+			valueRefs = new ArrayList<>();
+		}
+		values.add(value);
+		valueRefs.add(ref);
+		return new JdbcNamedParameter(markerPrefix + (values.size() - 1));
+	}
+	
+	/**
+	 * 按当前重写参数构建BoundSql（不修改invocation）
+	 * @param invocation
+	 * @param sql 含占位符的SQL
+	 * @return
+	 */
+	public BoundSql buildBoundSql(OnceContextVal invocation,String sql) {
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		Map<String, Object> additionalParameters = new HashMap<>();
+		String boundSql = replaceMarkers(invocation, sql, markerPrefix, getValues(), parameterMappings, additionalParameters);
+		if(boundSql == null) {
+			throw new MendmixBaseException("无法绑定SQL参数:" + invocation.getMappedStatement().getId());
+		}
+		return invocation.buildBoundSql(boundSql, parameterMappings, additionalParameters);
+	}
+	
+	/**
+	 * 设置数据权限重写SQL，替换占位符并合并参数
+	 * @param invocation
+	 * @param sql 含占位符的重写SQL
+	 * @param values 占位符对应值
+	 */
+	static void bind(OnceContextVal invocation,String sql,List<Object> values) {
+		if(values.isEmpty() || !sql.contains(DATA_PERM_MARKER_PREFIX)) {
+			invocation.setRewriteSql(sql);
+			return;
+		}
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		Map<String, Object> additionalParameters = new HashMap<>(values.size());
+		String boundSql = replaceMarkers(invocation, sql, DATA_PERM_MARKER_PREFIX, values, parameterMappings, additionalParameters);
+		if(boundSql != null) {
+			invocation.setRewriteSql(boundSql, parameterMappings, additionalParameters);
+			return;
+		}
+		//无法对齐原参数位置，退回字面量
+		logger.warn("MENDMIX-TRACE-LOGGGING-->> bind dataPermission parameters skipped,mapper:{}",invocation.getMappedStatement().getId());
+		invocation.setRewriteSql(inlineValues(sql, values));
+	}
+	
+	/**
+	 * 替换占位符并按?出现顺序合并原参数，字符串、双引号标识符及注释中的?不计入
+	 * @return 无法对齐当前参数位置返回null
+	 */
+	static String replaceMarkers(OnceContextVal invocation
+			,String sql
+			,String markerPrefix
+			,List<Object> values
+			,List<ParameterMapping> parameterMappings
+			,Map<String, Object> additionalParameters) {
+		List<ParameterMapping> originMappings = invocation.getParameterMappings();
+		Configuration configuration = invocation.getMappedStatement().getConfiguration();
+		StringBuilder builder = new StringBuilder(sql.length());
+		int originIndex = 0;
+		int skipEnd;
+		char c;
+		for (int i = 0; i < sql.length(); i++) {
+			c = sql.charAt(i);
+			if((skipEnd = skipLiteralOrComment(sql, i)) > i) {
+				builder.append(sql, i, skipEnd);
+				i = skipEnd - 1;
+				continue;
+			}
+			if(c == PLACEHOLDER) {
+				if(originIndex == originMappings.size()) {
+					return null;
+				}
+				parameterMappings.add(originMappings.get(originIndex++));
+			}else if(c == ':' && sql.startsWith(markerPrefix, i + 1)) {
+				int end = i + 1 + markerPrefix.length();
+				while(end < sql.length() && Character.isDigit(sql.charAt(end))) end++;
+				String name = sql.substring(i + 1, end);
+				Object value = values.get(Integer.parseInt(name.substring(markerPrefix.length())));
+				//非字符串按实际值类型处理
+				Class<?> javaType = value instanceof String ? String.class : Object.class;
+				parameterMappings.add(new ParameterMapping.Builder(configuration, name, javaType).build());
+				additionalParameters.put(name, value);
+				builder.append(PLACEHOLDER);
+				i = end - 1;
+				continue;
+			}
+			builder.append(c);
+		}
+		return originIndex == originMappings.size() ? builder.toString() : null;
+	}
+	
+	/**
+	 * @return 从start开始的字符串、双引号标识符或注释的结束位置（不含），不是返回start
+	 */
+	private static int skipLiteralOrComment(String sql,int start) {
+		char c = sql.charAt(start);
+		int end;
+		if(c == QUOTE || c == DOUBLE_QUOTE) {
+			//转义的连续引号视为前后两段
+			end = sql.indexOf(c, start + 1);
+			return end < 0 ? sql.length() : end + 1;
+		}
+		if(c == '-' && sql.startsWith("--", start)) {
+			end = sql.indexOf('\n', start);
+			return end < 0 ? sql.length() : end;
+		}
+		if(c == '/' && sql.startsWith("/*", start)) {
+			end = sql.indexOf("*/", start + 2);
+			return end < 0 ? sql.length() : end + 2;
+		}
+		return start;
+	}
+	
+	static String inlineValues(String sql,List<Object> values) {
+		StringBuilder builder = new StringBuilder(sql.length());
+		int start = 0;
+		int index;
+		while((index = sql.indexOf(":" + DATA_PERM_MARKER_PREFIX, start)) >= 0) {
+			int end = index + 1 + DATA_PERM_MARKER_PREFIX.length();
+			while(end < sql.length() && Character.isDigit(sql.charAt(end))) end++;
+			Object value = values.get(Integer.parseInt(sql.substring(index + 1 + DATA_PERM_MARKER_PREFIX.length(), end)));
+			builder.append(sql, start, index);
+			builder.append(new StringValue(String.valueOf(value)));
+			start = end;
+		}
+		builder.append(sql, start, sql.length());
+		return builder.toString();
+	}
+}
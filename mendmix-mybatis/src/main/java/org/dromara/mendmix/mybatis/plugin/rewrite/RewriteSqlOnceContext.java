@@ -2,6 +2,7 @@ package org.dromara.mendmix.mybatis.plugin.rewrite;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,7 @@ public class RewriteSqlOnceContext {
 	boolean handleOrderBy;
 	
 	String currentGroupKey;
+	int currentGroupIndex;
 	
 	List<RewriteTable> rewriteTables;
 	
@@ -62,8 +64,13 @@ public class RewriteSqlOnceContext {
 	
 	boolean loadedCurrentGroupPermData;
 	boolean mainTableHandledTenant; //主表已处理租户
+	boolean withDeptColumn; //重写表包含部门权限列
+	//已加载的各分组权限数据（按分组顺序）
+	final List<Map<String, String[]>> loadedPermValues = new ArrayList<>(1);
 	
 	boolean traceLogging = CurrentRuntimeContext.isDebugMode();
+	
+	final RewriteParameterBinder parameterBinder = new RewriteParameterBinder(RewriteParameterBinder.DATA_PERM_MARKER_PREFIX);
 
 	public RewriteSqlOnceContext(OnceContextVal invocation,boolean isFieldTenantMode ,boolean dynaDataPermEnaled) {
 		currentUser = CurrentRuntimeContext.getCurrentUser();
@@ -121,6 +128,67 @@ public class RewriteSqlOnceContext {
 	
 	public void loadDataPermValues(SqlRewriteHandler handler) {
 		if(!handleDataPerm || loadedCurrentGroupPermData)return;
+		final boolean withGroup = StringUtils.isNotBlank(currentGroupKey);
+		withDeptColumn = rewriteTables != null 
+				&& handler.getDeptPropName() != null 
+				&& rewriteTables.stream().anyMatch(o -> o.getRewriteColumnMapping().containsKey(handler.getDeptPropName()));
+		//是否已预处理部门权限数据
+		boolean preparedOrgPermData = prepareDataPermValues(handler, withDeptColumn);
+		if(rewriteTables != null) {
+			for (RewriteTable rewriteTable : rewriteTables) {
+				setTableOwnerColumns(handler, rewriteTable);
+				//使用启用多表组织权限统一分组处理
+    			if(!withGroup && preparedOrgPermData && rewriteTables.size() > 1) {				
+    				rewriteTable.setUsingGlobalOrgPerm(isUsingGroupOrgPerm(handler, rewriteTable));
+    			}
+			}
+		}
+		if(traceLogging) {
+			logger.info(this.toLogString());
+			logger.info("<trace_logging> loadDataPermValues\n -group:{}\n -values:{}",currentGroupKey,JsonUtils.toJson(getDataPermValues()));
+		}else if(logger.isDebugEnabled()) {
+			logger.debug(this.toLogString());
+		}
+		loadedPermValues.add(dataPermValues);
+		loadedCurrentGroupPermData = true;
+	}
+	
+	/**
+	 * 按分组加载权限数据（与重写过程加载方式一致），用于重写SQL缓存命中前计算权限数据形态及取值
+	 * @param permGroupKeys
+	 * @param withDeptColumn 是否需要加载部门权限
+	 * @return 按分组顺序的权限数据
+	 */
+	List<Map<String, String[]>> loadGroupDataPermValues(SqlRewriteHandler handler,List<String> permGroupKeys,boolean withDeptColumn) {
+		if(!handleDataPerm)return Collections.emptyList();
+		if(permGroupKeys == null || permGroupKeys.isEmpty()) {
+			prepareDataPermValues(handler, withDeptColumn);
+			return Collections.singletonList(dataPermValues);
+		}
+		if(permGroupKeys.size() == 1 && DeptPermType._ALL_.name().equals(permGroupKeys.get(0))) {
+			return Collections.emptyList();
+		}
+		List<Map<String, String[]>> result = new ArrayList<>(permGroupKeys.size());
+		for (String groupKey : permGroupKeys) {
+			currentGroupKey = groupKey;
+			prepareDataPermValues(handler, withDeptColumn);
+			result.add(dataPermValues);
+		}
+		return result;
+	}
+	
+	/**
+	 * 重写参数来源（当前分组）
+	 */
+	SqlRewriteCache.ValueRef valueRef(String field,int index) {
+		if(field == null)return null;
+		return new SqlRewriteCache.ValueRef(currentGroupIndex, field, index);
+	}
+	
+	/**
+	 * @return 是否已预处理部门权限数据
+	 */
+	private boolean prepareDataPermValues(SqlRewriteHandler handler,boolean withDeptColumn) {
 		final boolean withGroup = StringUtils.isNotBlank(currentGroupKey);
 		try {
 			if(withGroup) {
@@ -136,40 +204,18 @@ public class RewriteSqlOnceContext {
 			}
 			dataPermValues = getDataPermValues();
 			
-			//是否已预处理部门权限数据
     		boolean preparedOrgPermData = dataPermValues.containsKey(handler.getDeptPropName());
-			if(rewriteTables != null) {
-				//加载部门数据
-				if(handler.getDeptPropName() != null 
-						&& dataPermValues.containsKey(MybatisConfigs.ORG_DATA_PERM_NAME)) {
-					if(rewriteTables.stream().anyMatch(
-			    			o -> o.getRewriteColumnMapping().containsKey(handler.getDeptPropName()))
-			    	) {
-						OrgPermissionHelper.prepareOrganizationPermission(invocation, dataPermValues, handler.getDeptPropName());
-			    		preparedOrgPermData = true;
-			    		if(withGroup) {
-			    			if(traceLogging)logger.info("<trace_logging> reloadPrepareOrganizationPermission for permGroup:{}",currentGroupKey);
-			    			//由于第一次初始化的原因，这个不能放finally
-				    		ThreadLocalContext.remove(OrgPermissionHelper.CONTEXT_CURRENT_POSTION_ID);
-			    		}
-			    	}
-				}
-				//
-				for (RewriteTable rewriteTable : rewriteTables) {
-					setTableOwnerColumns(handler, rewriteTable);
-					//使用启用多表组织权限统一分组处理
-	    			if(!withGroup && preparedOrgPermData && rewriteTables.size() > 1) {				
-	    				rewriteTable.setUsingGlobalOrgPerm(isUsingGroupOrgPerm(handler, rewriteTable));
-	    			}
-				}
-			}
-			if(traceLogging) {
-				logger.info(this.toLogString());
-				logger.info("<trace_logging> loadDataPermValues\n -group:{}\n -values:{}",currentGroupKey,JsonUtils.toJson(getDataPermValues()));
-			}else if(logger.isDebugEnabled()) {
-				logger.debug(this.toLogString());
+			//加载部门数据
+			if(withDeptColumn && dataPermValues.containsKey(MybatisConfigs.ORG_DATA_PERM_NAME)) {
+				OrgPermissionHelper.prepareOrganizationPermission(invocation, dataPermValues, handler.getDeptPropName());
+	    		preparedOrgPermData = true;
+	    		if(withGroup) {
+	    			if(traceLogging)logger.info("<trace_logging> reloadPrepareOrganizationPermission for permGroup:{}",currentGroupKey);
+	    			//由于第一次初始化的原因，这个不能放finally
+		    		ThreadLocalContext.remove(OrgPermissionHelper.CONTEXT_CURRENT_POSTION_ID);
+	    		}
 			}
-			loadedCurrentGroupPermData = true;
+			return preparedOrgPermData;
 		} finally {
 			if(withGroup)ThreadLocalContext.remove(CustomRequestHeaders.HEADER_REFERER_PERM_GROUP);
 		}
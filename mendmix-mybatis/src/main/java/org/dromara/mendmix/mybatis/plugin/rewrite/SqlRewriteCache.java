@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.rewrite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.mendmix.common.CurrentRuntimeContext;
+import org.dromara.mendmix.common.model.OrderBy;
+import org.dromara.mendmix.common.util.DigestUtils;
+import org.dromara.mendmix.common.util.ResourceUtils;
+import org.dromara.mendmix.mybatis.DeptPermType;
+import org.dromara.mendmix.mybatis.MybatisConfigs;
+import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * 重写后SQL全局缓存
+ * <br>
+ * 缓存键不含任何用户、租户及权限值：由mappedStatement、原SQL、重写开关、排序、权限分组数、策略特征及权限数据形态（各字段值个数、全部/无/模糊等标记）组成；
+ * 条件值须以参数绑定写入SQL，缓存记录每个参数的来源，命中后按当前上下文重新取值；未开启参数绑定（条件值为字面量）时不缓存
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+final class SqlRewriteCache {
+
+	private static final char SEPARATOR = '\u0001';
+	
+	private static boolean enabled = ResourceUtils.getBoolean("mendmix-cloud.mybatis.sqlRewrite.cache.enabled", true);
+	
+	private static final long maxSize = ResourceUtils.getLong("mendmix-cloud.mybatis.sqlRewrite.cache.maxSize", 5000L);
+	private static final long expireSeconds = ResourceUtils.getLong("mendmix-cloud.mybatis.sqlRewrite.cache.expireSeconds", 300L);
+	
+	private static Cache<String, Entry> cache = CacheBuilder.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+			.build();
+	
+	//statementKey -> 是否加载了部门权限（决定命中前如何准备权限数据）
+	private static Cache<String, Boolean> statementPlans = CacheBuilder.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+			.build();
+
+	private SqlRewriteCache() {}
+	
+	static boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * 条件值只能以字面量写入时不缓存
+	 */
+	static boolean isCacheable(RewriteSqlOnceContext context) {
+		return MybatisConfigs.DATA_PERM_BIND_PARAMETER || (!context.handleDataPerm && !context.handleTenant);
+	}
+	
+	static Entry get(String cacheKey) {
+		return cache.getIfPresent(cacheKey);
+	}
+	
+	static Boolean getStatementPlan(String statementKey) {
+		return statementPlans.getIfPresent(statementKey);
+	}
+	
+	static void put(String statementKey, boolean withDeptColumn, String cacheKey, Entry entry) {
+		statementPlans.put(statementKey, withDeptColumn);
+		cache.put(cacheKey, entry);
+	}
+	
+	/**
+	 * 语句级缓存键（不含权限值）
+	 */
+	static String buildKey(RewriteSqlOnceContext context, String sql, List<String> permGroupKeys) {
+		StringBuilder builder = new StringBuilder(sql.length() + 64);
+		builder.append(context.invocation.getMappedStatement().getId()).append(SEPARATOR);
+		builder.append(sql).append(SEPARATOR);
+		builder.append(context.handleTenant ? 1 : 0)
+		       .append(context.handleSoftDelete ? 1 : 0)
+		       .append(context.handleDataPerm ? 1 : 0)
+		       .append(context.handleOrderBy ? 1 : 0);
+		//只区分是否存在，值通过参数绑定
+		builder.append(context.currentUser == null ? 0 : 1)
+		       .append(MybatisRuntimeContext.getCurrentUserId() == null ? 0 : 1)
+		       .append(CurrentRuntimeContext.getTenantId() == null ? 0 : 1)
+		       .append(CurrentRuntimeContext.getBusinessUnitId() == null ? 0 : 1);
+		if(context.handleOrderBy) {
+			for (OrderBy orderBy : context.invocation.getPageObject().getOrderBys()) {
+				if(orderBy == null)continue;
+				builder.append(SEPARATOR).append(orderBy.getField()).append(' ').append(orderBy.getSortType());
+			}
+		}
+		if(context.strategy != null) {
+			builder.append(SEPARATOR).append(context.strategy.fingerprint());
+		}
+		if(context.handleDataPerm) {
+			builder.append(SEPARATOR).append(MybatisConfigs.DATA_PERM_USING_GROUP_MODE);
+			//分组名（如岗位ID）只影响取值，只保留分组数
+			if(permGroupKeys == null || permGroupKeys.isEmpty()) {
+				builder.append(":-");
+			}else if(permGroupKeys.size() == 1 && DeptPermType._ALL_.name().equals(permGroupKeys.get(0))) {
+				builder.append(':').append(DeptPermType._ALL_.name());
+			}else {
+				builder.append(':').append(permGroupKeys.size());
+			}
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * 完整缓存键：语句级键 + 权限数据形态
+	 * @param groupPermValues 按分组顺序的权限数据
+	 */
+	static String buildEntryKey(String statementKey, List<Map<String, String[]>> groupPermValues) {
+		if(groupPermValues.isEmpty()) {
+			return statementKey;
+		}
+		StringBuilder builder = new StringBuilder();
+		for (Map<String, String[]> values : groupPermValues) {
+			builder.append(SEPARATOR);
+			if(values == null)continue;
+			new TreeMap<>(values).forEach((k, v) -> {
+				builder.append(k).append(':');
+				if(v == null) {
+					builder.append('n');
+				}else {
+					for (String val : v) {
+						builder.append(valueShape(val));
+					}
+				}
+				builder.append(';');
+			});
+		}
+		//权限数据可能较大，只保留摘要
+		return statementKey + SEPARATOR + DigestUtils.md5(builder.toString());
+	}
+	
+	private static char valueShape(String value) {
+		if(value == null)return 'n';
+		if(DeptPermType._ALL_.name().equals(value))return 'A';
+		if(DeptPermType.none.name().equals(value))return 'N';
+		if(value.endsWith("%"))return 'L';
+		return 'v';
+	}
+	
+	/**
+	 * 重写参数来源
+	 */
+	static final class ValueRef {
+		static final String CURRENT_USER = "@user";
+		static final String CURRENT_TENANT = "@tenant";
+		static final String CURRENT_BUSINESS_UNIT = "@bUnit";
+		
+		final int group;
+		final String field;
+		final int index;
+		
+		ValueRef(int group, String field, int index) {
+			this.group = group;
+			this.field = field;
+			this.index = index;
+		}
+		
+		Object resolve(List<Map<String, String[]>> groupPermValues) {
+			if(CURRENT_USER.equals(field)) {
+				return MybatisRuntimeContext.getCurrentUserId();
+			}
+			if(CURRENT_TENANT.equals(field)) {
+				return CurrentRuntimeContext.getTenantId();
+			}
+			if(CURRENT_BUSINESS_UNIT.equals(field)) {
+				return CurrentRuntimeContext.getBusinessUnitId();
+			}
+			if(group >= groupPermValues.size() || groupPermValues.get(group) == null) {
+				return null;
+			}
+			String[] values = groupPermValues.get(group).get(field);
+			return values == null || index >= values.length ? null : values[index];
+		}
+	}
+	
+	static final class Entry {
+		//重写SQL（含参数占位符）
+		final String sql;
+		final List<ValueRef> valueRefs;
+		
+		Entry(String sql, List<ValueRef> valueRefs) {
+			this.sql = sql;
+			this.valueRefs = valueRefs;
+		}
+		
+		/**
+		 * @return 按当前上下文取值，任一值缺失返回null
+		 */
+		List<Object> resolveValues(List<Map<String, String[]>> groupPermValues) {
+			if(valueRefs.isEmpty())return Collections.emptyList();
+			List<Object> values = new ArrayList<>(valueRefs.size());
+			Object value;
+			for (ValueRef ref : valueRefs) {
+				if((value = ref.resolve(groupPermValues)) == null) {
+					return null;
+				}
+				values.add(value);
+			}
+			return values;
+		}
+	}
+}
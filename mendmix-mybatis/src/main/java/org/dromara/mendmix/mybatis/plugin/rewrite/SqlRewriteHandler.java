@@ -16,6 +16,7 @@
 package org.dromara.mendmix.mybatis.plugin.rewrite;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -106,7 +107,6 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 	private static Pattern multiSqlSpiterPattern = Pattern.compile(";\\s{0,}(UPDATE|INSERT)\\s+",Pattern.CASE_INSENSITIVE);
 	private static final String ARRAY_START = "[";
 	private static final String QUERY_FUZZY_CHAR = "%";
-	private static final String SQL_CACHE_KEY= "__SQL_CACHE__";
 	public static final String FRCH_PREFIX = "__frch_";
 	private static final String FRCH_INDEX_PREFIX = "__frch_index_";
 	private static final String FRCH_ITEM_PREFIX = "__frch_item_";
@@ -337,9 +337,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 				Executor executor = invocation.getExecutor();
 				MappedStatement mappedStatement = invocation.getMappedStatement();
 				ResultHandler<?> resultHandler = (ResultHandler<?>) invocation.getArgs()[3];
-				List<ParameterMapping> parameterMappings = invocation.getBoundSql().getParameterMappings();
-				BoundSql newBoundSql = new BoundSql(mappedStatement.getConfiguration(), invocation.getSql(),parameterMappings, invocation.getParameter());
-				copyAdditionalParameters(invocation.getBoundSql(), newBoundSql);
+				BoundSql newBoundSql = invocation.buildBoundSql(invocation.getSql());
 				CacheKey cacheKey = executor.createCacheKey(mappedStatement, invocation.getParameter(), RowBounds.DEFAULT, newBoundSql);
 
 				List<?> resultList = executor.query(mappedStatement, invocation.getParameter(), RowBounds.DEFAULT, resultHandler, cacheKey,newBoundSql);
@@ -412,35 +410,44 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 	 * @return
 	 */
 	private void rewriteSelectSql(RewriteSqlOnceContext context) {
-		String orignSql = context.invocation.getSql();
-		//针对同一sql如果已经重写过就直接返回(需要考虑租户切换和分表情况)
-		String sqlCacheKey = null;
-		String rewritedSql = null;
-		if(!context.withTableShardingRule()) {
-			sqlCacheKey = orignSql + CurrentRuntimeContext.getTenantId(); //
-			rewritedSql = getCachingRewritedSql(sqlCacheKey);
-		}
-		if (StringUtils.isNotBlank(rewritedSql)) {
-			context.invocation.setRewriteSql(rewritedSql);
-			return;
-		}
 		if(!context.withConditionReriteRule() && !context.withTableShardingRule()) {
 			return;
 		}
+		String orignSql = context.invocation.getSql();
+		List<String> permGroupKeys = context.handleDataPerm ? context.getPermGroupKeys() : null;
+		//针对同一sql如果已经重写过就直接返回(分表、调试模式不走缓存)
+		String statementCacheKey = null;
+		if(SqlRewriteCache.isEnabled() 
+				&& SqlRewriteCache.isCacheable(context) 
+				&& !context.withTableShardingRule() 
+				&& !context.traceLogging) {
+			statementCacheKey = SqlRewriteCache.buildKey(context, orignSql, permGroupKeys);
+			Boolean withDeptColumn = SqlRewriteCache.getStatementPlan(statementCacheKey);
+			if(withDeptColumn != null) {
+				List<Map<String, String[]>> groupPermValues = context.loadGroupDataPermValues(this, permGroupKeys, withDeptColumn);
+				SqlRewriteCache.Entry cacheEntry = SqlRewriteCache.get(SqlRewriteCache.buildEntryKey(statementCacheKey, groupPermValues));
+				List<Object> bindValues = cacheEntry == null ? null : cacheEntry.resolveValues(groupPermValues);
+				if (bindValues != null) {
+					RewriteParameterBinder.bind(context.invocation, cacheEntry.sql, bindValues);
+					return;
+				}
+			}
+		}
 			
 		Statement statement = MybatisSqlRewriteUtils.parseSql(orignSql);
 		if(statement == null)return; //parse error
 		SelectBody selectBody = ((Select)statement).getSelectBody();
 		
-		List<String> permGroupKeys = context.handleDataPerm ? context.getPermGroupKeys() : null;
 		if(permGroupKeys == null || permGroupKeys.isEmpty()) {
 			handleSelectRewrite(context,selectBody,false,true);
 		}else {
 			boolean withAllPermGroup = permGroupKeys.size()== 1 && DeptPermType._ALL_.name().equals(permGroupKeys.get(0));
-			for (String groupKey : permGroupKeys) {
+			for (int i = 0; i < permGroupKeys.size(); i++) {
+				String groupKey = permGroupKeys.get(i);
 				if(!withAllPermGroup) {
 					//加载分组权限
 					context.currentGroupKey = groupKey;
+					context.currentGroupIndex = i;
 					context.loadedCurrentGroupPermData = false;
 					handleSelectRewrite(context, selectBody,true,true);
 				}else {	
@@ -473,11 +480,18 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 			}
 		}
 		//
-		context.invocation.setRewriteSql(selectBody.toString());
+		String rewritedSql = selectBody.toString();
+		List<Object> bindValues = context.parameterBinder.getValues();
+		RewriteParameterBinder.bind(context.invocation, rewritedSql, bindValues);
 		//add cache
-		//包含重写表名不缓存
-		if(sqlCacheKey != null && context.rewriteTables != null && !context.rewriteTables.stream().anyMatch(o -> o.getRewritedTableName() != null)) {			
-			getThreadSqlCache().put(sqlCacheKey, selectBody.toString());
+		//包含重写表名或条件值无法参数化不缓存
+		List<SqlRewriteCache.ValueRef> valueRefs = context.parameterBinder.getValueRefs();
+		if(statementCacheKey != null 
+				&& valueRefs != null
+				&& context.rewriteTables != null 
+				&& !context.rewriteTables.stream().anyMatch(o -> o.getRewritedTableName() != null)) {	
+			String sqlCacheKey = SqlRewriteCache.buildEntryKey(statementCacheKey, context.loadedPermValues);
+			SqlRewriteCache.put(statementCacheKey, context.withDeptColumn, sqlCacheKey, new SqlRewriteCache.Entry(rewritedSql, valueRefs));
 		}
 	}
 	
@@ -577,20 +591,6 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 		return map;
 	}
 
-	private String getCachingRewritedSql(String sqlCacheKey){
-		if(!ThreadLocalContext.exists(SQL_CACHE_KEY))return null;
-		return getThreadSqlCache().get(sqlCacheKey);
-	}
-
-	private Map<String, String> getThreadSqlCache() {
-		Map<String, String> cache = ThreadLocalContext.get(SQL_CACHE_KEY);
-		cache = Optional.ofNullable(cache).orElseGet(()-> {
-			Map<String, String> map = new HashMap<>(5);
-			ThreadLocalContext.set(SQL_CACHE_KEY, map);
-			return map;
-		});
-		return cache;
-	}
 
 
 	private void handleSelectRewrite(RewriteSqlOnceContext context,SelectBody selectBody,boolean multiGroupMode,boolean handleWhereSubselect) {
@@ -753,7 +753,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 				currentTenantId = CurrentRuntimeContext.getTenantId();
 				if(currentTenantId == null)throw new MendmixBaseException("无法获取当前租户ID[via:sqlRewrite]");
 				values = new String[] {currentTenantId};
-				condition = new ConditionPair(tenantColumnName, values);
+				condition = new ConditionPair(tenantColumnName, values, SqlRewriteCache.ValueRef.CURRENT_TENANT);
 				//
 				if(!rewriteTable.isJoin() && !context.unionSelect) {
 					context.mainTableHandledTenant = true;
@@ -762,7 +762,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 				String businessUnitId = CurrentRuntimeContext.getBusinessUnitId();
 				if(businessUnitId == null)continue;
 				values = new String[] {businessUnitId};
-				condition = new ConditionPair(bUnitColumnName, values);
+				condition = new ConditionPair(bUnitColumnName, values, SqlRewriteCache.ValueRef.CURRENT_BUSINESS_UNIT);
 			}else {
 				if(dataMapping == null || !dataMapping.containsKey(fieldName))continue;
 				List<String> columns = rewriteColumnMapping.get(fieldName);
@@ -779,6 +779,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 						for (ConditionPair pair : conditions) {
 							if(columns.contains(pair.getColumn())) {
 								pair.setValues(values);
+								pair.setField(fieldName);
 								leastColumnMatched = true;
 							}
 						}
@@ -787,7 +788,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 				}
 				if(!usedOrCondition) {
 					if(columns.size() == 1) {
-						condition = new ConditionPair(columns.get(0), values);
+						condition = new ConditionPair(columns.get(0), values, fieldName);
 					}else {
 						//一个维度对应多个列的情况
 						if(orConditionGroups == null) {
@@ -795,7 +796,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 						}
 						List<ConditionPair> pairs = new ArrayList<>(columns.size());
 						for (String column : columns) {
-							pairs.add(new ConditionPair(column, values));
+							pairs.add(new ConditionPair(column, values, fieldName));
 						}
 						orConditionGroups.add(pairs);
 					}
@@ -804,14 +805,14 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 			}
 			
 			if(condition != null) {
-				permExpression = handleColumnDataPermCondition(rewriteTable, permExpression, condition);
+				permExpression = handleColumnDataPermCondition(context, rewriteTable, permExpression, condition);
 			}
 		}
 		
 		//
 		if(orConditionGroups != null) {
 			for (List<ConditionPair> conditions : orConditionGroups) {
-				permExpression = handleColumnDataPermCondition(table, permExpression, conditions);
+				permExpression = handleColumnDataPermCondition(context, table, permExpression, conditions);
 			}
 		}
 		
@@ -896,7 +897,8 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 		return whereExpression;
 	}
 	
-	private  Expression handleColumnDataPermCondition(RewriteTable table
+	private  Expression handleColumnDataPermCondition(RewriteSqlOnceContext context
+			,RewriteTable table
 			,Expression orginExpression
 			,ConditionPair condition){
 		Column column = new Column(table.getTable(), condition.getColumn());
@@ -914,11 +916,11 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 			if(values[0].endsWith(QUERY_FUZZY_CHAR)) {
 				expression = new LikeExpression();
 				expression.setLeftExpression(column);
-				expression.setRightExpression(new StringValue(values[0]));
+				expression.setRightExpression(context.parameterBinder.valueExpression(values[0], context.valueRef(condition.getField(), 0)));
 			}else {
 				expression = new EqualsTo();
 				expression.setLeftExpression(column);
-				expression.setRightExpression(new StringValue(values[0]));
+				expression.setRightExpression(context.parameterBinder.valueExpression(values[0], context.valueRef(condition.getField(), 0)));
 			}
 
 			if(orginExpression == null) {
@@ -930,10 +932,10 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 			if(MybatisConfigs.DATA_PERM_ORG_USING_FULL_CODE_MODE && condition.getColumn().equals(deptColumnName)) {
 				BinaryExpression itemExpression;
 				BinaryExpression groupExpression = null;
-				for (String value : values) {
+				for (int i = 0; i < values.length; i++) {
 					itemExpression = new LikeExpression();
 					itemExpression.setLeftExpression(column);
-					itemExpression.setRightExpression(new StringValue(value));
+					itemExpression.setRightExpression(context.parameterBinder.valueExpression(values[i], context.valueRef(condition.getField(), i)));
 					if(groupExpression == null) {
 						groupExpression = itemExpression;
 					}else {
@@ -943,12 +945,14 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 				Parenthesis parenthesis = new Parenthesis(groupExpression);
 				newExpression = orginExpression == null ? parenthesis : new AndExpression(orginExpression,parenthesis);
 			}else {
-				ExpressionList expressionList = new ExpressionList(new ArrayList<>(values.length));
-				for (String value : values) {
-					if(value == null)continue;
-					expressionList.getExpressions().add(new StringValue(value));
+				List<String> valueList = new ArrayList<>(values.length);
+				List<SqlRewriteCache.ValueRef> valueRefs = new ArrayList<>(values.length);
+				for (int i = 0; i < values.length; i++) {
+					if(values[i] == null)continue;
+					valueList.add(values[i]);
+					valueRefs.add(context.valueRef(condition.getField(), i));
 				}
-				if(expressionList.getExpressions().isEmpty()) {
+				if(valueList.isEmpty()) {
 					newExpression = orginExpression;
 					if(!MybatisConfigs.DATA_PERM_STRICT_MODE) {
 						newExpression = orginExpression;
@@ -956,6 +960,7 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 						newExpression = noPermssionCondition;
 					}
 				}else {
+					ExpressionList expressionList = new ExpressionList(context.parameterBinder.listExpressions(valueList, valueRefs));
 					InExpression inExpression = new InExpression(column, expressionList);
 					newExpression = orginExpression == null ? inExpression : new AndExpression(orginExpression,inExpression);
 				}
@@ -994,7 +999,8 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 		return newWhere;
 	} 
 	
-	private  Expression handleColumnDataPermCondition(Table table
+	private  Expression handleColumnDataPermCondition(RewriteSqlOnceContext context
+			,Table table
 			,Expression orginExpression
 			,List<ConditionPair> orConditions){
 		
@@ -1012,13 +1018,14 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 			if (condition.getValues().length == 1) {
 				EqualsTo equalsExpr = new EqualsTo();
 				equalsExpr.setLeftExpression(column);
-				equalsExpr.setRightExpression(new StringValue(values[0]));
+				equalsExpr.setRightExpression(context.parameterBinder.valueExpression(values[0], context.valueRef(condition.getField(), 0)));
 				expression = equalsExpr;
 			}else {
-				ExpressionList expressionList = new ExpressionList(new ArrayList<>(values.length));
-				for (String value : values) {
-					expressionList.getExpressions().add(new StringValue(value));
+				List<SqlRewriteCache.ValueRef> valueRefs = new ArrayList<>(values.length);
+				for (int i = 0; i < values.length; i++) {
+					valueRefs.add(context.valueRef(condition.getField(), i));
 				}
+				ExpressionList expressionList = new ExpressionList(context.parameterBinder.listExpressions(Arrays.asList(values), valueRefs));
 				expression = new InExpression(column, expressionList);
 			}
 			groupExpression = groupExpression == null ? expression : new OrExpression(groupExpression, expression);
@@ -1051,8 +1058,8 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 		Expression expression = null;
 		String[] permValues = context.getPermValues(deptPropName);
 		if(permValues != null && rewriteTable.isWithDeptColumn()) {
-			ConditionPair condition = new ConditionPair(deptColumnName, permValues);
-			expression = handleColumnDataPermCondition(rewriteTable, null, condition);
+			ConditionPair condition = new ConditionPair(deptColumnName, permValues, deptPropName);
+			expression = handleColumnDataPermCondition(context, rewriteTable, null, condition);
 			expressions.add(expression);
 		}
 		//
@@ -1075,11 +1082,11 @@ public class SqlRewriteHandler implements PluginInterceptorHandler {
 		Expression expression;
 		EqualsTo userEquals = new EqualsTo();
 		userEquals.setLeftExpression(new Column(table.getTable(), colomnName));
-		userEquals.setRightExpression(new StringValue(currentUserId));
+		userEquals.setRightExpression(context.parameterBinder.valueExpression(currentUserId, context.valueRef(SqlRewriteCache.ValueRef.CURRENT_USER, 0)));
 		if(context.currentTenantId != null && table.containsRewriteField(tenantPropName)) {
 			EqualsTo tenantEquals = new EqualsTo();
 			tenantEquals.setLeftExpression(new Column(table.getTable(), tenantColumnName));
-			tenantEquals.setRightExpression(new StringValue(context.currentTenantId));
+			tenantEquals.setRightExpression(context.parameterBinder.valueExpression(context.currentTenantId, context.valueRef(SqlRewriteCache.ValueRef.CURRENT_TENANT, 0)));
 			expression = new Parenthesis(new AndExpression(tenantEquals, userEquals));
 		}else {
 			expression = userEquals;
@@ -19,6 +19,7 @@ import org.dromara.mendmix.common.crypt.CustomEncryptor;
 import org.dromara.mendmix.common.util.BeanUtils;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.dromara.mendmix.common.util.TimeConvertUtils;
+import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
 import org.dromara.mendmix.mybatis.plugin.MendmixMybatisInterceptor;
 import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
 import org.dromara.mendmix.mybatis.plugin.PluginInterceptorHandler;
@@ -83,6 +84,11 @@ public class SensitiveCryptHandler implements PluginInterceptorHandler {
 		}
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return mt.getSqlCommandType() != SqlCommandType.DELETE;
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 2;
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ibatis.mapping.MappedStatement;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
 import org.dromara.mendmix.mybatis.kit.MybatisMapperParser;
@@ -176,6 +177,12 @@ public class TableShardingHandler implements PluginInterceptorHandler {
 	@Override
 	public void close() {}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return methodStrategyMapping.containsKey(mt.getId())
+				|| (entityInfo != null && tableStrategyMapping.containsKey(entityInfo.getTableName()));
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 1;
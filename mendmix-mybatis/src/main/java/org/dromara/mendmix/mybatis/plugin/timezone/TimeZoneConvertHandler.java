@@ -10,12 +10,14 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.util.BeanUtils;
 import org.dromara.mendmix.common.util.DateUtils;
 import org.dromara.mendmix.common.util.ResourceUtils;
 import org.dromara.mendmix.common.util.TimeConvertUtils;
+import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
 import org.dromara.mendmix.mybatis.plugin.MendmixMybatisInterceptor;
 import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
 import org.dromara.mendmix.mybatis.plugin.PluginInterceptorHandler;
@@ -110,6 +112,11 @@ public class TimeZoneConvertHandler implements PluginInterceptorHandler {
 		}
 	}
 
+	@Override
+	public boolean applicable(MappedStatement mt, MapperMetadata entityInfo) {
+		return mt.getSqlCommandType() != SqlCommandType.DELETE;
+	}
+
 	@Override
 	public int interceptorOrder() {
 		return 2;
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.pagination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.dromara.mendmix.common.MendmixBaseException;
+import org.dromara.mendmix.common.model.OrderBy;
+import org.dromara.mendmix.common.model.OrderBy.OrderType;
+import org.dromara.mendmix.common.model.Page;
+import org.dromara.mendmix.common.model.PageParams;
+import org.dromara.mendmix.example.dao.entity.ExampleStaffEntity;
+import org.dromara.mendmix.example.dao.mapper.ExampleStaffEntityMapper;
+import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
+import org.dromara.mendmix.mybatis.metadata.MapperMetadata;
+import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * keyset分页条件构建
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class KeysetPaginationTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+	
+	private Configuration configuration = new Configuration();
+	private PaginationHandler handler = new PaginationHandler();
+	private MapperMetadata entityInfo = new MapperMetadata(ExampleStaffEntityMapper.class.getName());
+	
+	@After
+	public void after() {
+		PageExecutor.clearPageObject();
+		MybatisRuntimeContext.unsetOnceContext();
+	}
+	
+	@Test
+	public void testMultiColumnSeek() {
+		String sql = "SELECT u.id, u.created_at AS createdAt FROM t u JOIN d ON d.id = u.did WHERE u.name = ?";
+		PageParams pageParams = new PageParams(1, 20)
+				.orderBys(null, new OrderBy("createdAt", OrderType.DESC), new OrderBy("id"))
+				.seekAfter(1000L, 100L);
+		BoundSql boundSql = handler.buildKeysetBoundSql(newInvocation(sql, pageParams), entityInfo);
+		
+		assertEquals("SELECT * FROM (" + sql + ") _kt WHERE (createdAt < ? OR (createdAt = ? AND id > ?)) ORDER BY createdAt DESC, id limit 0,20", boundSql.getSql());
+		assertEquals(Arrays.asList("name", "__seek_0", "__seek_1", "__seek_2"), properties(boundSql));
+		assertEquals(1000L, boundSql.getAdditionalParameter("__seek_0"));
+		assertEquals(1000L, boundSql.getAdditionalParameter("__seek_1"));
+		assertEquals(100L, boundSql.getAdditionalParameter("__seek_2"));
+	}
+	
+	@Test
+	public void testFirstPageWithoutSeekValues() {
+		String sql = "SELECT id, count(1) c FROM t WHERE name = ? GROUP BY id";
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("c")).seekAfter();
+		BoundSql boundSql = handler.buildKeysetBoundSql(newInvocation(sql, pageParams), entityInfo);
+		
+		assertEquals("SELECT * FROM (" + sql + ") _kt ORDER BY c, id limit 0,20", boundSql.getSql());
+		assertEquals(Collections.singletonList("name"), properties(boundSql));
+	}
+	
+	@Test
+	public void testDistinctWrapped() {
+		String sql = "SELECT DISTINCT id FROM t WHERE name = ?";
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("id")).seekAfter(3);
+		BoundSql boundSql = handler.buildKeysetBoundSql(newInvocation(sql, pageParams), entityInfo);
+		
+		assertEquals("SELECT * FROM (" + sql + ") _kt WHERE (id > ?) ORDER BY id limit 0,20", boundSql.getSql());
+		assertEquals(Arrays.asList("name", "__seek_0"), properties(boundSql));
+	}
+	
+	@Test
+	public void testMergeRewriteParameters() {
+		OnceContextVal invocation = newInvocation("SELECT DISTINCT id FROM t WHERE name = ?", new PageParams(1, 20).orderBy(new OrderBy("id")).seekAfter(3));
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		parameterMappings.add(new ParameterMapping.Builder(configuration, "__dperm_0", String.class).build());
+		parameterMappings.addAll(invocation.getParameterMappings());
+		invocation.setRewriteSql("SELECT DISTINCT id FROM t WHERE dept = ? AND name = ?", parameterMappings, Collections.singletonMap("__dperm_0", "D1"));
+		BoundSql boundSql = handler.buildKeysetBoundSql(invocation, entityInfo);
+		
+		assertEquals("SELECT * FROM (SELECT DISTINCT id FROM t WHERE dept = ? AND name = ?) _kt WHERE (id > ?) ORDER BY id limit 0,20", boundSql.getSql());
+		assertEquals(Arrays.asList("__dperm_0", "name", "__seek_0"), properties(boundSql));
+		assertEquals("D1", boundSql.getAdditionalParameter("__dperm_0"));
+	}
+	
+	@Test
+	public void testRejectUnknownField() {
+		thrown.expect(MendmixBaseException.class);
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("id;drop table t")).seekAfter(5);
+		handler.buildKeysetBoundSql(newInvocation("SELECT * FROM t WHERE name = ?", pageParams), entityInfo);
+	}
+	
+	@Test
+	public void testRejectUnselectedField() {
+		thrown.expect(MendmixBaseException.class);
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("did")).seekAfter(5);
+		handler.buildKeysetBoundSql(newInvocation("SELECT u.id FROM t u JOIN d ON d.id = u.did WHERE u.name = ?", pageParams), entityInfo);
+	}
+	
+	@Test
+	public void testRejectNullSeekValue() {
+		thrown.expect(MendmixBaseException.class);
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("id")).seekAfter((Object)null);
+		handler.buildKeysetBoundSql(newInvocation("SELECT u.id FROM t u JOIN d ON d.id = u.did WHERE u.name = ?", pageParams), entityInfo);
+	}
+	
+	@Test
+	public void testRejectSeekValuesSizeMismatch() {
+		thrown.expect(MendmixBaseException.class);
+		PageParams pageParams = new PageParams(1, 20).orderBys(new OrderBy("id"), null).seekAfter(1, 2);
+		handler.buildKeysetBoundSql(newInvocation("SELECT DISTINCT id FROM t WHERE name = ?", pageParams), entityInfo);
+	}
+	
+	@Test
+	public void testAppendIdTiebreaker() {
+		String sql = "SELECT * FROM staff WHERE name = ?";
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("created_at", OrderType.DESC)).seekAfter(1000L, 7);
+		BoundSql boundSql = handler.buildKeysetBoundSql(newInvocation(sql, pageParams), entityInfo);
+		
+		assertEquals("SELECT * FROM staff WHERE (name = ?) AND (staff.created_at < ? OR (staff.created_at = ? AND staff.id > ?)) ORDER BY staff.created_at DESC, staff.id limit 0,20", boundSql.getSql());
+		assertEquals(7, boundSql.getAdditionalParameter("__seek_2"));
+	}
+	
+	@Test
+	public void testRejectWithoutEntity() {
+		thrown.expect(MendmixBaseException.class);
+		PageParams pageParams = new PageParams(1, 20).orderBy(new OrderBy("id")).seekAfter();
+		handler.buildKeysetBoundSql(newInvocation("SELECT * FROM staff WHERE name = ?", pageParams), null);
+	}
+	
+	@Test
+	public void testNextSeekValuesByColumnName() {
+		Date createdAt = new Date();
+		Page<?> page = new Page<>(new PageParams(1, 1).orderBy(new OrderBy("created_at", OrderType.DESC)).seekAfter(), 0, null);
+		ExampleStaffEntity entity = new ExampleStaffEntity();
+		entity.setId(3);
+		entity.setCreatedAt(createdAt);
+		assertEquals(Arrays.asList(createdAt, 3), PaginationHandler.getNextSeekValues(entityInfo, page, Collections.singletonList(entity)));
+		
+		Map<String, Object> row = new HashMap<>();
+		row.put("CREATED_AT", createdAt);
+		row.put("ID", 3);
+		assertEquals(Arrays.asList(createdAt, 3), PaginationHandler.getNextSeekValues(entityInfo, page, Collections.singletonList(row)));
+		//不足一页
+		assertNull(PaginationHandler.getNextSeekValues(entityInfo, page, Collections.emptyList()));
+	}
+	
+	@Test
+	public void testNextSeekValuesRejectNull() {
+		thrown.expect(MendmixBaseException.class);
+		Page<?> page = new Page<>(new PageParams(1, 1).orderBy(new OrderBy("createdAt")).seekAfter(), 0, null);
+		ExampleStaffEntity entity = new ExampleStaffEntity();
+		entity.setId(3);
+		PaginationHandler.getNextSeekValues(entityInfo, page, Collections.singletonList(entity));
+	}
+	
+	@Test
+	public void testOffsetPageIgnoreKeysetFields() {
+		PageParams pageParams = new PageParams(2, 20).orderBy(new OrderBy("id")).ignoreCount();
+		pageParams.setConcurrency(true);
+		Page<Object> page = new Page<>(pageParams, 0, null);
+		assertEquals(2, page.getPageNo());
+		assertNull(page.getOrderBys());
+		assertFalse(page.isIgnoreCount());
+		assertFalse(page.isConcurrency());
+		
+		page = new Page<>(pageParams.seekAfter(5), 0, null);
+		assertEquals(1, page.getOrderBys().size());
+		assertEquals(Collections.singletonList(5), page.getSeekValues());
+		assertTrue(page.isIgnoreCount());
+	}
+	
+	private OnceContextVal newInvocation(String sql,PageParams pageParams) {
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		parameterMappings.add(new ParameterMapping.Builder(configuration, "name", String.class).build());
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("name", "n");
+		MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.UserMapper.findList", new StaticSqlSource(configuration, sql, parameterMappings), SqlCommandType.SELECT).build();
+		PageExecutor.setPageObject(new Page<>(pageParams, 0, null));
+		try {
+			return new OnceContextVal("default", new Invocation(null, Object.class.getMethod("toString"), new Object[] {mappedStatement, parameter, null, null}));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static List<String> properties(BoundSql boundSql) {
+		List<String> properties = new ArrayList<>();
+		for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+			properties.add(parameterMapping.getProperty());
+		}
+		return properties;
+	}
+}
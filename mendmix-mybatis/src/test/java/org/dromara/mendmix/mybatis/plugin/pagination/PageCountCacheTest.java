@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.pagination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
+import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 分页总数缓存版本及缓存key
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class PageCountCacheTest {
+
+	private Configuration configuration = new Configuration();
+	
+	@After
+	public void after() {
+		MybatisRuntimeContext.unsetOnceContext();
+	}
+	
+	@Test
+	public void testVersion() {
+		String[] tables = new String[] {"pcc_user", "pcc_dept"};
+		assertEquals(0, PageCountCache.version(tables));
+		PageCountCache.invalidate(new String[] {"pcc_user"});
+		assertEquals(1, PageCountCache.version(tables));
+		PageCountCache.invalidate(tables);
+		assertEquals(3, PageCountCache.version(tables));
+		//无关表写入不影响
+		PageCountCache.invalidate(new String[] {"pcc_other"});
+		assertEquals(3, PageCountCache.version(tables));
+	}
+	
+	@Test
+	public void testGetWithVersion() {
+		String[] tables = new String[] {"pcc_order"};
+		long version = PageCountCache.version(tables);
+		PageCountCache.put("pcc_key", version, 10);
+		assertEquals(Long.valueOf(10), PageCountCache.get("pcc_key", version));
+		
+		PageCountCache.invalidate(tables);
+		assertNull(PageCountCache.get("pcc_key", PageCountCache.version(tables)));
+		//版本不一致时移除
+		assertNull(PageCountCache.get("pcc_key", version));
+	}
+	
+	@Test
+	public void testGetTables() {
+		OnceContextVal invocation = newInvocation("SELECT u.* FROM `db`.`pcc_user` u JOIN pcc_dept d ON d.id = u.dept_id WHERE u.name = ?", "n");
+		assertEquals("[pcc_user, pcc_dept]", Arrays.toString(PageCountCache.getTables(invocation)));
+	}
+	
+	@Test
+	public void testBuildKey() {
+		String sql = "SELECT * FROM pcc_user WHERE name = ? AND created_at > ?";
+		String key1 = buildKey(newInvocation(sql, "a", new Date(1000L)));
+		String key2 = buildKey(newInvocation(sql, "a", new Date(1000L)));
+		assertEquals(key1, key2);
+		//Date.toString只精确到秒
+		assertNotEquals(key1, buildKey(newInvocation(sql, "a", new Date(1001L))));
+		assertNotEquals(key1, buildKey(newInvocation(sql, "b", new Date(1000L))));
+		
+		OnceContextVal invocation = newInvocation(sql, "a", new Date(1000L));
+		invocation.setGroupName("other");
+		assertNotEquals(key1, buildKey(invocation));
+	}
+	
+	@Test
+	public void testBuildKeyWithAdditionalParameter() {
+		String sql = "SELECT * FROM pcc_user WHERE name = ? AND created_at > ?";
+		OnceContextVal invocation = newInvocation(sql, "a", new Date(1000L));
+		List<ParameterMapping> parameterMappings = new ArrayList<>(invocation.getParameterMappings());
+		parameterMappings.add(0, new ParameterMapping.Builder(configuration, "__dperm_0", String.class).build());
+		Map<String, Object> additionalParameters = new HashMap<>();
+		additionalParameters.put("__dperm_0", "D1");
+		BoundSql boundSql1 = invocation.buildBoundSql("SELECT * FROM pcc_user WHERE dept = ? AND name = ? AND created_at > ?", parameterMappings, additionalParameters);
+		additionalParameters.put("__dperm_0", "D2");
+		BoundSql boundSql2 = invocation.buildBoundSql(boundSql1.getSql(), parameterMappings, additionalParameters);
+		
+		assertNotEquals(PageCountCache.buildKey(invocation, boundSql1), PageCountCache.buildKey(invocation, boundSql2));
+	}
+	
+	private String buildKey(OnceContextVal invocation) {
+		return PageCountCache.buildKey(invocation, invocation.buildBoundSql(invocation.getSql()));
+	}
+	
+	private OnceContextVal newInvocation(String sql,Object name,Object...createdAt) {
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		Map<String, Object> parameter = new HashMap<>();
+		parameterMappings.add(new ParameterMapping.Builder(configuration, "name", Object.class).build());
+		parameter.put("name", name);
+		if(createdAt.length > 0) {
+			parameterMappings.add(new ParameterMapping.Builder(configuration, "createdAt", Object.class).build());
+			parameter.put("createdAt", createdAt[0]);
+		}
+		MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.UserMapper.find" + Math.abs(sql.hashCode()), new StaticSqlSource(configuration, sql, parameterMappings), SqlCommandType.SELECT).build();
+		try {
+			return new OnceContextVal("default", new Invocation(null, Object.class.getMethod("toString"), new Object[] {mappedStatement, parameter, null, null}));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.pagination;
+
+import static org.junit.Assert.assertEquals;
+
+import org.dromara.mendmix.mybatis.datasource.DatabaseType;
+import org.junit.Test;
+
+/**
+ * 限定上限的count SQL
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class PageSqlUtilsTest {
+
+	@Test
+	public void testCappedCountSql() {
+		assertEquals("select count(1) from (SELECT 1 from users where status = ? limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select id,name from users where status = ? order by id desc", 1000));
+		//子查询中的排序保留
+		assertEquals("select count(1) from (SELECT 1 from users u where u.id in (select uid from r order by uid) and x = ? limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select * from users u where u.id in (select uid from r order by uid) and x = ?", 1000));
+	}
+	
+	@Test
+	public void testCappedCountSqlKeepParameters() {
+		//查询列含参数
+		assertEquals("select count(1) from (select id,CASE WHEN score > ? THEN 1 ELSE 0 END pass from users where status = ? limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select id,CASE WHEN score > ? THEN 1 ELSE 0 END pass from users where status = ? order by id", 1000));
+		//排序含参数
+		assertEquals("select count(1) from (SELECT 1 from users where status = ? order by field(id, ?) limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select id from users where status = ? order by field(id, ?)", 1000));
+	}
+	
+	@Test
+	public void testCappedCountSqlWrapperMode() {
+		assertEquals("select count(1) from (select status,count(1) from users group by status limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select status,count(1) from users group by status order by status", 1000));
+		assertEquals("select count(1) from (select distinct name from users limit 0,1001) tmp"
+				, PageSqlUtils.getCappedCountSql(DatabaseType.mysql, "select distinct name from users order by name", 1000));
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.rewrite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.dromara.mendmix.common.MendmixBaseException;
+import org.dromara.mendmix.mybatis.MybatisRuntimeContext;
+import org.dromara.mendmix.mybatis.plugin.OnceContextVal;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 重写参数占位符替换
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class RewriteParameterBinderTest {
+
+	private static final String PREFIX = RewriteParameterBinder.DATA_PERM_MARKER_PREFIX;
+	
+	private Configuration configuration = new Configuration();
+	
+	@After
+	public void after() {
+		MybatisRuntimeContext.unsetOnceContext();
+	}
+	
+	@Test
+	public void testBindMergeOriginParameters() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ? AND status = ?", "name", "status");
+		String sql = "SELECT * FROM t WHERE dept = :" + PREFIX + "0 AND name = ? AND type IN (:" + PREFIX + "1, :" + PREFIX + "2) AND status = ?";
+		RewriteParameterBinder.bind(invocation, sql, Arrays.asList("D1", 1, 2));
+		
+		assertEquals("SELECT * FROM t WHERE dept = ? AND name = ? AND type IN (?, ?) AND status = ?", invocation.getSql());
+		assertEquals(Arrays.asList(PREFIX + "0", "name", PREFIX + "1", PREFIX + "2", "status"), properties(invocation.getParameterMappings()));
+		assertEquals(String.class, invocation.getParameterMappings().get(0).getJavaType());
+		assertEquals(Object.class, invocation.getParameterMappings().get(2).getJavaType());
+		
+		BoundSql boundSql = invocation.buildBoundSql(invocation.getSql());
+		assertEquals("D1", boundSql.getAdditionalParameter(PREFIX + "0"));
+		assertEquals(2, boundSql.getAdditionalParameter(PREFIX + "2"));
+	}
+	
+	@Test
+	public void testIgnoreQuotedAndComment() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		String sql = "SELECT \"a?\" /* b? */ FROM t WHERE remark <> 'c?' -- d?\n AND dept = :" + PREFIX + "0 AND name = ?";
+		RewriteParameterBinder.bind(invocation, sql, Arrays.asList("D1"));
+		
+		assertEquals("SELECT \"a?\" /* b? */ FROM t WHERE remark <> 'c?' -- d?\n AND dept = ? AND name = ?", invocation.getSql());
+		assertEquals(Arrays.asList(PREFIX + "0", "name"), properties(invocation.getParameterMappings()));
+	}
+	
+	@Test
+	public void testEscapedQuote() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		String sql = "SELECT * FROM t WHERE remark <> 'it''s ?' AND dept = :" + PREFIX + "0 AND name = ?";
+		RewriteParameterBinder.bind(invocation, sql, Arrays.asList("D1"));
+		
+		assertEquals("SELECT * FROM t WHERE remark <> 'it''s ?' AND dept = ? AND name = ?", invocation.getSql());
+		assertEquals(Arrays.asList(PREFIX + "0", "name"), properties(invocation.getParameterMappings()));
+	}
+	
+	@Test
+	public void testMismatchFallbackToInlineValues() {
+		//重写SQL的?多于原参数
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		String sql = "SELECT * FROM t WHERE dept = :" + PREFIX + "0 AND name = ? AND code = ?";
+		RewriteParameterBinder.bind(invocation, sql, Arrays.asList("D1"));
+		
+		assertEquals("SELECT * FROM t WHERE dept = 'D1' AND name = ? AND code = ?", invocation.getSql());
+		assertEquals(Arrays.asList("name"), properties(invocation.getParameterMappings()));
+		
+		//未闭合的注释吞掉后续?
+		invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		sql = "SELECT * FROM t WHERE dept = :" + PREFIX + "0 /* AND name = ?";
+		RewriteParameterBinder.bind(invocation, sql, Arrays.asList("D1"));
+		assertEquals("SELECT * FROM t WHERE dept = 'D1' /* AND name = ?", invocation.getSql());
+	}
+	
+	@Test
+	public void testReplaceMarkersMismatch() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ? AND code = ?", "name", "code");
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		Map<String, Object> additionalParameters = new HashMap<>();
+		String sql = RewriteParameterBinder.replaceMarkers(invocation, "SELECT * FROM t WHERE name = ?", PREFIX, new ArrayList<>(), parameterMappings, additionalParameters);
+		assertNull(sql);
+	}
+	
+	@Test
+	public void testBuildBoundSql() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		RewriteParameterBinder binder = new RewriteParameterBinder("__seek_");
+		String sql = "SELECT * FROM t WHERE name = ? AND id > " + binder.bindExpression(100L) + " LIMIT 20";
+		BoundSql boundSql = binder.buildBoundSql(invocation, sql);
+		
+		assertEquals("SELECT * FROM t WHERE name = ? AND id > ? LIMIT 20", boundSql.getSql());
+		assertEquals(Arrays.asList("name", "__seek_0"), properties(boundSql.getParameterMappings()));
+		assertEquals(100L, boundSql.getAdditionalParameter("__seek_0"));
+		//不修改invocation
+		assertEquals("SELECT * FROM t WHERE name = ?", invocation.getSql());
+	}
+	
+	@Test(expected = MendmixBaseException.class)
+	public void testBuildBoundSqlMismatch() {
+		OnceContextVal invocation = newInvocation("SELECT * FROM t WHERE name = ?", "name");
+		RewriteParameterBinder binder = new RewriteParameterBinder("__seek_");
+		binder.buildBoundSql(invocation, "SELECT * FROM t WHERE name = ? AND id > " + binder.bindExpression(1) + " AND code = ?");
+	}
+	
+	private OnceContextVal newInvocation(String sql,String...properties) {
+		List<ParameterMapping> parameterMappings = new ArrayList<>();
+		Map<String, Object> parameter = new HashMap<>();
+		for (String property : properties) {
+			parameterMappings.add(new ParameterMapping.Builder(configuration, property, String.class).build());
+			parameter.put(property, property);
+		}
+		MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.UserMapper.findList", new StaticSqlSource(configuration, sql, parameterMappings), SqlCommandType.SELECT).build();
+		try {
+			return new OnceContextVal("default", new Invocation(null, Object.class.getMethod("toString"), new Object[] {mappedStatement, parameter, null, null}));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static List<String> properties(List<ParameterMapping> parameterMappings) {
+		List<String> properties = new ArrayList<>(parameterMappings.size());
+		for (ParameterMapping parameterMapping : parameterMappings) {
+			properties.add(parameterMapping.getProperty());
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016-2022 dromara.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dromara.mendmix.mybatis.plugin.rewrite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dromara.mendmix.mybatis.DeptPermType;
+import org.junit.Test;
+
+/**
+ * 重写SQL缓存键及参数来源
+ * @description <br>
+ * @author <a href="mailto:vakinge@gmail.com">vakin</a>
+ * @date 2026年10月18日
+ */
+public class SqlRewriteCacheTest {
+
+	private static final String STATEMENT_KEY = "test.UserMapper.findList";
+	
+	@Test
+	public void testEntryKeyIgnoreValues() {
+		String key1 = SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", "d1", "d2"));
+		String key2 = SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", "d3", "d4"));
+		assertEquals(key1, key2);
+	}
+	
+	@Test
+	public void testEntryKeyWithValueShape() {
+		String key = SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", "d1", "d2"));
+		assertNotEquals(key, SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", "d1")));
+		assertNotEquals(key, SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", "d1", "d2%")));
+		assertNotEquals(key, SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("deptId", DeptPermType._ALL_.name(), "d2")));
+		assertNotEquals(key, SqlRewriteCache.buildEntryKey(STATEMENT_KEY, groupValues("areaId", "d1", "d2")));
+		assertEquals(STATEMENT_KEY, SqlRewriteCache.buildEntryKey(STATEMENT_KEY, Collections.emptyList()));
+	}
+	
+	@Test
+	public void testResolveValues() {
+		SqlRewriteCache.Entry entry = new SqlRewriteCache.Entry("select 1", Arrays.asList(
+				new SqlRewriteCache.ValueRef(0, "deptId", 1),
+				new SqlRewriteCache.ValueRef(0, "deptId", 0)));
+		assertEquals(Arrays.asList("d4", "d3"), entry.resolveValues(groupValues("deptId", "d3", "d4")));
+		//当前用户权限数据缺失
+		assertNull(entry.resolveValues(groupValues("deptId", "d3")));
+		assertNull(entry.resolveValues(Collections.emptyList()));
+	}
+	
+	@Test
+	public void testUnknownValueSource() {
+		RewriteParameterBinder binder = new RewriteParameterBinder(RewriteParameterBinder.DATA_PERM_MARKER_PREFIX);
+		assertEquals(Collections.emptyList(), binder.getValueRefs());
+		binder.bindExpression("v1");
+		assertNull(binder.getValueRefs());
+	}
+	
+	private static List<Map<String, String[]>> groupValues(String field,String...values){
+		Map<String, String[]> map = new HashMap<>();
+		map.put(field, values);
+		return Collections.singletonList(map);
+	}
+}
@@ -19,10 +19,12 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.dromara.mendmix.common.async.BackoffPolicy;
+import org.dromara.mendmix.common.async.TimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,7 +41,9 @@ public class TaskRetryProcessor {
 	//重试时间间隔单元（毫秒）
 	private static final long RETRY_PERIOD_UNIT = 10 * 1000;
 
-	private final PriorityBlockingQueue<PriorityTask> taskQueue = new PriorityBlockingQueue<PriorityTask>(1000);  
+	private final TimingWheel timingWheel = TimingWheel.getDefault();
+	
+	private final BackoffPolicy backoffPolicy = BackoffPolicy.linear(RETRY_PERIOD_UNIT);
 	
 	private ExecutorService executor;
 	
@@ -53,31 +57,12 @@ public class TaskRetryProcessor {
 
 	public TaskRetryProcessor(int poolSize) {
 		executor = Executors.newFixedThreadPool(poolSize);
-		executor.execute(new Runnable() {
-			@Override
-			public void run() {
-				while(!closed.get()){
-					try {
-						PriorityTask task = taskQueue.take();
-						//空任务跳出循环
-						if(task.getJob() == null)break;
-						if(task.nextFireTime - System.currentTimeMillis() > 0){
-							TimeUnit.MILLISECONDS.sleep(1000);
-							taskQueue.put(task);
-							continue;
-						}
-						task.run();
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-				}
-			}
-		});
 	}
 
 	public void submit(final AbstractJob job,final int retries){
+		if(closed.get())return;
 		int taskCount;
-		if((taskCount = taskQueue.size()) > 100){
+		if((taskCount = queueJobNames.size()) > 100){
 			logger.warn("MENDMIX-TRACE-LOGGGING-->> ErrorMessageProcessor queue task count over:{}",taskCount);
 		}
 		if(queueJobNames.contains(job.jobName)){
@@ -85,42 +70,51 @@ public class TaskRetryProcessor {
 			return;
 		}
 		logger.info("MENDMIX-TRACE-LOGGGING-->> Add Job[{}-{}] to retry Queue,will be retry {} time",job.group,job.jobName,retries);
-		taskQueue.add(new PriorityTask(job, retries));
 		queueJobNames.add(job.jobName);
+		new RetryTask(job, retries).schedule();
 	}
 	
 	public void close(){
 		closed.set(true);
-		//taskQueue里面没有任务会一直阻塞，所以先add一个新任务保证执行
-		taskQueue.add(new PriorityTask(null, 0));
-		try {Thread.sleep(1000);} catch (Exception e) {}
 		executor.shutdown();
 		logger.info("MENDMIX-TRACE-LOGGGING-->> TaskRetryProcessor closed");
 	}
 	
-	class PriorityTask implements Runnable,Comparable<PriorityTask>{
+	class RetryTask implements Runnable{
 
 		final AbstractJob job;
 		
 		int retries;
 		int retryCount = 0;
-	    long nextFireTime;
 		
-	    public PriorityTask(AbstractJob job, int retries) {
-	    	this(job, retries, System.currentTimeMillis() + RETRY_PERIOD_UNIT);
-	    }
-	    
-		public PriorityTask(AbstractJob job, int retries,long nextFireTime) {
-			super();
+		public RetryTask(AbstractJob job, int retries) {
 			this.retries = retries;
 			this.job = job;
-			this.nextFireTime = nextFireTime;
 		}
 
 		public AbstractJob getJob() {
 			return job;
 		}
 
+		void schedule() {
+			long delay = backoffPolicy.delayMillis(retryCount);
+			TimingWheel.Timeout timeout = timingWheel.schedule(() -> {
+				if(closed.get()) {
+					queueJobNames.remove(job.jobName);
+					return;
+				}
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					queueJobNames.remove(job.jobName);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+			if(timeout == null) {
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> Job[{}-{}] retry dropped,timingWheel is full",job.group,job.jobName);
+				queueJobNames.remove(job.jobName);
+			}
+		}
+
 		@Override
 		public void run() {
 			try {	
@@ -136,26 +130,17 @@ public class TaskRetryProcessor {
 		}
 		
 		private void retry(){
-			if(retryCount == retries){
-				logger.warn("MENDMIX-TRACE-LOGGGING-->> retry_skip mssageId[{}] retry over {} time error ,skip!!!");
+			if(retryCount == retries || closed.get()){
+				logger.warn("MENDMIX-TRACE-LOGGGING-->> retry_skip Job[{}-{}] retry over {} time error ,skip!!!",job.group,job.jobName,retries);
 				//remove
 				queueJobNames.remove(job.jobName);
 				return;
 			}
-			nextFireTime = nextFireTime + retryCount * RETRY_PERIOD_UNIT;
-			//重新放入任务队列
-			taskQueue.add(this);
-			logger.debug("MENDMIX-TRACE-LOGGGING-->> re-submit Job[{}-{}] task to queue,next fireTime:{}",job.group,job.jobName,nextFireTime);
-		}
-
-		@Override
-		public int compareTo(PriorityTask o) {
-			return (int) (this.nextFireTime - o.nextFireTime);
+			//重新加入延迟调度
+			schedule();
+			logger.debug("MENDMIX-TRACE-LOGGGING-->> re-submit Job[{}-{}] task to queue,retryCount:{}",job.group,job.jobName,retryCount);
 		}
-
-		
 		
 	}
 
 }
-
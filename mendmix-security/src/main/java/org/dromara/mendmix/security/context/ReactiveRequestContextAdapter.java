@@ -36,6 +36,11 @@ import reactor.core.publisher.Mono;
  */
 public class ReactiveRequestContextAdapter implements RequestContextAdapter {
 
+	static {
+		//请求对象不传递到异步线程
+		ThreadLocalContext.key(_CTX_REQUEST_KEY, false);
+	}
+	
 	public static void init(ServerHttpRequest request) {
 		ThreadLocalContext.set(_CTX_REQUEST_KEY, request);
 		CurrentRuntimeContext.addContextHeaders(request.getHeaders().toSingleValueMap());		
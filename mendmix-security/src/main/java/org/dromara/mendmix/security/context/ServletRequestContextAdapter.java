@@ -37,7 +37,11 @@ import org.dromara.mendmix.security.RequestContextAdapter;
  */
 public class ServletRequestContextAdapter implements RequestContextAdapter {
 
-	
+	static {
+		//请求、响应对象不传递到异步线程
+		ThreadLocalContext.key(_CTX_REQUEST_KEY, false);
+		ThreadLocalContext.key(_CTX_RESPONSE_KEY, false);
+	}
 
 	public static void init(HttpServletRequest request,HttpServletResponse response) {
 		ThreadLocalContext.unset();
@@ -15,7 +15,6 @@
  */
 package org.dromara.mendmix.spring.autoconfigure;
 
-import java.util.Map;
 import java.util.concurrent.RejectedExecutionHandler;
 
 import org.slf4j.Logger;
@@ -26,9 +25,10 @@ import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import org.dromara.mendmix.common.CurrentRuntimeContext;
 import org.dromara.mendmix.common.MendmixBaseException;
 import org.dromara.mendmix.common.ThreadLocalContext;
+import org.dromara.mendmix.common.ThreadLocalContext.Snapshot;
+import org.dromara.mendmix.common.ThreadLocalContext.Values;
 
 /**
  * @description <br>
@@ -69,14 +69,13 @@ public class AsyncTaskExecutorConfigurer implements AsyncConfigurer {
 
 	private static TaskDecorator TASK_DECORATOR = runnable -> {
 		// 复制父线程的上下文
-		Map<String, String> allContextVars = CurrentRuntimeContext.getContextHeaders();
+		Snapshot snapshot = ThreadLocalContext.snapshot();
 		return () -> {
+			Values previous = ThreadLocalContext.attach(snapshot);
 			try {
-				logger.debug(">>AsyncTaskExecutor CurrentRuntimeContext: {}", allContextVars);
-				allContextVars.forEach(ThreadLocalContext::set);
 				runnable.run();
 			} finally {
-				ThreadLocalContext.unset();
+				ThreadLocalContext.detach(previous);
 			}
 		};
 	};